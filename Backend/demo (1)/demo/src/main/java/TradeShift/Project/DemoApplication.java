@@ -1,5 +1,6 @@
 package TradeShift.Project;
 
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -9,7 +10,7 @@ public class DemoApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(DemoApplication.class, args);
 
-        System.err.println("Program is running state....");
+        LoggerFactory.getLogger(DemoApplication.class).info("Program is running state....");
 	}
 
 
@@ -0,0 +1,121 @@
+package TradeShift.Project.cluster;
+
+import TradeShift.Project.entity.ClusterMessage;
+import TradeShift.Project.events.PortfolioChangedEvent;
+import TradeShift.Project.events.PricesChangedEvent;
+import TradeShift.Project.events.UserChangedEvent;
+import TradeShift.Project.security.AuthenticationCache;
+import TradeShift.Project.services.HoldingsIndex;
+import TradeShift.Project.services.QuoteCache;
+import TradeShift.Project.services.RecentOrders;
+import TradeShift.Project.streaming.PortfolioStreamService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the in-memory caches of several nodes coherent. Local changes go out on the
+// cluster channel after commit; changes from other nodes are applied to the caches
+// directly (not republished as events, so they never echo back):
+//  - portfolio: holdings re-read, recent-order rings dropped, open streams reloaded
+//  - price: quote cached, the symbol's holdings re-read before this node reprices it
+//    again (so its deltas start from what the other node wrote), open streams repriced
+//  - user: cached authorities dropped
+@Component
+@ConditionalOnProperty(name = "cluster.channel")
+public class ClusterCacheSync {
+
+    private final ClusterChannel channel;
+    private final HoldingsIndex holdingsIndex;
+    private final RecentOrders recentOrders;
+    private final QuoteCache quoteCache;
+    private final PortfolioStreamService streamService;
+    private final AuthenticationCache authenticationCache;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+
+    public ClusterCacheSync(ClusterChannel channel,
+                            HoldingsIndex holdingsIndex,
+                            RecentOrders recentOrders,
+                            QuoteCache quoteCache,
+                            PortfolioStreamService streamService,
+                            AuthenticationCache authenticationCache) {
+        this.channel = channel;
+        this.holdingsIndex = holdingsIndex;
+        this.recentOrders = recentOrders;
+        this.quoteCache = quoteCache;
+        this.streamService = streamService;
+        this.authenticationCache = authenticationCache;
+        channel.subscribe(this::apply);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        publish(List.of(ClusterMessage.portfolio(event.portfolioId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        List<ClusterMessage> messages = new ArrayList<>(event.prices().size());
+        event.prices().forEach((symbol, price) -> {
+            if (price != null) {
+                messages.add(ClusterMessage.price(symbol, price));
+            }
+        });
+        publish(messages);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        publish(List.of(ClusterMessage.user(event.username())));
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("published", published.get());
+        stats.put("applied", applied.get());
+        stats.putAll(channel.getStats());
+        return stats;
+    }
+
+    private void publish(List<ClusterMessage> messages) {
+        published.addAndGet(messages.size());
+        channel.publish(messages);
+    }
+
+    // Messages of one delivery are applied per kind, so a burst costs one pass per cache
+    private void apply(List<ClusterMessage> messages) {
+        Map<String, Double> prices = new HashMap<>();
+        Set<Long> portfolioIds = new LinkedHashSet<>();
+        for (ClusterMessage message : messages) {
+            switch (message.getType()) {
+                case ClusterMessage.TYPE_PORTFOLIO -> portfolioIds.add(Long.valueOf(message.getKey()));
+                case ClusterMessage.TYPE_PRICE -> prices.put(message.getKey(), Double.valueOf(message.getValue()));
+                case ClusterMessage.TYPE_USER -> authenticationCache.invalidateUser(message.getKey());
+                default -> {
+                    // From a newer node; nothing cached here depends on it
+                }
+            }
+        }
+        if (!prices.isEmpty()) {
+            prices.forEach(quoteCache::put);
+            holdingsIndex.invalidate(prices.keySet());
+            streamService.onPricesChanged(new PricesChangedEvent(prices));
+        }
+        for (Long portfolioId : portfolioIds) {
+            holdingsIndex.invalidatePortfolio(portfolioId);
+            recentOrders.invalidate(portfolioId);
+            streamService.onPortfolioChanged(new PortfolioChangedEvent(portfolioId));
+        }
+        applied.addAndGet(messages.size());
+    }
+}
@@ -0,0 +1,30 @@
+package TradeShift.Project.cluster;
+
+import TradeShift.Project.entity.ClusterMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Carries cache changes between the nodes of a deployment, selected by cluster.channel
+// (jdbc between processes, jvm between application contexts of one JVM, e.g. in tests).
+// Delivery is at-least-once within the channel's delay; listeners only drop or overwrite
+// cached state, so a repeated message costs a reload and nothing else.
+public interface ClusterChannel {
+
+    String nodeId();
+
+    // Never blocks on the transport; call after the change has committed
+    void publish(List<ClusterMessage> messages);
+
+    // Receives the messages of the other nodes, in the order each node published them
+    void subscribe(Consumer<List<ClusterMessage>> listener);
+
+    Map<String, Long> getStats();
+
+    // cluster.node-id, or a random id per start
+    static String resolveNodeId(String configured) {
+        return configured == null || configured.isBlank() ? UUID.randomUUID().toString() : configured;
+    }
+}
@@ -0,0 +1,94 @@
+package TradeShift.Project.cluster;
+
+import TradeShift.Project.entity.ClusterMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Channel between application contexts of the same JVM: every context with the same
+// cluster.jvm.group is a node, and a publish is handed to the other nodes' listeners on
+// the publishing thread. For tests of multi-node behaviour; no delay, nothing persisted.
+@Component
+@ConditionalOnProperty(name = "cluster.channel", havingValue = "jvm")
+public class InJvmClusterChannel implements ClusterChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(InJvmClusterChannel.class);
+
+    private static final Map<String, Set<InJvmClusterChannel>> GROUPS = new ConcurrentHashMap<>();
+
+    private final String nodeId;
+    private final String group;
+    private final List<Consumer<List<ClusterMessage>>> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    public InJvmClusterChannel(@Value("${cluster.node-id:}") String nodeId,
+                               @Value("${cluster.jvm.group:default}") String group) {
+        this.nodeId = ClusterChannel.resolveNodeId(nodeId);
+        this.group = group;
+        GROUPS.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(List<ClusterMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        sent.addAndGet(messages.size());
+        for (InJvmClusterChannel node : GROUPS.getOrDefault(group, Set.of())) {
+            if (node != this) {
+                node.deliver(messages);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<ClusterMessage>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("sent", sent.get());
+        stats.put("received", received.get());
+        return stats;
+    }
+
+    private void deliver(List<ClusterMessage> messages) {
+        received.addAndGet(messages.size());
+        for (Consumer<List<ClusterMessage>> listener : listeners) {
+            try {
+                listener.accept(messages);
+            } catch (RuntimeException e) {
+                log.warn("Cluster listener on node {} failed: {}", nodeId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        Set<InJvmClusterChannel> nodes = GROUPS.get(group);
+        if (nodes != null) {
+            nodes.remove(this);
+        }
+    }
+}
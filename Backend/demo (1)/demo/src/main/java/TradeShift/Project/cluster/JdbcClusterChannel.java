@@ -0,0 +1,261 @@
+package TradeShift.Project.cluster;
+
+import TradeShift.Project.entity.ClusterMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Channel through the shared database: publishes are queued and inserted into
+// cluster_messages in batches by a background thread, which also polls for rows of the
+// other nodes every poll interval (the bound on how stale a peer's cache can be).
+// Ids are handed out before commit, so a row may become visible after higher ones: ids
+// past a gap are delivered at once, and the cursor waits up to gap-timeout for the
+// missing ones before treating them as rolled back.
+@Component
+@ConditionalOnProperty(name = "cluster.channel", havingValue = "jdbc")
+public class JdbcClusterChannel implements ClusterChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcClusterChannel.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cluster_messages (node_id, type, message_key, message_value, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_COLUMNS =
+            "SELECT id, node_id, type, message_key, message_value FROM cluster_messages ";
+    private static final String POLL_SQL = SELECT_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String GAP_SQL = SELECT_COLUMNS + "WHERE id > ? AND id < ? ORDER BY id";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM cluster_messages";
+    private static final String PURGE_SQL = "DELETE FROM cluster_messages WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final long retentionMinutes;
+
+    private final List<Consumer<List<ClusterMessage>>> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<ClusterMessage> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ScheduledExecutorService worker;
+
+    // Only touched on the worker thread: every id up to the cursor is handled, as are
+    // the ids in handled; gapSince is when the id after the cursor was first missed
+    private long cursor;
+    private final TreeSet<Long> handled = new TreeSet<>();
+    private long gapSince;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong gapsSkipped = new AtomicLong();
+
+    public JdbcClusterChannel(JdbcTemplate jdbcTemplate,
+                              @Value("${cluster.node-id:}") String nodeId,
+                              @Value("${cluster.jdbc.poll-interval-ms:500}") long pollIntervalMs,
+                              @Value("${cluster.jdbc.batch-size:1000}") int batchSize,
+                              @Value("${cluster.jdbc.gap-timeout-ms:5000}") long gapTimeoutMs,
+                              @Value("${cluster.jdbc.retention-minutes:60}") long retentionMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = ClusterChannel.resolveNodeId(nodeId);
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retentionMinutes = retentionMinutes;
+
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-channel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Runs before ApplicationReadyEvent, where the caches load, so nothing committed after
+    // they were loaded is missed; messages from before this node started are not replayed
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        cursor = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        worker.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    // At most one flush is queued however many publishes arrive meanwhile
+    @Override
+    public void publish(List<ClusterMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        outgoing.addAll(messages);
+        if (flushQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<ClusterMessage>> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.jdbc.purge-interval-ms:300000}")
+    public void purge() {
+        int removed = jdbcTemplate.update(PURGE_SQL,
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        if (removed > 0) {
+            log.debug("Purged {} cluster messages", removed);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("sent", sent.get());
+        stats.put("dropped", dropped.get());
+        stats.put("received", received.get());
+        stats.put("gapsSkipped", gapsSkipped.get());
+        stats.put("queued", (long) outgoing.size());
+        return stats;
+    }
+
+    // Identical messages queued together (e.g. one portfolio changed several times in a
+    // transaction) are sent once
+    private void flush() {
+        Set<ClusterMessage> batch = new LinkedHashSet<>();
+        for (ClusterMessage message; (message = outgoing.poll()) != null; ) {
+            batch.add(message);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ClusterMessage message : batch) {
+            rows.add(new Object[]{nodeId, message.getType(), message.getKey(), message.getValue(), now});
+        }
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(from + batchSize, rows.size())));
+            }
+            sent.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            // Peers keep their cached copies until those expire or reload
+            dropped.addAndGet(rows.size());
+            log.warn("Dropped {} cluster messages: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Cluster channel poll failed: {}", e.getMessage());
+        }
+    }
+
+    // Reads late rows inside gaps, then everything new, and moves the cursor up
+    private void poll() {
+        List<ClusterMessage> incoming = new ArrayList<>();
+        if (!handled.isEmpty()) {
+            read(incoming, GAP_SQL, cursor, handled.last());
+        }
+        while (true) {
+            long from = handled.isEmpty() ? cursor : Math.max(cursor, handled.last());
+            if (read(incoming, POLL_SQL, from, batchSize) < batchSize) {
+                break;
+            }
+        }
+        advance(System.currentTimeMillis());
+
+        if (incoming.isEmpty()) {
+            return;
+        }
+        received.addAndGet(incoming.size());
+        for (Consumer<List<ClusterMessage>> listener : listeners) {
+            try {
+                listener.accept(incoming);
+            } catch (RuntimeException e) {
+                log.warn("Cluster listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int read(List<ClusterMessage> incoming, String sql, Object... args) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            rows[0]++;
+            long id = rs.getLong(1);
+            if (id <= cursor || !handled.add(id) || nodeId.equals(rs.getString(2))) {
+                return;
+            }
+            ClusterMessage message = new ClusterMessage(rs.getString(3), rs.getString(4), rs.getString(5));
+            message.setId(id);
+            message.setNodeId(rs.getString(2));
+            incoming.add(message);
+        }, args);
+        return rows[0];
+    }
+
+    private void advance(long now) {
+        while (!handled.isEmpty()) {
+            long first = handled.first();
+            if (first == cursor + 1) {
+                handled.pollFirst();
+                cursor = first;
+                gapSince = 0;
+                continue;
+            }
+            if (gapSince == 0) {
+                gapSince = now;
+                return;
+            }
+            if (now - gapSince < gapTimeoutMs) {
+                return;
+            }
+            // The ids below the first one seen were rolled back (or skipped by the sequence)
+            gapsSkipped.addAndGet(first - cursor - 1);
+            cursor = first - 1;
+            gapSince = 0;
+        }
+        gapSince = 0;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,46 @@
+package TradeShift.Project.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-pool connection counts for every Hikari pool, plus how connections were routed when a replica is configured
+@Component
+public class DataSourceStats {
+
+    private final ObjectProvider<HikariDataSource> pools;
+    private final DataSource dataSource;
+
+    public DataSourceStats(ObjectProvider<HikariDataSource> pools, DataSource dataSource) {
+        this.pools = pools;
+        this.dataSource = dataSource;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        pools.orderedStream().forEach(pool -> {
+            String name = pool.getPoolName();
+            stats.put(name + ".maxPoolSize", (long) pool.getMaximumPoolSize());
+            // Hikari starts the pool on the first connection request
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null) {
+                stats.put(name + ".active", (long) mxBean.getActiveConnections());
+                stats.put(name + ".idle", (long) mxBean.getIdleConnections());
+                stats.put(name + ".total", (long) mxBean.getTotalConnections());
+                stats.put(name + ".awaiting", (long) mxBean.getThreadsAwaitingConnection());
+            }
+        });
+        if (dataSource instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ReadReplicaRoutingDataSource routing) {
+            stats.put("routed.primary", routing.getPrimaryConnections());
+            stats.put("routed.replica", routing.getReplicaConnections());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,52 @@
+package TradeShift.Project.configuration;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends connections for read-only service transactions to the replica pool, everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only bound after the
+// transaction manager has asked for its connection.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    // Spring Data wraps its own repository methods in read-only transactions; those are usually
+    // a findById ahead of a save, so they must see the primary's latest state
+    private static final String SPRING_DATA_PREFIX = "org.springframework.data.";
+
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong replicaConnections = new AtomicLong();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    static Route currentRoute() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || name.startsWith(SPRING_DATA_PREFIX) ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = currentRoute();
+        (route == Route.REPLICA ? replicaConnections : primaryConnections).incrementAndGet();
+        return route;
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections.get();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+}
@@ -1,6 +1,8 @@
 package TradeShift.Project.configuration;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,11 +11,12 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import TradeShift.Project.security.JwtAuthenticationFilter;
+import TradeShift.Project.security.RateLimitFilter;
+import TradeShift.Project.security.TunablePasswordEncoder;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
@@ -22,9 +25,15 @@ public class WebSecurityConfiguration {
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    // Algorithm and cost for new hashes; existing ones are re-hashed on their next login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${security.password.pbkdf2-iterations:310000}") int pbkdf2Iterations) {
+        return new TunablePasswordEncoder(algorithm, bcryptStrength, pbkdf2Iterations);
     }
 
     @Bean
@@ -39,18 +48,24 @@ public class WebSecurityConfiguration {
                 .cors(cors -> {})
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches only complete a request that was already authorized (SSE streams)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
                         // FIX: Use correct wildcard pattern for portfolio orders endpoints
                         .requestMatchers(HttpMethod.POST, "/api/portfolio/*/orders").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/portfolio/*/orders/public").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/analytics/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/auth/profile/**").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/auth/**").authenticated()
                         .requestMatchers("/api/portfolio/**").authenticated()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter so signed-in clients are limited by user, not address
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,17 +1,182 @@
 package TradeShift.Project.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import TradeShift.Project.cluster.ClusterCacheSync;
+import TradeShift.Project.configuration.DataSourceStats;
+import TradeShift.Project.dto.LedgerRebuildReport;
+import TradeShift.Project.dto.QuoteRefreshReport;
+import TradeShift.Project.matching.MatchingEngine;
+import TradeShift.Project.security.PasswordHashing;
+import TradeShift.Project.security.RateLimiter;
+import TradeShift.Project.outbox.OrderEventDispatcher;
+import TradeShift.Project.services.HoldingsIndex;
+import TradeShift.Project.services.LedgerService;
+import TradeShift.Project.services.PortfolioWrites;
+import TradeShift.Project.services.QuoteCache;
+import TradeShift.Project.services.QuoteRefreshService;
+import TradeShift.Project.services.RecentOrders;
+import TradeShift.Project.streaming.PortfolioStreamService;
+import TradeShift.Project.util.ApiResponse;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
+    @Autowired
+    private QuoteCache quoteCache;
+
+    @Autowired
+    private QuoteRefreshService quoteRefreshService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private PortfolioStreamService portfolioStreamService;
+
+    @Autowired
+    private HoldingsIndex holdingsIndex;
+
+    @Autowired
+    private DataSourceStats dataSourceStats;
+
+    @Autowired
+    private OrderEventDispatcher orderEventDispatcher;
+
+    @Autowired
+    private RecentOrders recentOrders;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private PasswordHashing passwordHashing;
+
+    @Autowired
+    private PortfolioWrites portfolioWrites;
+
+    // Absent on a single node (cluster.channel unset)
+    @Autowired(required = false)
+    private ClusterCacheSync clusterCacheSync;
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/allusers")
     public String onlyAdminCanSee() {
         return "Only admin can view all users.";
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/quote-cache")
+    public ApiResponse<Map<String, Long>> quoteCacheStats() {
+        return new ApiResponse<>("success", quoteCache.getStats(), "Quote cache statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/quote-refresh")
+    public ApiResponse<QuoteRefreshReport> lastQuoteRefresh() {
+        return new ApiResponse<>("success", quoteRefreshService.getLastReport(), "Last quote refresh report fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/quote-refresh")
+    public ApiResponse<QuoteRefreshReport> runQuoteRefresh() {
+        QuoteRefreshReport report = quoteRefreshService.refreshAll();
+        if (report == null) {
+            return new ApiResponse<>("busy", quoteRefreshService.getLastReport(), "A quote refresh is already running");
+        }
+        return new ApiResponse<>("success", report, "Quote refresh completed");
+    }
+
+    // Replays order history into the ledgers; one portfolio if given, otherwise all of them
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/ledger/rebuild")
+    public ApiResponse<LedgerRebuildReport> rebuildLedger(@RequestParam(required = false) Long portfolioId) {
+        if (portfolioId != null) {
+            long start = System.currentTimeMillis();
+            boolean repaired = ledgerService.rebuild(portfolioId);
+            return new ApiResponse<>("success",
+                    new LedgerRebuildReport(1, repaired ? 1 : 0, System.currentTimeMillis() - start),
+                    "Ledger rebuilt for portfolio " + portfolioId);
+        }
+        return new ApiResponse<>("success", ledgerService.verifyAll(), "Ledgers verified");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/matching")
+    public ApiResponse<Map<String, Long>> matchingStats() {
+        return new ApiResponse<>("success", matchingEngine.getStats(), "Matching engine statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/streams")
+    public ApiResponse<Map<String, Long>> streamStats() {
+        return new ApiResponse<>("success", portfolioStreamService.getStats(), "Portfolio stream statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/holdings-index")
+    public ApiResponse<Map<String, Long>> holdingsIndexStats() {
+        return new ApiResponse<>("success", holdingsIndex.getStats(), "Holdings index statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/datasources")
+    public ApiResponse<Map<String, Long>> dataSourceStats() {
+        return new ApiResponse<>("success", dataSourceStats.getStats(), "Connection pool statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/recent-orders")
+    public ApiResponse<Map<String, Long>> recentOrderStats() {
+        return new ApiResponse<>("success", recentOrders.getStats(), "Recent orders statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/outbox")
+    public ApiResponse<Map<String, Long>> outboxStats() {
+        return new ApiResponse<>("success", orderEventDispatcher.getStats(), "Order event outbox statistics fetched successfully");
+    }
+
+    // Puts parked (FAILED) order events back in the queue
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/outbox/retry")
+    public ApiResponse<Integer> retryOutbox() {
+        return new ApiResponse<>("success", orderEventDispatcher.retryFailed(), "Parked order events requeued");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cluster")
+    public ApiResponse<Map<String, Long>> clusterStats() {
+        Map<String, Long> stats = clusterCacheSync != null ? clusterCacheSync.getStats() : Map.of();
+        return new ApiResponse<>("success", stats, "Cluster cache sync statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/rate-limits")
+    public ApiResponse<Map<String, Long>> rateLimitStats() {
+        return new ApiResponse<>("success", rateLimiter.getStats(), "Rate limiter statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/password-hashing")
+    public ApiResponse<Map<String, Long>> passwordHashingStats() {
+        return new ApiResponse<>("success", passwordHashing.getStats(), "Password hashing statistics fetched successfully");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/portfolio-writes")
+    public ApiResponse<Map<String, Long>> portfolioWritesStats() {
+        return new ApiResponse<>("success", portfolioWrites.getStats(), "Portfolio write statistics fetched successfully");
+    }
 }
@@ -2,6 +2,7 @@ package TradeShift.Project.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import TradeShift.Project.money.Money;
 import TradeShift.Project.services.AnalyticsService;
 import TradeShift.Project.util.ApiResponse;
 
@@ -15,8 +16,8 @@ public class AnalyticsController {
     private final AnalyticsService analyticsService;
 
     @GetMapping("/profit-loss")
-    public ApiResponse<Double> getProfitLoss(@RequestParam Long portfolioId) {
-        double profitLoss = analyticsService.calculateProfitLoss(portfolioId);
+    public ApiResponse<Money> getProfitLoss(@RequestParam Long portfolioId) {
+        Money profitLoss = analyticsService.calculateProfitLoss(portfolioId);
         return new ApiResponse<>("success", profitLoss, "Profit/Loss calculated successfully");
     }
 
@@ -1,41 +1,83 @@
 package TradeShift.Project.controller;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import TradeShift.Project.entity.Order;
 import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.services.OrderHistoryService;
+import TradeShift.Project.services.OrderImportService;
 import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioWrites;
+import TradeShift.Project.services.RecentOrders;
 import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.dto.OrderHistoryFilter;
+import TradeShift.Project.dto.OrderImportReport;
+import TradeShift.Project.dto.OrderPage;
 import TradeShift.Project.dto.OrderRequestDTO;
+import TradeShift.Project.matching.MatchingEngine;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/portfolio/{portfolioId}/orders")
 @CrossOrigin(origins = "http://localhost:3000")
 public class OrderController {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
     @Autowired
     private OrderService orderService;
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private RecentOrders recentOrders;
+
+    @Autowired
+    private PortfolioWrites portfolioWrites;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     // ---- 1. Original endpoint: portfolio-wise placement ----
     @PostMapping
     public Order placeOrder(
             @PathVariable Long portfolioId,
             @RequestBody Map<String, Object> orderRequest
     ) {
-        System.out.println("Done from UI to Represent BUY/SELL: " + orderRequest + " PortfolioID: " + portfolioId);
+        log.debug("Order request for portfolio {}: {}", portfolioId, orderRequest);
 
         String symbol = (String) orderRequest.get("symbol");
         String type = (String) orderRequest.get("type"); // "BUY" or "SELL"
         Double quantity = Double.valueOf(orderRequest.get("quantity").toString());
         Double price = Double.valueOf(orderRequest.get("price").toString());
 
-        return orderService.placeOrder(portfolioId, symbol, OrderType.valueOf(type), quantity, price);
+        return placement("market").observe(() -> portfolioWrites.execute(portfolioId, () ->
+                orderService.placeOrder(portfolioId, symbol, OrderType.valueOf(type), quantity, price)));
     }
 
     // ---- 2. Direct dashboard/Public order endpoint (no portfolio needed) ----
@@ -45,28 +87,103 @@ public class OrderController {
         Order order = new Order();
         order.setSymbol(dto.getSymbol());
         order.setType(OrderType.valueOf(dto.getType()));
-        order.setQuantity(dto.getQuantity());
-        order.setPrice(dto.getPrice());
+        order.setQuantity(dto.getQuantity() != null ? Quantity.of(dto.getQuantity()) : null);
+        order.setPrice(dto.getPrice() != null ? Money.of(dto.getPrice()) : null);
         order.setOrderTime(java.time.LocalDateTime.now());
         order.setStatus("SUCCESS");
         // (Optional) Link portfolio if you want: order.setPortfolio(...);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        recentOrders.recorded(List.of(saved));
+        return saved;
+    }
+
+    // ---- 3. Batch placement: all orders commit or none do ----
+    @PostMapping("/batch")
+    public List<Order> placeOrders(@PathVariable Long portfolioId, @RequestBody List<OrderRequestDTO> orders) {
+        return placement("batch").observe(() ->
+                portfolioWrites.execute(portfolioId, () -> orderService.placeOrders(portfolioId, orders)));
+    }
+
+    // ---- 4. Limit order: rests as OPEN and is matched by the in-process engine ----
+    @PostMapping("/limit")
+    public Order placeLimitOrder(@PathVariable Long portfolioId, @RequestBody OrderRequestDTO dto) {
+        return placement("limit").observe(() -> {
+            Order order = portfolioWrites.execute(portfolioId, () -> orderService.placeLimitOrder(portfolioId,
+                    dto.getSymbol(), OrderType.valueOf(dto.getType()), dto.getQuantity(), dto.getPrice()));
+            matchingEngine.submit(order);
+            return order;
+        });
+    }
+
+    // ---- 5. Cancel a resting limit order; 202 since the engine takes it off the book
+    //         asynchronously (the order reads CANCELLED once that is recorded) ----
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<Order> cancelOrder(@PathVariable Long portfolioId, @PathVariable Long orderId) {
+        Order order = orderService.getRestingOrder(portfolioId, orderId);
+        matchingEngine.cancel(order);
+        return ResponseEntity.accepted().body(order);
+    }
+
+    // The portfolio's write stripe is full; shed the order rather than queue it
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> writesSaturated() {
+        return ResponseEntity.status(503).header("Retry-After", "1").build();
+    }
+
+    // Timed around the service call so the commit is included ("orders.place" timer, tagged by kind and error)
+    private Observation placement(String kind) {
+        return Observation.createNotStarted("orders.place", observationRegistry)
+                .lowCardinalityKeyValue("kind", kind);
     }
 
     @GetMapping
-    public List<Order> getOrders(@PathVariable Long portfolioId) {
+    public List<OrderDTO> getOrders(@PathVariable Long portfolioId) {
         return orderService.getOrdersByPortfolio(portfolioId);
     }
 
+    // ---- History, newest first, one page at a time (?symbol=&type=&from=&to=&cursor=&limit=) ----
+    @GetMapping("/history")
+    public OrderPage getOrderHistory(@PathVariable Long portfolioId,
+                                     OrderHistoryFilter filter,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit) {
+        return orderHistoryService.getOrderPage(portfolioId, filter, cursor, limit);
+    }
+
+    // ---- Full history as NDJSON, streamed from the database (same filters as /history) ----
+    @GetMapping("/export")
+    public void exportOrders(@PathVariable Long portfolioId, OrderHistoryFilter filter,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\"orders-" + portfolioId + ".ndjson\"");
+        orderHistoryService.exportOrders(portfolioId, filter, response.getOutputStream());
+    }
+
+    // ---- Bulk import of past trades: CSV with a header row, or NDJSON; streamed in chunks ----
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public OrderImportReport importOrders(@PathVariable Long portfolioId,
+                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          InputStream body) throws IOException {
+        OrderImportService.Format format = contentType.contains("csv")
+                ? OrderImportService.Format.CSV : OrderImportService.Format.NDJSON;
+        return orderImportService.importOrders(portfolioId, body, format);
+    }
+
+    // Counters of the import currently running for this portfolio (empty when none is)
+    @GetMapping("/import/progress")
+    public OrderImportReport getImportProgress(@PathVariable Long portfolioId) {
+        return orderImportService.getProgress(portfolioId);
+    }
+
     // --- NEW: Get top 5 recent orders globally ---
     @GetMapping("/recent/all")
-    public List<Order> getAllRecentOrders() {
-        return orderRepository.findTop5ByOrderByOrderTimeDesc();
+    public List<OrderDTO> getAllRecentOrders() {
+        return orderService.getRecentOrders(null, 5);
     }
 
     // --- NEW: Get top 5 recent orders for a portfolio ---
     @GetMapping("/recent")
-    public List<Order> getRecentOrdersForPortfolio(@PathVariable Long portfolioId) {
-        return orderRepository.findTop5ByPortfolioIdOrderByOrderTimeDesc(portfolioId);
+    public List<OrderDTO> getRecentOrdersForPortfolio(@PathVariable Long portfolioId) {
+        return orderService.getRecentOrders(portfolioId, 5);
     }
 }
@@ -1,14 +1,20 @@
 package TradeShift.Project.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import TradeShift.Project.dto.AssetDTO;
+import TradeShift.Project.dto.PortfolioDTO;
 import TradeShift.Project.security.JwtUtil;
+import TradeShift.Project.streaming.PortfolioStreamService;
 import TradeShift.Project.entity.*;
 import TradeShift.Project.services.*;
 
         import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/portfolio")
@@ -20,6 +26,9 @@ public class PortfolioController {
     @Autowired
     private AssetService assetService;
 
+    @Autowired
+    private PortfolioStreamService portfolioStreamService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -36,18 +45,31 @@ public class PortfolioController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Portfolio>> getUserPortfolios(HttpServletRequest request) {
+    public ResponseEntity<List<PortfolioDTO>> getUserPortfolios(HttpServletRequest request) {
         String username = getUsernameFromRequest(request);
         return ResponseEntity.ok(portfolioService.getUserPortfolios(username));
     }
 
+    // Live value, allocation and P&L of all the caller's portfolios as server-sent events
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPortfolios(HttpServletRequest request) {
+        String username = getUsernameFromRequest(request);
+        return portfolioStreamService.subscribe(portfolioService.getUserPortfolioIds(username));
+    }
+
     @PostMapping("/{portfolioId}/assets")
     public ResponseEntity<Asset> addAsset(@PathVariable Long portfolioId, @RequestBody Asset asset) {
         return ResponseEntity.ok(assetService.addAsset(portfolioId, asset));
     }
 
+    // The portfolio's write stripe is full; shed the write rather than queue it
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> writesSaturated() {
+        return ResponseEntity.status(503).header("Retry-After", "1").build();
+    }
+
     @GetMapping("/{portfolioId}/assets")
-    public ResponseEntity<List<Asset>> getAssets(@PathVariable Long portfolioId) {
+    public ResponseEntity<List<AssetDTO>> getAssets(@PathVariable Long portfolioId) {
         return ResponseEntity.ok(assetService.getAssets(portfolioId));
     }
 }
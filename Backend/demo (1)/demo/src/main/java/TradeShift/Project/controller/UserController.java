@@ -1,40 +1,45 @@
 package TradeShift.Project.controller;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
 import TradeShift.Project.entity.User;
 import TradeShift.Project.security.JwtUtil;
 import TradeShift.Project.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-        import java.util.HashMap;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
 
 @CrossOrigin(origins = "http://localhost:8081")
 @RestController
 @RequestMapping("/api/auth")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     // ===============================
     // 🔹 1. REGISTER USER - No need to protect this endpoint, public access allowed
     // ===============================
     @PostMapping("/register")
     public ResponseEntity<User> register(@RequestBody User user) {
-        System.out.println("Register endpoint hit for user: " + user.getUsername());
-        return ResponseEntity.ok(userService.registerUser(user));
+        log.debug("Register endpoint hit for user: {}", user.getUsername());
+        try {
+            return ResponseEntity.ok(userService.registerUser(user));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).header("Retry-After", "1").build();
+        }
     }
 
     // ===============================
@@ -42,10 +47,17 @@ public class UserController {
     // ===============================
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> login(@RequestBody User user) {
-        System.out.println("Login endpoint hit for: " + user.getUsername());
-        User existingUser = userService.findByUsername(user.getUsername());
+        log.debug("Login endpoint hit for: {}", user.getUsername());
+        User existingUser;
+        try {
+            existingUser = userService.authenticate(user.getUsername(), user.getPassword());
+        } catch (RejectedExecutionException e) {
+            // Password hashing is at capacity; shed the attempt rather than queue it
+            return ResponseEntity.status(503).header("Retry-After", "1")
+                    .body(Collections.singletonMap("error", "Too many login attempts, try again shortly"));
+        }
 
-        if (existingUser != null && passwordEncoder.matches(user.getPassword(), existingUser.getPassword())) {
+        if (existingUser != null) {
             // Pass role as claims to JWT generator
             String token = jwtUtil.generateToken(existingUser.getUsername(), existingUser.getRole().name());
 
@@ -62,7 +74,7 @@ public class UserController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @PutMapping("/{username}")
     public ResponseEntity<User> updateUser(@PathVariable String username, @RequestBody User updatedUser) {
-        System.out.println("Update endpoint hit for username: " + username);
+        log.debug("Update endpoint hit for username: {}", username);
 
         User existingUser = userService.findByUsername(username);
         if (existingUser == null) {
@@ -87,7 +99,7 @@ public class UserController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/profile/{username}")
     public ResponseEntity<User> getUserProfile(@PathVariable String username) {
-        System.out.println("Profile endpoint hit for username: " + username);
+        log.debug("Profile endpoint hit for username: {}", username);
         User user = userService.findByUsername(username);
         if (user == null) {
             return ResponseEntity.notFound().build();
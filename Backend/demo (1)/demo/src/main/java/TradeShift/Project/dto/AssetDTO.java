@@ -0,0 +1,17 @@
+package TradeShift.Project.dto;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetDTO {
+    private Long id;
+    private String symbol;
+    private Quantity quantity;
+    private Money price;
+}
@@ -0,0 +1,14 @@
+package TradeShift.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerRebuildReport {
+    private int portfoliosChecked;
+    private int portfoliosRepaired;
+    private long durationMs;
+}
@@ -0,0 +1,25 @@
+package TradeShift.Project.dto;
+
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Flat view of an order for history reads; no portfolio graph attached
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDTO {
+    private Long id;
+    private String symbol;
+    private OrderType type;
+    private Quantity quantity;
+    private Money price;
+    private LocalDateTime orderTime;
+    private String status;
+    private Quantity filledQuantity;
+}
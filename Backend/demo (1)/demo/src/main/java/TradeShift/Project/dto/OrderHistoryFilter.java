@@ -0,0 +1,20 @@
+package TradeShift.Project.dto;
+
+import TradeShift.Project.entity.OrderType;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Optional filters for order history; bound from query parameters, nulls are ignored
+@Data
+public class OrderHistoryFilter {
+    private String symbol;
+    private OrderType type;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;   // exclusive
+}
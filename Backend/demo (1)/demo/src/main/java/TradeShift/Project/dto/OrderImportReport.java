@@ -0,0 +1,25 @@
+package TradeShift.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Progress of a bulk order import; the final report is returned by the upload itself
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderImportReport {
+    private LocalDateTime startedAt;
+    private long rowsRead;
+    private long ordersImported;
+    private long rowsRejected;
+    private int chunksCommitted;
+    private long durationMs;
+    private double ordersPerSecond;
+    private boolean finished;
+    private String failure;       // why the import stopped early, if it did
+    private List<String> errors;  // first rejected rows, "line N: reason"
+}
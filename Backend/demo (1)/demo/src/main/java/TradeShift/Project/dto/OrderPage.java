@@ -0,0 +1,15 @@
+package TradeShift.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+    private List<OrderDTO> orders;
+    private String nextCursor; // null on the last page
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,4 +14,9 @@ public class OrderRequestDTO {
     private String type; // "BUY" or "SELL"
     private Double quantity;
     private Double price;
+    private LocalDateTime orderTime; // optional; imports replay the original trade time
+
+    public OrderRequestDTO(String symbol, String type, Double quantity, Double price) {
+        this(symbol, type, quantity, price, null);
+    }
 }
@@ -0,0 +1,19 @@
+package TradeShift.Project.dto;
+
+import TradeShift.Project.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Read model for portfolio listings: same JSON shape as the entity, without the lazy graph
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioDTO {
+    private Long id;
+    private String name;
+    private Money totalValue;
+    private List<AssetDTO> assets;
+}
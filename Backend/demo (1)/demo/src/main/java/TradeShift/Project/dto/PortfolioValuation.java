@@ -0,0 +1,23 @@
+package TradeShift.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Pushed on /api/portfolio/stream. A "snapshot" event carries every position; an "update"
+// carries only positions that changed since the previous version.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuation {
+    private Long portfolioId;
+    private long version;
+    private double totalValue;
+    private double profitLoss;     // net cash flow, same figure as /api/analytics/profit-loss
+    private double unrealizedPnl;  // market value minus cost basis of open positions
+    private List<PositionValue> positions;
+    private Map<String, Double> allocation; // symbol -> % of total value
+}
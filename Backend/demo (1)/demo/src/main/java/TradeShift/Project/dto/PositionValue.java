@@ -0,0 +1,15 @@
+package TradeShift.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionValue {
+    private String symbol;
+    private Double quantity;
+    private Double price;
+    private Double value;
+}
@@ -0,0 +1,21 @@
+package TradeShift.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRefreshReport {
+    private LocalDateTime startedAt;
+    private int symbols;
+    private int quotesFetched;
+    private int failures;
+    private int symbolsRepriced;
+    private int portfoliosRepriced;
+    private long durationMs;
+    private double symbolsPerSecond;
+}
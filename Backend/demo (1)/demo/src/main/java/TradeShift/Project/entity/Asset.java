@@ -1,11 +1,15 @@
 package TradeShift.Project.entity;
 
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.services.HoldingsIndexListener;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Entity
 @Table(name = "assets")
+@EntityListeners(HoldingsIndexListener.class)
 @Data
 public class Asset {
 
@@ -14,10 +18,14 @@ public class Asset {
     private Long id;
 
     private String symbol;
-    private Double quantity;
-    private Double price;
 
-    @ManyToOne
+    @Column(precision = 19, scale = 6)
+    private Quantity quantity;
+
+    @Column(precision = 19, scale = 4)
+    private Money price;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "portfolio_id")
     @JsonIgnore // Prevent cyclic reference
     private Portfolio portfolio;
@@ -0,0 +1,63 @@
+package TradeShift.Project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A cache change on one node, for the other nodes of the deployment: a portfolio whose
+// orders or holdings changed, a symbol's new price, or a changed user. Rows are the
+// transport of the database channel and are purged after a short retention.
+@Entity
+@Table(name = "cluster_messages", indexes = {
+        @Index(name = "idx_cluster_messages_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class ClusterMessage {
+
+    // Key is the portfolio id
+    public static final String TYPE_PORTFOLIO = "PORTFOLIO";
+    // Key is the symbol, value the price
+    public static final String TYPE_PRICE = "PRICE";
+    // Key is the username
+    public static final String TYPE_USER = "USER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Set by the channel when sent; receivers skip their own
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Column(length = 16, nullable = false)
+    private String type;
+
+    @Column(name = "message_key", length = 128, nullable = false)
+    private String key;
+
+    @Column(name = "message_value", length = 64)
+    private String value;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public ClusterMessage(String type, String key, String value) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    public static ClusterMessage portfolio(Long portfolioId) {
+        return new ClusterMessage(TYPE_PORTFOLIO, String.valueOf(portfolioId), null);
+    }
+
+    public static ClusterMessage price(String symbol, double price) {
+        return new ClusterMessage(TYPE_PRICE, symbol, String.valueOf(price));
+    }
+
+    public static ClusterMessage user(String username) {
+        return new ClusterMessage(TYPE_USER, username, null);
+    }
+}
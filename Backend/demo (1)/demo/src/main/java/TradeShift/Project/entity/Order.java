@@ -1,14 +1,30 @@
 package TradeShift.Project.entity;
 
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import lombok.Data;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset pagination of a portfolio's history on (order_time, id), optionally by symbol
+        @Index(name = "idx_orders_portfolio_time", columnList = "portfolio_id, order_time, id"),
+        @Index(name = "idx_orders_portfolio_symbol_time", columnList = "portfolio_id, symbol, order_time, id"),
+        // Latest orders across all portfolios (loading the global recent-orders ring)
+        @Index(name = "idx_orders_time", columnList = "order_time, id")
+})
 @Data
 public class Order {
 
+    // Statuses of orders that rest in the matching engine; immediate orders are "Completed"
+    public static final String STATUS_OPEN = "OPEN";
+    public static final String STATUS_PARTIALLY_FILLED = "PARTIALLY_FILLED";
+    public static final String STATUS_FILLED = "FILLED";
+    // Taken off the book with quantity unfilled: on request, or to avoid a self-trade
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -18,16 +34,23 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderType type; // BUY or SELL
 
-    private Double quantity;
+    @Column(precision = 19, scale = 6)
+    private Quantity quantity;
 
-    private Double price;
+    @Column(precision = 19, scale = 4)
+    private Money price;
 
     private LocalDateTime orderTime = LocalDateTime.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "portfolio_id")
+    @JsonIgnore // Reads go through OrderDTO; never serialize the portfolio graph per order
     private Portfolio portfolio;
 
     @Column(name = "status")
     private String status;
+
+    // Quantity executed so far by the matching engine (null for immediate orders)
+    @Column(precision = 19, scale = 6)
+    private Quantity filledQuantity;
 }
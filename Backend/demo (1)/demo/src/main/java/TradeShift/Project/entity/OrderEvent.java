@@ -0,0 +1,79 @@
+package TradeShift.Project.entity;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outbox row: one executed order (or one side of a matched trade), written in the same
+// transaction as the order itself and handed to the downstream consumers after commit.
+// The event key is the idempotency key; the id orders a portfolio's events.
+@Entity
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_status", columnList = "status, id"),
+        @Index(name = "idx_order_events_portfolio", columnList = "portfolio_id, id")
+})
+@Data
+@NoArgsConstructor
+public class OrderEvent {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DISPATCHED = "DISPATCHED";
+    // Gave up after the configured number of attempts; left for an operator
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // "order:<id>" or "trade:<id>:<side>"
+    @Column(name = "event_key", length = 64, nullable = false, unique = true)
+    private String eventKey;
+
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    private OrderType type;
+
+    @Column(precision = 19, scale = 6)
+    private Quantity quantity;
+
+    @Column(precision = 19, scale = 4)
+    private Money price;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(length = 16, nullable = false)
+    private String status = STATUS_PENDING;
+
+    private int attempts;
+
+    private LocalDateTime dispatchedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public static OrderEvent placed(Order order) {
+        return new OrderEvent("order:" + order.getId(), order.getPortfolio().getId(),
+                order.getSymbol(), order.getType(), order.getQuantity(), order.getPrice());
+    }
+
+    public static OrderEvent executed(Trade trade, Long portfolioId, OrderType side, Quantity quantity, Money price) {
+        return new OrderEvent("trade:" + trade.getId() + ":" + side, portfolioId,
+                trade.getSymbol(), side, quantity, price);
+    }
+
+    public OrderEvent(String eventKey, Long portfolioId, String symbol, OrderType type, Quantity quantity, Money price) {
+        this.eventKey = eventKey;
+        this.portfolioId = portfolioId;
+        this.symbol = symbol;
+        this.type = type;
+        this.quantity = quantity;
+        this.price = price;
+    }
+}
@@ -1,5 +1,6 @@
 package TradeShift.Project.entity;
 
+import TradeShift.Project.money.Money;
 import jakarta.persistence.*;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -21,7 +22,8 @@ public class Portfolio {
     @Column(nullable = false)
     private String name;
 
-    private Double totalValue = 0.0;
+    @Column(precision = 19, scale = 4)
+    private Money totalValue = Money.ZERO;
 
     // Many portfolios belong to one user
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,40 @@
+package TradeShift.Project.entity;
+
+import TradeShift.Project.money.Money;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running totals for one portfolio, kept up to date by every order (via the order event
+// outbox) so analytics never has to re-scan the order history.
+@Entity
+@Table(name = "portfolio_ledgers")
+@Data
+@NoArgsConstructor
+public class PortfolioLedger {
+
+    @Id
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    // Net cash flow: sells minus buys (what /api/analytics/profit-loss reports)
+    @Column(precision = 19, scale = 4)
+    private Money cashBalance = Money.ZERO;
+
+    // Realized gain on closed quantity, using average cost
+    @Column(precision = 19, scale = 4)
+    private Money realizedPnl = Money.ZERO;
+
+    private Long orderCount = 0L;
+
+    // Highest order_events id folded in; redelivered events at or below it are skipped
+    @Column(nullable = false)
+    private Long lastEventId = 0L;
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public PortfolioLedger(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+}
@@ -0,0 +1,42 @@
+package TradeShift.Project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One valuation point of a portfolio. Rows are written in bulk by SnapshotService and
+// only ever read by (portfolio_id, taken_at), so the table stays narrow.
+@Entity
+@Table(name = "portfolio_snapshots", indexes = {
+        @Index(name = "idx_snapshots_portfolio_time", columnList = "portfolio_id, taken_at"),
+        @Index(name = "idx_snapshots_resolution_time", columnList = "resolution, taken_at")
+})
+@Data
+@NoArgsConstructor
+public class PortfolioSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8, nullable = false)
+    private SnapshotResolution resolution;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    @Column(nullable = false)
+    private Double totalValue;
+
+    public PortfolioSnapshot(Long portfolioId, SnapshotResolution resolution, LocalDateTime takenAt, Double totalValue) {
+        this.portfolioId = portfolioId;
+        this.resolution = resolution;
+        this.takenAt = takenAt;
+        this.totalValue = totalValue;
+    }
+}
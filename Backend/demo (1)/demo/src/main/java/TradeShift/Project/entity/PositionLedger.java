@@ -0,0 +1,77 @@
+package TradeShift.Project.entity;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Open quantity, cost basis and realized P&L of one symbol in one portfolio
+@Entity
+@Table(name = "position_ledgers",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"portfolio_id", "symbol"}))
+@Data
+@NoArgsConstructor
+public class PositionLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Column(precision = 19, scale = 6)
+    private Quantity quantity = Quantity.ZERO;
+
+    // Total cost of the open quantity
+    @Column(precision = 19, scale = 4)
+    private Money costBasis = Money.ZERO;
+
+    @Column(precision = 19, scale = 4)
+    private Money realizedPnl = Money.ZERO;
+
+    public PositionLedger(Long portfolioId, String symbol) {
+        this.portfolioId = portfolioId;
+        this.symbol = symbol;
+    }
+
+    // Applies one fill with average-cost accounting and returns the P&L it realized. All
+    // arithmetic is in ticks and units; the only rounding is the closed share of the cost
+    // basis, so replaying the same fills in the same order gives the same result exactly.
+    public Money apply(OrderType type, Quantity fillQuantity, Money fillPrice) {
+        long open = quantity != null ? quantity.units() : 0;
+        long cost = costBasis != null ? costBasis.ticks() : 0;
+        long realized = 0;
+
+        if (type == OrderType.BUY) {
+            quantity = Quantity.ofUnits(Math.addExact(open, fillQuantity.units()));
+            costBasis = Money.ofTicks(Math.addExact(cost, Money.valueTicks(fillQuantity.units(), fillPrice.ticks())));
+        } else if (type == OrderType.SELL) {
+            long closed = Math.min(fillQuantity.units(), Math.max(open, 0));
+            long closedCost = open > 0 ? share(cost, closed, open) : 0;
+            realized = Money.valueTicks(closed, fillPrice.ticks()) - closedCost;
+            long remaining = Math.subtractExact(open, fillQuantity.units());
+            quantity = Quantity.ofUnits(remaining);
+            costBasis = Money.ofTicks(remaining > 0 ? cost - closedCost : 0);
+            realizedPnl = Money.ofTicks(Math.addExact(realizedPnl != null ? realizedPnl.ticks() : 0, realized));
+        }
+        return Money.ofTicks(realized);
+    }
+
+    // cost x part / whole, rounded half away from zero; closing everything takes all of it
+    private static long share(long costTicks, long partUnits, long wholeUnits) {
+        if (partUnits == wholeUnits) {
+            return costTicks;
+        }
+        return BigDecimal.valueOf(costTicks).multiply(BigDecimal.valueOf(partUnits))
+                .divide(BigDecimal.valueOf(wholeUnits), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+}
@@ -0,0 +1,8 @@
+package TradeShift.Project.entity;
+
+// Granularity of a stored valuation point; older points are downsampled to coarser ones
+public enum SnapshotResolution {
+    MINUTE,
+    HOUR,
+    DAY
+}
@@ -0,0 +1,47 @@
+package TradeShift.Project.entity;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One execution produced by the matching engine between a buy and a sell order
+@Entity
+@Table(name = "trades", indexes = {
+        @Index(name = "idx_trades_buy_order", columnList = "buy_order_id"),
+        @Index(name = "idx_trades_sell_order", columnList = "sell_order_id")
+})
+@Data
+@NoArgsConstructor
+public class Trade {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String symbol;
+
+    @Column(precision = 19, scale = 4)
+    private Money price;
+
+    @Column(precision = 19, scale = 6)
+    private Quantity quantity;
+
+    @Column(name = "buy_order_id")
+    private Long buyOrderId;
+
+    @Column(name = "sell_order_id")
+    private Long sellOrderId;
+
+    private LocalDateTime executedAt = LocalDateTime.now();
+
+    public Trade(String symbol, Money price, Quantity quantity, Long buyOrderId, Long sellOrderId) {
+        this.symbol = symbol;
+        this.price = price;
+        this.quantity = quantity;
+        this.buyOrderId = buyOrderId;
+        this.sellOrderId = sellOrderId;
+    }
+}
@@ -0,0 +1,5 @@
+package TradeShift.Project.events;
+
+// Published when order events are written to the outbox; the dispatcher wakes after commit
+public record OrderEventsRecordedEvent(int count) {
+}
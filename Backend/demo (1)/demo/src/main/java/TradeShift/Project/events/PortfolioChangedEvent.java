@@ -0,0 +1,5 @@
+package TradeShift.Project.events;
+
+// Published when orders or holdings of a portfolio change; listeners run after commit
+public record PortfolioChangedEvent(Long portfolioId) {
+}
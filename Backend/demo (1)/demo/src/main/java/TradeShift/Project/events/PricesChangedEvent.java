@@ -0,0 +1,7 @@
+package TradeShift.Project.events;
+
+import java.util.Map;
+
+// New prices for the symbols whose asset rows were just repriced
+public record PricesChangedEvent(Map<String, Double> prices) {
+}
@@ -0,0 +1,5 @@
+package TradeShift.Project.events;
+
+// Published when a user is registered or updated, so cached authorities can be dropped
+public record UserChangedEvent(String username) {
+}
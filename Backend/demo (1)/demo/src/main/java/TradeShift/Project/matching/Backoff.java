@@ -0,0 +1,21 @@
+package TradeShift.Project.matching;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Idle strategy for ring producers and consumers: spin briefly, then yield, then park
+final class Backoff {
+
+    private Backoff() {
+    }
+
+    static int idle(int attempts) {
+        if (attempts < 100) {
+            Thread.onSpinWait();
+        } else if (attempts < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+        return attempts + 1;
+    }
+}
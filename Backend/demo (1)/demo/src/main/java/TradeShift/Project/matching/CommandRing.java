@@ -0,0 +1,96 @@
+package TradeShift.Project.matching;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Pre-allocated multi-producer / single-consumer ring of order commands (new orders and
+// cancels). Request threads claim a sequence, write the slot's primitive fields and
+// publish; the shard thread is the only reader. No objects are created per command.
+final class CommandRing {
+
+    private final int mask;
+    private final long[] orderIds;
+    private final long[] prices;
+    private final long[] quantities;
+    private final long[] portfolioIds;
+    private final boolean[] buys;
+    private final boolean[] cancels;
+    private final String[] symbols;
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private long next;
+
+    CommandRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.orderIds = new long[capacity];
+        this.prices = new long[capacity];
+        this.quantities = new long[capacity];
+        this.portfolioIds = new long[capacity];
+        this.buys = new boolean[capacity];
+        this.cancels = new boolean[capacity];
+        this.symbols = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    // Blocks (spinning, then parking) while the ring is full
+    void publish(long orderId, long portfolioId, String symbol, boolean buy, long priceTicks, long quantity) {
+        publish(orderId, portfolioId, symbol, buy, priceTicks, quantity, false);
+    }
+
+    void publishCancel(long orderId, String symbol, boolean buy, long priceTicks) {
+        publish(orderId, 0, symbol, buy, priceTicks, 0, true);
+    }
+
+    private void publish(long orderId, long portfolioId, String symbol, boolean buy, long priceTicks,
+                         long quantity, boolean cancel) {
+        long sequence = claimed.getAndIncrement();
+        int idle = 0;
+        while (sequence - consumed.get() > mask) {
+            idle = Backoff.idle(idle);
+        }
+        int slot = (int) (sequence & mask);
+        orderIds[slot] = orderId;
+        portfolioIds[slot] = portfolioId;
+        cancels[slot] = cancel;
+        symbols[slot] = symbol;
+        buys[slot] = buy;
+        prices[slot] = priceTicks;
+        quantities[slot] = quantity;
+        published.set(slot, sequence);
+    }
+
+    // Consumer side: hands the next published command to the handler, returns false if none is ready
+    boolean poll(Handler handler) {
+        int slot = (int) (next & mask);
+        if (published.get(slot) != next) {
+            return false;
+        }
+        if (cancels[slot]) {
+            handler.onCancel(orderIds[slot], symbols[slot], buys[slot], prices[slot]);
+        } else {
+            handler.onCommand(orderIds[slot], portfolioIds[slot], symbols[slot], buys[slot], prices[slot], quantities[slot]);
+        }
+        symbols[slot] = null;
+        next++;
+        consumed.lazySet(next);
+        return true;
+    }
+
+    long backlog() {
+        return claimed.get() - consumed.get();
+    }
+
+    interface Handler {
+        void onCommand(long orderId, long portfolioId, String symbol, boolean buy, long priceTicks, long quantity);
+
+        void onCancel(long orderId, String symbol, boolean buy, long priceTicks);
+    }
+}
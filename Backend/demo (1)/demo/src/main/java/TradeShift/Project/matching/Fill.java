@@ -0,0 +1,17 @@
+package TradeShift.Project.matching;
+
+// One execution between a resting (maker) and an incoming (taker) order, in engine ticks
+// (price, 1/10,000ths) and units (quantity, 1/1,000,000ths), the scales of Money and Quantity.
+// A cancelled entry instead carries the quantity of one order taken off the book unfilled;
+// both ids are that order's and takerBuys is its side.
+public record Fill(long makerOrderId, long takerOrderId, boolean takerBuys,
+                   String symbol, long priceTicks, long quantityUnits, boolean cancelled) {
+
+    public long buyOrderId() {
+        return takerBuys ? takerOrderId : makerOrderId;
+    }
+
+    public long sellOrderId() {
+        return takerBuys ? makerOrderId : takerOrderId;
+    }
+}
@@ -0,0 +1,85 @@
+package TradeShift.Project.matching;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single-producer / single-consumer ring carrying fills from a shard thread to the
+// persister, and cancellations, which must be recorded after the fills before them. The
+// shard writes primitives into pre-allocated slots; Fill objects are only created on the
+// persister side.
+final class FillRing implements OrderBook.FillSink {
+
+    private final int mask;
+    private final long[] makerIds;
+    private final long[] takerIds;
+    private final boolean[] takerBuys;
+    private final long[] prices;
+    private final long[] quantities;
+    private final boolean[] cancels;
+    private final String[] symbols;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private long produced;
+    private String currentSymbol;
+
+    FillRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.makerIds = new long[capacity];
+        this.takerIds = new long[capacity];
+        this.takerBuys = new boolean[capacity];
+        this.prices = new long[capacity];
+        this.quantities = new long[capacity];
+        this.cancels = new boolean[capacity];
+        this.symbols = new String[capacity];
+    }
+
+    // Set by the shard before it submits an order, so the book callback stays primitive-only
+    void currentSymbol(String symbol) {
+        this.currentSymbol = symbol;
+    }
+
+    @Override
+    public void onFill(long makerOrderId, long takerOrderId, boolean buy, long priceTicks, long quantity) {
+        publish(makerOrderId, takerOrderId, buy, priceTicks, quantity, false);
+    }
+
+    @Override
+    public void onCancel(long orderId, boolean buy, long quantity) {
+        publish(orderId, orderId, buy, 0, quantity, true);
+    }
+
+    private void publish(long makerOrderId, long takerOrderId, boolean buy, long priceTicks, long quantity, boolean cancel) {
+        int idle = 0;
+        while (produced - consumed.get() > mask) {
+            idle = Backoff.idle(idle);
+        }
+        int slot = (int) (produced & mask);
+        makerIds[slot] = makerOrderId;
+        takerIds[slot] = takerOrderId;
+        takerBuys[slot] = buy;
+        prices[slot] = priceTicks;
+        quantities[slot] = quantity;
+        cancels[slot] = cancel;
+        symbols[slot] = currentSymbol;
+        produced++;
+        published.lazySet(produced);
+    }
+
+    // Consumer side: moves up to max fills into the list, returns how many were drained
+    int drainTo(List<Fill> out, int max) {
+        long from = consumed.get();
+        long available = Math.min(published.get() - from, max);
+        for (long sequence = from; sequence < from + available; sequence++) {
+            int slot = (int) (sequence & mask);
+            out.add(new Fill(makerIds[slot], takerIds[slot], takerBuys[slot], symbols[slot],
+                    prices[slot], quantities[slot], cancels[slot]));
+            symbols[slot] = null;
+        }
+        consumed.lazySet(from + available);
+        return (int) available;
+    }
+}
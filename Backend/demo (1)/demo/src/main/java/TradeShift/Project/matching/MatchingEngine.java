@@ -0,0 +1,276 @@
+package TradeShift.Project.matching;
+
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.services.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process matching for limit orders. Symbols are hashed onto a fixed set of shards;
+// each shard is a single thread that owns its books, so matching needs no locks. Fills
+// leave the shard through a ring and are persisted in batches by a separate thread. The
+// books are ahead of the database, so a batch that fails to persist is retried until it
+// goes through; fills are never dropped.
+@Component
+public class MatchingEngine implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingEngine.class);
+    private static final long RETRY_INITIAL_MS = 100;
+    private static final long RETRY_MAX_MS = 5_000;
+    // How long a cancel for an order the shard hasn't seen waits for that order's submit
+    private static final long EARLY_CANCEL_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final Shard[] shards;
+    private final int persistBatchSize;
+
+    private final AtomicLong fillsPersisted = new AtomicLong();
+    private final AtomicLong persistFailures = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread persister;
+
+    public MatchingEngine(OrderService orderService,
+                          OrderRepository orderRepository,
+                          @Value("${matching.shards:2}") int shardCount,
+                          @Value("${matching.ring-size:65536}") int ringSize,
+                          @Value("${matching.initial-orders-per-book:1024}") int initialOrdersPerBook,
+                          @Value("${matching.persist-batch-size:500}") int persistBatchSize) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.persistBatchSize = persistBatchSize;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(ringSize, initialOrdersPerBook);
+        }
+    }
+
+    // Hands a persisted OPEN order to its shard; safe to call from any request thread
+    public void submit(Order order) {
+        long filled = order.getFilledQuantity() != null ? order.getFilledQuantity().units() : 0;
+        long remaining = order.getQuantity().units() - filled;
+        if (remaining <= 0) {
+            return;
+        }
+        shardFor(order.getSymbol()).commands.publish(order.getId(), order.getPortfolio().getId(), order.getSymbol(),
+                order.getType() == OrderType.BUY, order.getPrice().ticks(), remaining);
+    }
+
+    // Takes a resting order off its book. The cancellation is recorded by the persister after
+    // any fills the order got before it, so a SELL gets back exactly its unfilled shares.
+    // A cancel that overtakes the order's submit is held by the shard until the submit arrives.
+    public void cancel(Order order) {
+        shardFor(order.getSymbol()).commands.publishCancel(order.getId(), order.getSymbol(),
+                order.getType() == OrderType.BUY, order.getPrice().ticks());
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long processed = 0;
+        long backlog = 0;
+        for (Shard shard : shards) {
+            processed += shard.processed.get();
+            backlog += shard.commands.backlog();
+        }
+        stats.put("shards", (long) shards.length);
+        stats.put("ordersProcessed", processed);
+        stats.put("commandBacklog", backlog);
+        stats.put("fillsPersisted", fillsPersisted.get());
+        stats.put("persistFailures", persistFailures.get());
+        return stats;
+    }
+
+    // Starts before the web server so no new order can race the book rebuild
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < shards.length; i++) {
+            Thread thread = new Thread(shards[i], "matching-shard-" + i);
+            thread.setDaemon(true);
+            shards[i].thread = thread;
+            thread.start();
+        }
+        persister = new Thread(this::persistLoop, "matching-persister");
+        persister.setDaemon(true);
+        persister.start();
+        rebuildFromOpenOrders();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Shard shard : shards) {
+            join(shard.thread);
+        }
+        join(persister);
+        List<Fill> batch = new ArrayList<>(persistBatchSize);
+        while (drainAndPersist(batch)) {
+            // persist fills produced right before shutdown; stops at the first failure
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void rebuildFromOpenOrders() {
+        List<Order> open = orderRepository.findByStatusInOrderByOrderTimeAscIdAsc(
+                List.of(Order.STATUS_OPEN, Order.STATUS_PARTIALLY_FILLED));
+        for (Order order : open) {
+            submit(order);
+        }
+        if (!open.isEmpty()) {
+            log.info("Matching engine rebuilt {} open orders", open.size());
+        }
+    }
+
+    private Shard shardFor(String symbol) {
+        return shards[(symbol.hashCode() & 0x7fffffff) % shards.length];
+    }
+
+    private void persistLoop() {
+        List<Fill> batch = new ArrayList<>(persistBatchSize);
+        int idle = 0;
+        while (running) {
+            idle = drainAndPersist(batch) ? 0 : Backoff.idle(idle);
+        }
+    }
+
+    private boolean drainAndPersist(List<Fill> batch) {
+        for (Shard shard : shards) {
+            shard.fills.drainTo(batch, persistBatchSize - batch.size());
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        long delayMs = RETRY_INITIAL_MS;
+        while (true) {
+            try {
+                orderService.recordFills(batch);
+                fillsPersisted.addAndGet(batch.size());
+                batch.clear();
+                return true;
+            } catch (RuntimeException e) {
+                persistFailures.incrementAndGet();
+                if (!running) {
+                    // Their orders are still open in the database, so the rebuild on the next
+                    // start rests them again and they are matched afresh
+                    log.error("Leaving {} fills unrecorded at shutdown", batch.size(), e);
+                    batch.clear();
+                    return false;
+                }
+                // Meanwhile the fill rings fill up and the shards stall, holding new orders back
+                log.error("Recording {} fills failed, retrying in {} ms", batch.size(), delayMs, e);
+                pause(delayMs);
+                delayMs = Math.min(delayMs * 2, RETRY_MAX_MS);
+            }
+        }
+    }
+
+    // Sleeps in short steps so stop() isn't kept waiting
+    private void pause(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (running && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class Shard implements Runnable, CommandRing.Handler {
+        private final CommandRing commands;
+        private final FillRing fills;
+        private final Map<String, OrderBook> books = new HashMap<>();
+        // Order id -> arrival time of cancels that found nothing resting, oldest first
+        private final LinkedHashMap<Long, Long> earlyCancels = new LinkedHashMap<>();
+        private final int initialOrdersPerBook;
+        private final AtomicLong processed = new AtomicLong();
+        private Thread thread;
+
+        private Shard(int ringSize, int initialOrdersPerBook) {
+            this.commands = new CommandRing(ringSize);
+            this.fills = new FillRing(ringSize);
+            this.initialOrdersPerBook = initialOrdersPerBook;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                idle = commands.poll(this) ? 0 : Backoff.idle(idle);
+            }
+            while (commands.poll(this)) {
+                // drain whatever was accepted before shutdown
+            }
+        }
+
+        @Override
+        public void onCommand(long orderId, long portfolioId, String symbol, boolean buy, long priceTicks, long quantity) {
+            if (!earlyCancels.isEmpty() && earlyCancels.remove(orderId) != null) {
+                // Cancelled before it got here: never rests, the whole quantity is given back
+                fills.currentSymbol(symbol);
+                fills.onCancel(orderId, buy, quantity);
+                processed.lazySet(processed.get() + 1);
+                return;
+            }
+            OrderBook book = books.get(symbol);
+            if (book == null) {
+                book = new OrderBook(symbol, initialOrdersPerBook);
+                books.put(symbol, book);
+            }
+            fills.currentSymbol(symbol);
+            book.submit(orderId, portfolioId, buy, priceTicks, quantity, fills);
+            processed.lazySet(processed.get() + 1);
+        }
+
+        @Override
+        public void onCancel(long orderId, String symbol, boolean buy, long priceTicks) {
+            OrderBook book = books.get(symbol);
+            long remaining = book != null ? book.cancel(orderId, buy, priceTicks) : 0;
+            if (remaining > 0) {
+                fills.currentSymbol(symbol);
+                fills.onCancel(orderId, buy, remaining);
+            } else {
+                // Either the order filled before the cancel got here, or its submit is still
+                // on the way; remember the cancel for a while in case it is the latter
+                long now = System.nanoTime();
+                Iterator<Long> arrivals = earlyCancels.values().iterator();
+                while (arrivals.hasNext() && now - arrivals.next() > EARLY_CANCEL_TTL_NANOS) {
+                    arrivals.remove();
+                }
+                earlyCancels.put(orderId, now);
+            }
+            processed.lazySet(processed.get() + 1);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package TradeShift.Project.matching;
+
+import java.util.Arrays;
+
+// Limit order book for one symbol with price-time priority. Prices and quantities are
+// scaled longs, price levels live in sorted primitive arrays and resting orders in a
+// pooled array-backed FIFO per level, so matching allocates nothing once warmed up.
+// An order never trades against a resting order of its own portfolio: its remainder is
+// cancelled instead. Not thread-safe: each book is owned by exactly one engine shard thread.
+public final class OrderBook {
+
+    public interface FillSink {
+        void onFill(long makerOrderId, long takerOrderId, boolean takerBuys, long priceTicks, long quantity);
+
+        // Quantity of an order taken off the book unfilled (self-trade or cancel request)
+        default void onCancel(long orderId, boolean buy, long quantity) {
+        }
+    }
+
+    private static final int NONE = -1;
+
+    private final String symbol;
+
+    // Resting order pool: a node is an order id, its portfolio, its remaining quantity and the
+    // next node in its level
+    private long[] nodeOrderIds;
+    private long[] nodePortfolioIds;
+    private long[] nodeRemaining;
+    private int[] nodeNext;
+    private int freeHead = NONE;
+    private int nodeCount;
+
+    private final Levels bids = new Levels(true);
+    private final Levels asks = new Levels(false);
+
+    public OrderBook(String symbol, int initialOrders) {
+        this.symbol = symbol;
+        this.nodeOrderIds = new long[initialOrders];
+        this.nodePortfolioIds = new long[initialOrders];
+        this.nodeRemaining = new long[initialOrders];
+        this.nodeNext = new int[initialOrders];
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Matches the incoming order against the opposite side and rests whatever is left.
+    // Returns the quantity that was filled.
+    public long submit(long orderId, long portfolioId, boolean buy, long priceTicks, long quantity, FillSink sink) {
+        Levels opposite = buy ? asks : bids;
+        long remaining = quantity;
+
+        while (remaining > 0 && opposite.count > 0) {
+            int best = opposite.count - 1;
+            long levelPrice = opposite.prices[best];
+            if (buy ? levelPrice > priceTicks : levelPrice < priceTicks) {
+                break;
+            }
+
+            int node = opposite.heads[best];
+            while (node != NONE && remaining > 0) {
+                if (nodePortfolioIds[node] == portfolioId) {
+                    // Would trade with itself: keep what filled so far, cancel the rest
+                    opposite.heads[best] = node;
+                    sink.onCancel(orderId, buy, remaining);
+                    return quantity - remaining;
+                }
+                long fill = Math.min(nodeRemaining[node], remaining);
+                sink.onFill(nodeOrderIds[node], orderId, buy, levelPrice, fill);
+                remaining -= fill;
+                nodeRemaining[node] -= fill;
+                if (nodeRemaining[node] == 0) {
+                    int next = nodeNext[node];
+                    release(node);
+                    node = next;
+                }
+            }
+
+            if (node == NONE) {
+                opposite.count--;
+            } else {
+                opposite.heads[best] = node;
+            }
+        }
+
+        if (remaining > 0) {
+            rest(buy ? bids : asks, orderId, portfolioId, priceTicks, remaining);
+        }
+        return quantity - remaining;
+    }
+
+    // Takes a resting order off the book; returns its unfilled quantity, 0 if it isn't resting
+    public long cancel(long orderId, boolean buy, long priceTicks) {
+        Levels side = buy ? bids : asks;
+        int level = side.find(priceTicks);
+        if (level < 0) {
+            return 0;
+        }
+        int previous = NONE;
+        for (int node = side.heads[level]; node != NONE; previous = node, node = nodeNext[node]) {
+            if (nodeOrderIds[node] != orderId) {
+                continue;
+            }
+            long remaining = nodeRemaining[node];
+            int next = nodeNext[node];
+            if (previous == NONE) {
+                side.heads[level] = next;
+            } else {
+                nodeNext[previous] = next;
+            }
+            if (side.tails[level] == node) {
+                side.tails[level] = previous;
+            }
+            release(node);
+            if (side.heads[level] == NONE) {
+                side.remove(level);
+            }
+            return remaining;
+        }
+        return 0;
+    }
+
+    public long bestBid() {
+        return bids.count > 0 ? bids.prices[bids.count - 1] : 0;
+    }
+
+    public long bestAsk() {
+        return asks.count > 0 ? asks.prices[asks.count - 1] : 0;
+    }
+
+    public int restingOrders() {
+        return nodeCount;
+    }
+
+    public int levelCount(boolean buySide) {
+        return buySide ? bids.count : asks.count;
+    }
+
+    private void rest(Levels side, long orderId, long portfolioId, long priceTicks, long quantity) {
+        int node = allocate(orderId, portfolioId, quantity);
+        int level = side.findOrInsert(priceTicks);
+        if (side.heads[level] == NONE) {
+            side.heads[level] = node;
+        } else {
+            nodeNext[side.tails[level]] = node;
+        }
+        side.tails[level] = node;
+    }
+
+    private int allocate(long orderId, long portfolioId, long quantity) {
+        int node;
+        if (freeHead != NONE) {
+            node = freeHead;
+            freeHead = nodeNext[node];
+        } else {
+            node = nodeCount;
+            if (node == nodeOrderIds.length) {
+                int capacity = nodeOrderIds.length * 2;
+                nodeOrderIds = Arrays.copyOf(nodeOrderIds, capacity);
+                nodePortfolioIds = Arrays.copyOf(nodePortfolioIds, capacity);
+                nodeRemaining = Arrays.copyOf(nodeRemaining, capacity);
+                nodeNext = Arrays.copyOf(nodeNext, capacity);
+            }
+        }
+        nodeCount++;
+        nodeOrderIds[node] = orderId;
+        nodePortfolioIds[node] = portfolioId;
+        nodeRemaining[node] = quantity;
+        nodeNext[node] = NONE;
+        return node;
+    }
+
+    private void release(int node) {
+        nodeNext[node] = freeHead;
+        freeHead = node;
+        nodeCount--;
+    }
+
+    // Price levels of one side, sorted so the best price is always the last element:
+    // ascending for bids (highest last), descending for asks (lowest last).
+    private static final class Levels {
+        private final boolean bidSide;
+        private long[] prices = new long[64];
+        private int[] heads = new int[64];
+        private int[] tails = new int[64];
+        private int count;
+
+        private Levels(boolean bidSide) {
+            this.bidSide = bidSide;
+        }
+
+        // Index of the level, or -(insertion point) - 1 when there is none
+        private int find(long price) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midPrice = prices[mid];
+                if (midPrice == price) {
+                    return mid;
+                }
+                boolean goRight = bidSide ? midPrice < price : midPrice > price;
+                if (goRight) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return -low - 1;
+        }
+
+        private int findOrInsert(long price) {
+            int found = find(price);
+            if (found >= 0) {
+                return found;
+            }
+            int low = -found - 1;
+            if (count == prices.length) {
+                prices = Arrays.copyOf(prices, count * 2);
+                heads = Arrays.copyOf(heads, count * 2);
+                tails = Arrays.copyOf(tails, count * 2);
+            }
+            int moved = count - low;
+            if (moved > 0) {
+                System.arraycopy(prices, low, prices, low + 1, moved);
+                System.arraycopy(heads, low, heads, low + 1, moved);
+                System.arraycopy(tails, low, tails, low + 1, moved);
+            }
+            prices[low] = price;
+            heads[low] = NONE;
+            tails[low] = NONE;
+            count++;
+            return low;
+        }
+
+        private void remove(int level) {
+            int moved = count - level - 1;
+            if (moved > 0) {
+                System.arraycopy(prices, level + 1, prices, level, moved);
+                System.arraycopy(heads, level + 1, heads, level, moved);
+                System.arraycopy(tails, level + 1, tails, level, moved);
+            }
+            count--;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package TradeShift.Project.matching;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+
+// Fixed scales used inside the engine: prices in 1/10,000ths, quantities in 1/1,000,000ths
+public final class Scale {
+
+    public static final long PRICE_SCALE = Money.TICKS_PER_UNIT;
+    public static final long QUANTITY_SCALE = Quantity.UNITS_PER_SHARE;
+
+    private Scale() {
+    }
+
+    public static long toTicks(double price) {
+        return Math.round(price * PRICE_SCALE);
+    }
+
+    public static long toUnits(double quantity) {
+        return Math.round(quantity * QUANTITY_SCALE);
+    }
+}
@@ -0,0 +1,58 @@
+package TradeShift.Project.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+// JdbcTemplate work (bulk writes, history export, snapshots) bypasses Hibernate and is not counted.
+@Component
+public class QueryCountInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<int[]> counter = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        counter.set(new int[1]);
+    }
+
+    // Statements counted since start(); closes the count
+    public int stop() {
+        int[] count = counter.get();
+        counter.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    // Counts statements the task runs on another thread into this thread's open count
+    public <T> Supplier<T> carryOver(Supplier<T> task) {
+        int[] count = counter.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            counter.set(count);
+            try {
+                return task.get();
+            } finally {
+                counter.remove();
+            }
+        };
+    }
+}
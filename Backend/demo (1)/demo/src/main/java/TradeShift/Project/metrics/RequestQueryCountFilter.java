@@ -0,0 +1,48 @@
+package TradeShift.Project.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many statements each request issued ("http.server.requests.queries"), tagged like
+// Boot's request timer so an N+1 regression shows up against the endpoint that caused it
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestQueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountInspector inspector;
+    private final MeterRegistry meterRegistry;
+
+    public RequestQueryCountFilter(QueryCountInspector inspector, MeterRegistry meterRegistry) {
+        this.inspector = inspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        inspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = inspector.stop();
+            // Set by the dispatcher once a handler matched; unmatched requests share one series
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(queries);
+        }
+    }
+}
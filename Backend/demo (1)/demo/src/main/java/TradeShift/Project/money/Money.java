@@ -0,0 +1,112 @@
+package TradeShift.Project.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Fixed-point amount of money (prices, values, totals): a long count of 1/10,000ths.
+// Sums and differences are exact, so totals don't drift the way repeated double adds do.
+// Stored as DECIMAL(19,4) through MoneyConverter and written to JSON as a plain number.
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+    public static final long TICKS_PER_UNIT = 10_000L;
+    public static final Money ZERO = new Money(0);
+
+    private final long ticks;
+
+    private Money(long ticks) {
+        this.ticks = ticks;
+    }
+
+    public static Money ofTicks(long ticks) {
+        return ticks == 0 ? ZERO : new Money(ticks);
+    }
+
+    // Goes through the shortest decimal form of the double, so 0.1 becomes exactly 0.1000
+    public static Money of(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Not a finite amount: " + value);
+        }
+        return of(BigDecimal.valueOf(value));
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal value) {
+        return ofTicks(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // Value of a quantity at a price, in money ticks, rounded half away from zero
+    public static long valueTicks(long quantityUnits, long priceTicks) {
+        try {
+            return divideRounded(Math.multiplyExact(quantityUnits, priceTicks), Quantity.UNITS_PER_SHARE);
+        } catch (ArithmeticException overflow) {
+            return BigDecimal.valueOf(quantityUnits).multiply(BigDecimal.valueOf(priceTicks))
+                    .divide(BigDecimal.valueOf(Quantity.UNITS_PER_SHARE), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+    }
+
+    public static Money valueOf(Quantity quantity, Money price) {
+        return ofTicks(valueTicks(quantity.units(), price.ticks));
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public Money plus(Money other) {
+        return ofTicks(Math.addExact(ticks, other.ticks));
+    }
+
+    public Money minus(Money other) {
+        return ofTicks(Math.subtractExact(ticks, other.ticks));
+    }
+
+    public int signum() {
+        return Long.signum(ticks);
+    }
+
+    public double doubleValue() {
+        return (double) ticks / TICKS_PER_UNIT;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(ticks, SCALE);
+    }
+
+    // 12.5 rather than 12.5000, and never 1E+2
+    @JsonValue
+    BigDecimal toJson() {
+        BigDecimal value = toBigDecimal().stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(ticks, other.ticks);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.ticks == ticks;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(ticks);
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toPlainString();
+    }
+
+    // One division by a constant, which the JIT turns into a multiply
+    private static long divideRounded(long dividend, long divisor) {
+        long half = divisor >> 1;
+        return dividend >= 0 ? (dividend + half) / divisor : -((half - dividend) / divisor);
+    }
+}
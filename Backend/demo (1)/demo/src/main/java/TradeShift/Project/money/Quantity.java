@@ -0,0 +1,92 @@
+package TradeShift.Project.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Fixed-point share quantity: a long count of 1/1,000,000ths, the same unit the matching
+// engine trades in. Stored as DECIMAL(19,6) through QuantityConverter.
+public final class Quantity implements Comparable<Quantity> {
+
+    public static final int SCALE = 6;
+    public static final long UNITS_PER_SHARE = 1_000_000L;
+    public static final Quantity ZERO = new Quantity(0);
+
+    private final long units;
+
+    private Quantity(long units) {
+        this.units = units;
+    }
+
+    public static Quantity ofUnits(long units) {
+        return units == 0 ? ZERO : new Quantity(units);
+    }
+
+    public static Quantity of(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Not a finite quantity: " + value);
+        }
+        return of(BigDecimal.valueOf(value));
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Quantity of(BigDecimal value) {
+        return ofUnits(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public Quantity plus(Quantity other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Quantity minus(Quantity other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Quantity min(Quantity other) {
+        return units <= other.units ? this : other;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public double doubleValue() {
+        return (double) units / UNITS_PER_SHARE;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @JsonValue
+    BigDecimal toJson() {
+        BigDecimal value = toBigDecimal().stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Quantity other && other.units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package TradeShift.Project.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+// Applied to every Quantity attribute; pair it with @Column(precision = 19, scale = 6)
+@Converter(autoApply = true)
+public class QuantityConverter implements AttributeConverter<Quantity, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Quantity quantity) {
+        return quantity != null ? quantity.toBigDecimal() : null;
+    }
+
+    @Override
+    public Quantity convertToEntityAttribute(BigDecimal value) {
+        return value != null ? Quantity.of(value) : null;
+    }
+}
@@ -0,0 +1,28 @@
+package TradeShift.Project.outbox;
+
+import TradeShift.Project.entity.OrderEvent;
+import TradeShift.Project.services.LedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Folds executed orders into the cash and position ledgers
+@Component
+@Order(1)
+public class LedgerEventConsumer implements OrderEventConsumer {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Override
+    public String name() {
+        return "ledger";
+    }
+
+    @Override
+    public void accept(List<OrderEvent> events) {
+        ledgerService.applyEvents(events);
+    }
+}
@@ -0,0 +1,36 @@
+package TradeShift.Project.outbox;
+
+import TradeShift.Project.entity.OrderEvent;
+import TradeShift.Project.events.PortfolioChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Runs after the ledger so live streams reload with the new cash balance; one
+// notification per portfolio per batch, and a repeated one only costs a reload
+@Component
+@Order(2)
+public class NotificationEventConsumer implements OrderEventConsumer {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "notification";
+    }
+
+    @Override
+    public void accept(List<OrderEvent> events) {
+        Set<Long> portfolioIds = new LinkedHashSet<>();
+        for (OrderEvent event : events) {
+            portfolioIds.add(event.getPortfolioId());
+        }
+        portfolioIds.forEach(portfolioId -> eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId)));
+    }
+}
@@ -0,0 +1,16 @@
+package TradeShift.Project.outbox;
+
+import TradeShift.Project.entity.OrderEvent;
+
+import java.util.List;
+
+// Downstream work for executed orders. Delivery is at-least-once: an event can be handed over
+// again after a failure or restart, so implementations must skip ones they already applied
+// (by event id or key). Events arrive in id order, which is the order within a portfolio.
+public interface OrderEventConsumer {
+
+    String name();
+
+    // Throwing leaves the events pending; the dispatcher retries them one at a time
+    void accept(List<OrderEvent> events);
+}
@@ -0,0 +1,211 @@
+package TradeShift.Project.outbox;
+
+import TradeShift.Project.entity.OrderEvent;
+import TradeShift.Project.events.OrderEventsRecordedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Drains the order_events outbox on its own thread: woken after every commit that wrote
+// events, and polling as a fallback. Each batch goes through the consumers in @Order order;
+// an event is settled once all of them took it. When a batch fails, its events are retried
+// one at a time and a portfolio's later events wait behind a failed one, so consumers never
+// see a portfolio's events out of order. After max-attempts an event is parked as FAILED and
+// the portfolio's later events keep waiting until it is retried.
+@Service
+public class OrderEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    private final OrderEventOutbox outbox;
+    private final List<OrderEventConsumer> consumers;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retentionHours;
+
+    private final ReentrantLock draining = new ReentrantLock();
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+    private final ScheduledExecutorService worker;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+
+    public OrderEventDispatcher(OrderEventOutbox outbox,
+                                List<OrderEventConsumer> consumers,
+                                @Value("${outbox.dispatch.enabled:true}") boolean enabled,
+                                @Value("${outbox.dispatch.interval-ms:1000}") long intervalMs,
+                                @Value("${outbox.dispatch.batch-size:500}") int batchSize,
+                                @Value("${outbox.dispatch.max-attempts:10}") int maxAttempts,
+                                @Value("${outbox.retention-hours:24}") long retentionHours) {
+        this.outbox = outbox;
+        this.consumers = List.copyOf(consumers);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionHours = retentionHours;
+
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-event-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            worker.scheduleWithFixedDelay(this::drainSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // At most one wake-up is queued however many transactions commit meanwhile
+    @TransactionalEventListener
+    public void onEventsRecorded(OrderEventsRecordedEvent event) {
+        if (enabled && wakeQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                wakeQueued.set(false);
+                drainSafely();
+            });
+        }
+    }
+
+    // Delivers pending events until none are left (or only held-back ones); returns how many
+    // were settled. Safe to call from any thread; concurrent calls run one after the other.
+    public int drain() {
+        draining.lock();
+        try {
+            int settled = 0;
+            while (true) {
+                List<OrderEvent> batch = outbox.findPending(batchSize);
+                if (batch.isEmpty()) {
+                    return settled;
+                }
+                int done = deliver(batch);
+                settled += done;
+                if (done == 0 || batch.size() < batchSize) {
+                    return settled;
+                }
+            }
+        } finally {
+            draining.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 15 * * * *}")
+    public void purge() {
+        int removed = outbox.purgeDispatched(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("Purged {} dispatched order events", removed);
+        }
+    }
+
+    public int retryFailed() {
+        int requeued = outbox.retryFailed();
+        if (requeued > 0 && enabled) {
+            worker.execute(this::drainSafely);
+        }
+        return requeued;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        outbox.countByStatus().forEach((status, count) -> stats.put(status.toLowerCase(), count));
+        stats.put("delivered", delivered.get());
+        stats.put("failures", failures.get());
+        stats.put("parked", parked.get());
+        return stats;
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Order event dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private int deliver(List<OrderEvent> batch) {
+        List<OrderEvent> accepted = batch;
+        Map<OrderEvent, String> failed = new LinkedHashMap<>();
+        for (OrderEventConsumer consumer : consumers) {
+            accepted = deliverTo(consumer, accepted, failed);
+        }
+
+        List<Long> ids = new ArrayList<>(accepted.size());
+        for (OrderEvent event : accepted) {
+            ids.add(event.getId());
+        }
+        outbox.markDispatched(ids);
+        delivered.addAndGet(ids.size());
+
+        int settled = ids.size();
+        for (Map.Entry<OrderEvent, String> failure : failed.entrySet()) {
+            OrderEvent event = failure.getKey();
+            boolean park = event.getAttempts() + 1 >= maxAttempts;
+            outbox.recordFailure(event.getId(), failure.getValue(), park);
+            failures.incrementAndGet();
+            if (park) {
+                settled++;
+                parked.incrementAndGet();
+                log.error("Order event {} ({}) parked after {} attempts, holding back portfolio {} until retried: {}",
+                        event.getId(), event.getEventKey(), event.getAttempts() + 1, event.getPortfolioId(),
+                        failure.getValue());
+            }
+        }
+        return settled;
+    }
+
+    // Returns the events the consumer took; failures are collected, held-back events are neither
+    private List<OrderEvent> deliverTo(OrderEventConsumer consumer, List<OrderEvent> events,
+                                       Map<OrderEvent, String> failed) {
+        if (events.isEmpty()) {
+            return events;
+        }
+        try {
+            consumer.accept(events);
+            return events;
+        } catch (RuntimeException e) {
+            log.warn("Consumer {} failed a batch of {} order events, retrying one by one: {}",
+                    consumer.name(), events.size(), e.getMessage());
+        }
+
+        List<OrderEvent> accepted = new ArrayList<>(events.size());
+        Set<Long> blocked = new HashSet<>();
+        for (OrderEvent event : events) {
+            if (blocked.contains(event.getPortfolioId())) {
+                continue;
+            }
+            try {
+                consumer.accept(List.of(event));
+                accepted.add(event);
+            } catch (RuntimeException e) {
+                blocked.add(event.getPortfolioId());
+                failed.put(event, consumer.name() + ": " + e.getMessage());
+            }
+        }
+        return accepted;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,128 @@
+package TradeShift.Project.outbox;
+
+import TradeShift.Project.entity.OrderEvent;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.events.OrderEventsRecordedEvent;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// JDBC access to the order_events outbox. append() joins the caller's transaction, so an
+// event exists exactly when its order does; the dispatcher reads and settles rows by id.
+@Repository
+public class OrderEventOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_events (event_key, portfolio_id, symbol, type, quantity, price, created_at, status, attempts) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'PENDING', 0)";
+    // A portfolio's events behind a parked (FAILED) one stay pending until it is retried, so
+    // consumers that track a per-portfolio high-water mark never skip past it
+    private static final String PENDING_SQL =
+            "SELECT e.id, e.event_key, e.portfolio_id, e.symbol, e.type, e.quantity, e.price, e.created_at, e.attempts " +
+            "FROM order_events e WHERE e.status = 'PENDING' AND NOT EXISTS (" +
+            "SELECT 1 FROM order_events f WHERE f.portfolio_id = e.portfolio_id AND f.status = 'FAILED' AND f.id < e.id) " +
+            "ORDER BY e.id LIMIT ?";
+    private static final String DISPATCHED_SQL =
+            "UPDATE order_events SET status = 'DISPATCHED', dispatched_at = :now WHERE id IN (:ids)";
+    private static final String FAILURE_SQL =
+            "UPDATE order_events SET attempts = attempts + 1, last_error = ?, status = ? WHERE id = ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM order_events WHERE status = 'DISPATCHED' AND dispatched_at < ?";
+    private static final String RETRY_SQL =
+            "UPDATE order_events SET status = 'PENDING', attempts = 0 WHERE status = 'FAILED'";
+
+    private static final RowMapper<OrderEvent> ROW_MAPPER = (rs, rowNum) -> {
+        OrderEvent event = new OrderEvent(rs.getString(2), rs.getLong(3), rs.getString(4),
+                OrderType.valueOf(rs.getString(5)), Quantity.of(rs.getBigDecimal(6)), Money.of(rs.getBigDecimal(7)));
+        event.setId(rs.getLong(1));
+        event.setCreatedAt(rs.getTimestamp(8).toLocalDateTime());
+        event.setAttempts(rs.getInt(9));
+        return event;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public OrderEventOutbox(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedJdbcTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${orders.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    // Writes the events in JDBC batches as part of the current transaction
+    public void append(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, batchSize, (statement, event) -> {
+            statement.setString(1, event.getEventKey());
+            statement.setLong(2, event.getPortfolioId());
+            statement.setString(3, event.getSymbol());
+            statement.setString(4, event.getType().name());
+            statement.setBigDecimal(5, event.getQuantity().toBigDecimal());
+            statement.setBigDecimal(6, event.getPrice().toBigDecimal());
+            statement.setTimestamp(7, Timestamp.valueOf(event.getCreatedAt()));
+        });
+        // Wakes the dispatcher once the transaction commits
+        eventPublisher.publishEvent(new OrderEventsRecordedEvent(events.size()));
+    }
+
+    // Oldest pending events first, so each portfolio's events are seen in the order they happened;
+    // none of a portfolio that has an earlier parked event
+    public List<OrderEvent> findPending(int limit) {
+        return jdbcTemplate.query(PENDING_SQL, ROW_MAPPER, limit);
+    }
+
+    public void markDispatched(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.update(DISPATCHED_SQL, new MapSqlParameterSource()
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                    .addValue("ids", ids));
+        }
+    }
+
+    // Counts a failed delivery; a parked event is no longer picked up
+    public void recordFailure(long id, String error, boolean park) {
+        String message = error == null ? null : error.substring(0, Math.min(error.length(), 500));
+        jdbcTemplate.update(FAILURE_SQL, message, park ? OrderEvent.STATUS_FAILED : OrderEvent.STATUS_PENDING, id);
+    }
+
+    public int purgeDispatched(LocalDateTime before) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(before));
+    }
+
+    // Puts parked events back in the queue; returns how many
+    public int retryFailed() {
+        return jdbcTemplate.update(RETRY_SQL);
+    }
+
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put(OrderEvent.STATUS_PENDING, 0L);
+        counts.put(OrderEvent.STATUS_DISPATCHED, 0L);
+        counts.put(OrderEvent.STATUS_FAILED, 0L);
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM order_events GROUP BY status",
+                rs -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                });
+        return counts;
+    }
+}
@@ -1,10 +1,28 @@
 package TradeShift.Project.repository;
 
+import TradeShift.Project.dto.AssetDTO;
 import TradeShift.Project.entity.Asset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface AssetRepository extends JpaRepository<Asset, Long> {
     List<Asset> findByPortfolioId(Long portfolioId);
+
+    List<Asset> findByPortfolioIdAndSymbol(Long portfolioId, String symbol);
+
+    @Query("select new TradeShift.Project.dto.AssetDTO(a.id, a.symbol, a.quantity, a.price) " +
+           "from Asset a where a.portfolio.id = :portfolioId order by a.id")
+    List<AssetDTO> findDtosByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    // Each row's value is rounded to money scale before summing, the same way Money.valueOf does
+    @Query(value = "SELECT COALESCE(SUM(ROUND(quantity * price, 4)), 0) FROM assets WHERE portfolio_id = :portfolioId",
+           nativeQuery = true)
+    BigDecimal sumValueByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query("select distinct a.symbol from Asset a where a.symbol is not null")
+    List<String> findDistinctSymbols();
 }
@@ -0,0 +1,71 @@
+package TradeShift.Project.repository;
+
+import TradeShift.Project.entity.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// JDBC batch inserts for orders. Order ids are IDENTITY columns, which stops Hibernate from
+// batching inserts, so bulk paths write here and read the generated keys back per batch.
+@Repository
+public class OrderBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO orders (symbol, type, quantity, price, order_time, portfolio_id, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public OrderBatchWriter(JdbcTemplate jdbcTemplate,
+                            @Value("${orders.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // Inserts the orders and sets their generated ids; joins the caller's transaction
+    public void insertAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < orders.size(); from += batchSize) {
+                    List<Order> batch = orders.subList(from, Math.min(from + batchSize, orders.size()));
+                    for (Order order : batch) {
+                        statement.setString(1, order.getSymbol());
+                        statement.setString(2, order.getType().name());
+                        statement.setBigDecimal(3, order.getQuantity().toBigDecimal());
+                        statement.setBigDecimal(4, order.getPrice().toBigDecimal());
+                        statement.setTimestamp(5, Timestamp.valueOf(order.getOrderTime()));
+                        if (order.getPortfolio() != null) {
+                            statement.setLong(6, order.getPortfolio().getId());
+                        } else {
+                            statement.setNull(6, Types.BIGINT);
+                        }
+                        statement.setString(7, order.getStatus());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Order order : batch) {
+                            if (!keys.next()) {
+                                break;
+                            }
+                            order.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package TradeShift.Project.repository;
+
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.dto.OrderHistoryFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Order history newest first, read as OrderDTO projections so no entities (and no
+// portfolio/assets) end up in the persistence context. Pages use a keyset on
+// (orderTime, id), which stays an index range scan on idx_orders_portfolio_time no
+// matter how deep the client pages.
+@Repository
+public class OrderHistoryRepository {
+
+    private static final String SELECT =
+            "select new TradeShift.Project.dto.OrderDTO(o.id, o.symbol, o.type, o.quantity, o.price, " +
+            "o.orderTime, o.status, o.filledQuantity) from Order o where o.portfolio.id = :portfolioId";
+
+    private static final String ORDER_BY = " order by o.orderTime desc, o.id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Orders strictly older than the (afterTime, afterId) key; both null for the first page
+    public List<OrderDTO> findPage(Long portfolioId, OrderHistoryFilter filter,
+                                   LocalDateTime afterTime, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new HashMap<>();
+        params.put("portfolioId", portfolioId);
+        appendFilter(jpql, params, filter);
+        if (afterTime != null && afterId != null) {
+            jpql.append(" and (o.orderTime < :afterTime or (o.orderTime = :afterTime and o.id < :afterId))");
+            params.put("afterTime", afterTime);
+            params.put("afterId", afterId);
+        }
+        jpql.append(ORDER_BY);
+
+        TypedQuery<OrderDTO> query = entityManager.createQuery(jpql.toString(), OrderDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    // Whole filtered history as a forward-only stream; must be consumed and closed inside
+    // a transaction. The fetch size keeps the driver from buffering the full result set.
+    public Stream<OrderDTO> stream(Long portfolioId, OrderHistoryFilter filter, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new HashMap<>();
+        params.put("portfolioId", portfolioId);
+        appendFilter(jpql, params, filter);
+        jpql.append(ORDER_BY);
+
+        TypedQuery<OrderDTO> query = entityManager.createQuery(jpql.toString(), OrderDTO.class);
+        params.forEach(query::setParameter);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    private static void appendFilter(StringBuilder jpql, Map<String, Object> params, OrderHistoryFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getSymbol() != null && !filter.getSymbol().isBlank()) {
+            jpql.append(" and o.symbol = :symbol");
+            params.put("symbol", filter.getSymbol().trim());
+        }
+        if (filter.getType() != null) {
+            jpql.append(" and o.type = :type");
+            params.put("type", filter.getType());
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" and o.orderTime >= :from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" and o.orderTime < :to");
+            params.put("to", filter.getTo());
+        }
+    }
+}
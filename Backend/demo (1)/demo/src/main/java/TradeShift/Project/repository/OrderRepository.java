@@ -1,11 +1,29 @@
 package TradeShift.Project.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import TradeShift.Project.dto.OrderDTO;
 import TradeShift.Project.entity.Order;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByPortfolioId(Long portfolioId);
-    List<Order> findTop5ByPortfolioIdOrderByOrderTimeDesc(Long portfolioId);
-    List<Order> findTop5ByOrderByOrderTimeDesc();
+
+    // Read paths project straight into OrderDTO: one select, no portfolio join, nothing managed
+    String SELECT_DTO = "select new TradeShift.Project.dto.OrderDTO(o.id, o.symbol, o.type, o.quantity, " +
+            "o.price, o.orderTime, o.status, o.filledQuantity) from Order o ";
+
+    @Query(SELECT_DTO + "where o.portfolio.id = :portfolioId order by o.id")
+    List<OrderDTO> findDtosByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query(SELECT_DTO + "where o.portfolio.id = :portfolioId order by o.orderTime desc, o.id desc")
+    List<OrderDTO> findRecentDtosByPortfolioId(@Param("portfolioId") Long portfolioId, Pageable page);
+
+    @Query(SELECT_DTO + "order by o.orderTime desc, o.id desc")
+    List<OrderDTO> findRecentDtos(Pageable page);
+
+    List<Order> findByStatusInOrderByOrderTimeAscIdAsc(Collection<String> statuses);
 }
@@ -0,0 +1,18 @@
+package TradeShift.Project.repository;
+
+import TradeShift.Project.entity.PortfolioLedger;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface PortfolioLedgerRepository extends JpaRepository<PortfolioLedger, Long> {
+
+    // Row lock so concurrent orders on one portfolio apply their deltas one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from PortfolioLedger l where l.portfolioId = :portfolioId")
+    Optional<PortfolioLedger> findForUpdate(@Param("portfolioId") Long portfolioId);
+}
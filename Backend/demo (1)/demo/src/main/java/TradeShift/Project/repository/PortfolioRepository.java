@@ -1,9 +1,28 @@
 package TradeShift.Project.repository;
 
 import TradeShift.Project.entity.Portfolio;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     List<Portfolio> findByUserId(Long userId);
+
+    @Query("select p.id from Portfolio p where p.user.username = :username order by p.id")
+    List<Long> findIdsByUsername(@Param("username") String username);
+
+    // A user's portfolios and their assets in a single select instead of one query per portfolio
+    @EntityGraph(attributePaths = "assets")
+    @Query("select p from Portfolio p where p.user.username = :username order by p.id")
+    List<Portfolio> findWithAssetsByUsername(@Param("username") String username);
+
+    // Row lock that serializes order fills on one portfolio
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Portfolio p where p.id = :id")
+    Optional<Portfolio> findForUpdate(@Param("id") Long id);
 }
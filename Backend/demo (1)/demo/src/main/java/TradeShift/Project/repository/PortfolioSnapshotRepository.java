@@ -0,0 +1,20 @@
+package TradeShift.Project.repository;
+
+import TradeShift.Project.entity.PortfolioSnapshot;
+import TradeShift.Project.entity.SnapshotResolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Each lookup is a single-row seek on idx_snapshots_portfolio_time
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, Long> {
+    Optional<PortfolioSnapshot> findFirstByPortfolioIdOrderByTakenAtDesc(Long portfolioId);
+
+    Optional<PortfolioSnapshot> findFirstByPortfolioIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long portfolioId, LocalDateTime at);
+
+    Optional<PortfolioSnapshot> findFirstByPortfolioIdAndTakenAtGreaterThanEqualOrderByTakenAtAsc(Long portfolioId, LocalDateTime at);
+
+    List<PortfolioSnapshot> findByPortfolioIdAndResolutionOrderByTakenAt(Long portfolioId, SnapshotResolution resolution);
+}
@@ -0,0 +1,19 @@
+package TradeShift.Project.repository;
+
+import TradeShift.Project.entity.PositionLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PositionLedgerRepository extends JpaRepository<PositionLedger, Long> {
+    List<PositionLedger> findByPortfolioId(Long portfolioId);
+    Optional<PositionLedger> findByPortfolioIdAndSymbol(Long portfolioId, String symbol);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PositionLedger p where p.portfolioId = :portfolioId")
+    void deleteByPortfolioId(@Param("portfolioId") Long portfolioId);
+}
@@ -0,0 +1,7 @@
+package TradeShift.Project.repository;
+
+import TradeShift.Project.entity.Trade;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TradeRepository extends JpaRepository<Trade, Long> {
+}
@@ -2,10 +2,20 @@ package TradeShift.Project.repository;
 
 import TradeShift.Project.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // Swaps the hash only if it is still the one that was verified; 0 if the password changed meanwhile
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :rehashed where u.id = :id and u.password = :verified")
+    int replacePasswordHash(@Param("id") Long id, @Param("verified") String verified, @Param("rehashed") String rehashed);
 }
@@ -0,0 +1,91 @@
+package TradeShift.Project.security;
+
+import TradeShift.Project.util.TtlCache;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Resolves a bearer token to its user without re-verifying the signature or querying the
+// users table on every request. Verified tokens are kept until they expire (or the TTL,
+// whichever comes first); user details are kept for the TTL and dropped as soon as the
+// user is changed, so a role change takes effect on the next request.
+@Component
+public class AuthenticationCache {
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+    private final long ttlMillis;
+
+    private final TtlCache<String, String> tokens;
+    private final TtlCache<String, UserDetails> users;
+
+    private final AtomicLong tokenHits = new AtomicLong();
+    private final AtomicLong tokenMisses = new AtomicLong();
+    private final AtomicLong userLoads = new AtomicLong();
+
+    public AuthenticationCache(JwtUtil jwtUtil,
+                               UserDetailsService userDetailsService,
+                               @Value("${security.auth-cache.ttl-ms:60000}") long ttlMillis,
+                               @Value("${security.auth-cache.max-size:10000}") int maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.ttlMillis = ttlMillis;
+        this.tokens = new TtlCache<>(maxSize);
+        this.users = new TtlCache<>(maxSize);
+    }
+
+    // User behind a valid token, or null if the token is malformed, forged or expired
+    public UserDetails authenticate(String token) {
+        String username = tokens.get(token);
+        if (username != null) {
+            tokenHits.incrementAndGet();
+        } else {
+            tokenMisses.incrementAndGet();
+            Claims claims = jwtUtil.parseValidClaims(token);
+            if (claims == null || claims.getSubject() == null) {
+                return null;
+            }
+            username = claims.getSubject();
+            long expiresAt = Math.min(claims.getExpiration().getTime(), System.currentTimeMillis() + ttlMillis);
+            tokens.put(token, username, expiresAt);
+        }
+        return loadUser(username);
+    }
+
+    // Call after any change to a user's role, password or existence
+    public void invalidateUser(String username) {
+        users.invalidate(username);
+    }
+
+    public void clear() {
+        tokens.clear();
+        users.clear();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("tokens", (long) tokens.size());
+        stats.put("users", (long) users.size());
+        stats.put("tokenHits", tokenHits.get());
+        stats.put("tokenMisses", tokenMisses.get());
+        stats.put("userLoads", userLoads.get());
+        stats.put("evictions", tokens.evictions() + users.evictions());
+        return stats;
+    }
+
+    private UserDetails loadUser(String username) {
+        UserDetails user = users.get(username);
+        if (user == null) {
+            userLoads.incrementAndGet();
+            user = userDetailsService.loadUserByUsername(username);
+            users.put(username, user, System.currentTimeMillis() + ttlMillis);
+        }
+        return user;
+    }
+}
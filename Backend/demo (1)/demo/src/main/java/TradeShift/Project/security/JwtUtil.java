@@ -1,6 +1,8 @@
 package TradeShift.Project.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,6 +21,8 @@ public class JwtUtil {
     // SECRET_KEY_STRING length must be at least 256 bits (32 chars for HS256)
     private static final String SECRET_KEY_STRING = "YourSuperSecretKeyForJWTsMustBeAtLeast256BitsLong!";
     private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor(SECRET_KEY_STRING.getBytes(StandardCharsets.UTF_8));
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(SECRET_KEY).build();
 
     // Generate token with username and role claim
     public String generateToken(String username, String role) {
@@ -52,20 +56,22 @@ public class JwtUtil {
 
     // JJWT 0.12.x కోసం
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(SECRET_KEY)            // SecretKey type తప్పనిసరి!
-                .build()
+        return PARSER
                 .parseSignedClaims(token)          // JJWT 0.12.x style
                 .getPayload();
     }
 
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+    // Checks signature and expiry in a single parse; null if the token can't be trusted
+    public Claims parseValidClaims(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = extractAllClaims(token).getExpiration();
-        return expiration.before(new Date());
+    public Boolean validateToken(String token, String username) {
+        final Claims claims = parseValidClaims(token);
+        return claims != null && username.equals(claims.getSubject());
     }
 }
@@ -0,0 +1,92 @@
+package TradeShift.Project.security;
+
+import TradeShift.Project.util.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Runs right after JwtAuthenticationFilter, so signed-in clients are limited per user and
+// everyone else per remote address. Endpoint classes: login/register (each attempt is a
+// deliberately slow password hash), order placement (permitAll, writes rows), and the rest
+// of /api. Over budget the request ends here with 429 and Retry-After.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    // Same for every rejection, so serialized once
+    private final byte[] rejectionBody;
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${ratelimit.enabled:true}") boolean enabled) throws JsonProcessingException {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.rejectionBody = objectMapper.writeValueAsBytes(
+                new ApiResponse<>("error", null, "Too many requests, try again later"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String endpointClass = enabled ? classify(request.getMethod(), request.getRequestURI()) : null;
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long wait = rateLimiter.tryAcquire(endpointClass, client(request));
+        if (wait == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        meterRegistry.counter("ratelimit.rejected", "endpoint", endpointClass).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+
+    // Null for requests that are not limited (actuator, static content)
+    static String classify(String method, String path) {
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        if (path.equals("/api/auth/login") || path.equals("/api/auth/register")) {
+            return RateLimiter.LOGIN;
+        }
+        if ("POST".equals(method) && path.startsWith("/api/portfolio/") && path.contains("/orders")) {
+            return RateLimiter.ORDERS;
+        }
+        return RateLimiter.API;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,87 @@
+package TradeShift.Project.security;
+
+import TradeShift.Project.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per endpoint class and client (user or IP), created on first request and
+// dropped by the sweep once they have refilled, so only recently active clients take
+// memory. Past max-keys, new clients of a class share one overflow bucket instead of
+// growing the map: a flood from many addresses then throttles itself, not the heap.
+@Component
+public class RateLimiter {
+
+    public static final String LOGIN = "login";
+    public static final String ORDERS = "orders";
+    public static final String API = "api";
+
+    private record Limit(double permitsPerSecond, int burst) {
+    }
+
+    private final Map<String, Limit> limits;
+    private final long maxKeys;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong granted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public RateLimiter(@Value("${ratelimit.login.permits-per-minute:10}") double loginPerMinute,
+                       @Value("${ratelimit.login.burst:5}") int loginBurst,
+                       @Value("${ratelimit.orders.permits-per-minute:600}") double ordersPerMinute,
+                       @Value("${ratelimit.orders.burst:50}") int ordersBurst,
+                       @Value("${ratelimit.api.permits-per-minute:3000}") double apiPerMinute,
+                       @Value("${ratelimit.api.burst:200}") int apiBurst,
+                       @Value("${ratelimit.max-keys:100000}") long maxKeys) {
+        this.limits = Map.of(
+                LOGIN, new Limit(loginPerMinute / 60, loginBurst),
+                ORDERS, new Limit(ordersPerMinute / 60, ordersBurst),
+                API, new Limit(apiPerMinute / 60, apiBurst));
+        this.maxKeys = maxKeys;
+    }
+
+    // 0 if the request may proceed, otherwise the nanos until the client's next permit
+    public long tryAcquire(String endpointClass, String client) {
+        long now = System.nanoTime();
+        String key = endpointClass + '|' + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                overflowed.incrementAndGet();
+                key = endpointClass + "|*";
+            }
+            Limit limit = limits.get(endpointClass);
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.permitsPerSecond(), limit.burst(), now));
+        }
+        long wait = bucket.tryAcquire(now);
+        (wait == 0 ? granted : rejected).incrementAndGet();
+        return wait;
+    }
+
+    // A request racing the sweep may spend a permit of a bucket being dropped, so a client
+    // can get one extra permit per sweep at most
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        evicted.addAndGet(Math.max(0, before - buckets.size()));
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("keys", (long) buckets.size());
+        stats.put("granted", granted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("overflowed", overflowed.get());
+        stats.put("evicted", evicted.get());
+        return stats;
+    }
+}
@@ -0,0 +1,99 @@
+package TradeShift.Project.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hashes with the configured algorithm and cost (security.password.*) and verifies every
+// format the application has stored: "{bcrypt}$2a$NN$...", "{pbkdf2}<iterations>$<hex>" and
+// the original unprefixed bcrypt hashes. upgradeEncoding() is true whenever a stored hash
+// differs from the current setting in either direction, so lowering the cost also reaches
+// existing users as they log in.
+public class TunablePasswordEncoder implements PasswordEncoder {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final String BCRYPT_PREFIX = "{" + BCRYPT + "}";
+    private static final String PBKDF2_PREFIX = "{" + PBKDF2 + "}";
+
+    private final String algorithm;
+    private final int bcryptStrength;
+    private final int pbkdf2Iterations;
+    private final BCryptPasswordEncoder bcrypt;
+    // One per iteration count seen, since the count is not part of Spring's pbkdf2 hash
+    private final Map<Integer, Pbkdf2PasswordEncoder> pbkdf2 = new ConcurrentHashMap<>();
+
+    public TunablePasswordEncoder(String algorithm, int bcryptStrength, int pbkdf2Iterations) {
+        if (!BCRYPT.equals(algorithm) && !PBKDF2.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.bcryptStrength = bcryptStrength;
+        this.pbkdf2Iterations = pbkdf2Iterations;
+        this.bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        if (BCRYPT.equals(algorithm)) {
+            return BCRYPT_PREFIX + bcrypt.encode(rawPassword);
+        }
+        return PBKDF2_PREFIX + pbkdf2Iterations + "$" + pbkdf2(pbkdf2Iterations).encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (encodedPassword.startsWith(PBKDF2_PREFIX)) {
+            int separator = encodedPassword.indexOf('$', PBKDF2_PREFIX.length());
+            int iterations = separator > 0 ? iterations(encodedPassword.substring(PBKDF2_PREFIX.length(), separator)) : 0;
+            return iterations > 0 && pbkdf2(iterations).matches(rawPassword, encodedPassword.substring(separator + 1));
+        }
+        String hash = bcryptHash(encodedPassword);
+        return hash != null && bcrypt.matches(rawPassword, hash);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (PBKDF2.equals(algorithm)) {
+            return !encodedPassword.startsWith(PBKDF2_PREFIX + pbkdf2Iterations + "$");
+        }
+        String hash = bcryptHash(encodedPassword);
+        // Unprefixed hashes are rewritten too, so every stored hash names its algorithm
+        return hash == null || !encodedPassword.startsWith(BCRYPT_PREFIX) || bcryptCost(hash) != bcryptStrength;
+    }
+
+    // "$2a$10$..." from either form, null if not bcrypt
+    private static String bcryptHash(String encodedPassword) {
+        String hash = encodedPassword.startsWith(BCRYPT_PREFIX)
+                ? encodedPassword.substring(BCRYPT_PREFIX.length())
+                : encodedPassword;
+        return hash.startsWith("$2") && hash.length() > 7 ? hash : null;
+    }
+
+    private static int bcryptCost(String hash) {
+        return iterations(hash.substring(4, 6));
+    }
+
+    private static int iterations(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return pbkdf2.computeIfAbsent(iterations, count -> new Pbkdf2PasswordEncoder(
+                "", 16, count, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    }
+}
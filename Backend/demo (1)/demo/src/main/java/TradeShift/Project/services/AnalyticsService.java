@@ -1,14 +1,14 @@
 package TradeShift.Project.services;
 
-
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import TradeShift.Project.repository.OrderRepository;
 import TradeShift.Project.repository.AssetRepository;
 import TradeShift.Project.repository.PortfolioRepository;
-import TradeShift.Project.entity.Order;
-import TradeShift.Project.entity.Asset;
-import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.dto.AssetDTO;
+import TradeShift.Project.money.Money;
 
 import java.util.*;
 
@@ -24,49 +24,57 @@ public class AnalyticsService {
     @Autowired
     private PortfolioRepository portfolioRepository;
 
-    // 1. Profit/Loss
-    public double calculateProfitLoss(Long portfolioId) {
-        List<Order> orders = orderRepository.findByPortfolioId(portfolioId);
-        double total = 0;
-        for (Order order : orders) {
-            if (order.getType() == OrderType.SELL) {
-                total += order.getQuantity() * order.getPrice();
-            } else if (order.getType() == OrderType.BUY) {
-                total -= order.getQuantity() * order.getPrice();
-            }
-        }
-        return total;
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private HoldingsIndex holdingsIndex;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    // 1. Profit/Loss (sells minus buys), read from the running ledger instead of scanning orders
+    public Money calculateProfitLoss(Long portfolioId) {
+        return computation("profitLoss").observe(() -> ledgerService.getProfitLoss(portfolioId));
     }
 
-    // 2. Asset Allocation (symbol-wise % for now)
+    // 2. Asset Allocation (symbol-wise %), from the totals the holdings index keeps per portfolio
     public Map<String, Double> calculateAssetAllocation(Long portfolioId) {
-        List<Asset> assets = assetRepository.findByPortfolioId(portfolioId);
-        Map<String, Double> allocation = new HashMap<>();
-        double totalValue = 0.0;
-        for (Asset asset : assets) {
-            totalValue += asset.getPrice() * asset.getQuantity();
-        }
-        for (Asset asset : assets) {
-            String symbol = asset.getSymbol();
-            double value = asset.getPrice() * asset.getQuantity();
-            allocation.put(symbol, allocation.getOrDefault(symbol, 0.0) + value);
-        }
-        if (totalValue > 0) {
-            for (String symbol : allocation.keySet()) {
-                allocation.put(symbol, (allocation.get(symbol) / totalValue) * 100.0);
+        return computation("allocation").observe(() -> holdingsIndex.isReady()
+                ? holdingsIndex.getAllocation(portfolioId)
+                : allocationFromRows(portfolioId));
+    }
+
+    // Used until the index has loaded; values are summed exactly in money ticks
+    private Map<String, Double> allocationFromRows(Long portfolioId) {
+        List<AssetDTO> assets = assetRepository.findDtosByPortfolioId(portfolioId);
+        Map<String, long[]> valueTicks = new HashMap<>();
+        long totalTicks = 0;
+        for (AssetDTO asset : assets) {
+            if (asset.getQuantity() == null || asset.getPrice() == null) {
+                continue;
             }
+            long value = Money.valueTicks(asset.getQuantity().units(), asset.getPrice().ticks());
+            valueTicks.computeIfAbsent(asset.getSymbol(), symbol -> new long[1])[0] += value;
+            totalTicks += value;
+        }
+        Map<String, Double> allocation = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : valueTicks.entrySet()) {
+            allocation.put(entry.getKey(), totalTicks > 0 ? entry.getValue()[0] * 100.0 / totalTicks : 0.0);
         }
         return allocation;
     }
 
-    // 3. Performance dummy (implement period logic as needed)
+    // 3. Performance over 1D/1W/1M/1Y, from the recorded valuation snapshots
     public double calculatePerformance(Long portfolioId, String period) {
-        List<Asset> assets = assetRepository.findByPortfolioId(portfolioId);
-        double currentValue = 0;
-        for (Asset asset : assets) {
-            currentValue += asset.getPrice() * asset.getQuantity();
-        }
-        double startingValue = 1000; // Dummy, or fetch from DB as per 'period'
-        return ((currentValue - startingValue) / startingValue) * 100.0;
+        return computation("performance").observe(() -> snapshotService.getPerformance(portfolioId, period));
+    }
+
+    private Observation computation(String metric) {
+        return Observation.createNotStarted("analytics.compute", observationRegistry)
+                .lowCardinalityKeyValue("metric", metric);
     }
 }
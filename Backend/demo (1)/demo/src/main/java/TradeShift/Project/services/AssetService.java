@@ -1,17 +1,24 @@
 package TradeShift.Project.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import TradeShift.Project.dto.AssetDTO;
+import TradeShift.Project.events.PortfolioChangedEvent;
 import TradeShift.Project.entity.*;
 import TradeShift.Project.repository.*;
+import TradeShift.Project.money.Money;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class AssetService {
 
+    private static final Logger log = LoggerFactory.getLogger(AssetService.class);
+
     @Autowired
     private AssetRepository assetRepo;
 
@@ -22,43 +29,55 @@ public class AssetService {
     private PortfolioService portfolioService;  // Inject PortfolioService to update portfolio value
 
     @Autowired
-    private RestTemplate restTemplate;  // For Finnhub API HTTP requests
+    private FinnhubClient finnhubClient;  // For Finnhub API HTTP requests
 
-    @Value("${finnhub.api.key}")
-    private String finnhubApiKey;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    // Fetch live price for given symbol from Finnhub
+    @Autowired
+    private QuoteCache quoteCache;  // Shared per-symbol cache so repeated adds don't hit Finnhub
+
+    @Autowired
+    private PortfolioWrites portfolioWrites;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Fetch live price for given symbol, going to Finnhub only on a cache miss
     public Double fetchLivePrice(String symbol) {
         try {
-            String url = "https://finnhub.io/api/v1/quote?symbol=" + symbol + "&token=" + finnhubApiKey;
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            Object priceObject = response.get("c");
-            if (priceObject != null) {
-                return Double.valueOf(priceObject.toString());
+            Double price = quoteCache.get(symbol, finnhubClient::fetchQuote);
+            if (price != null) {
+                return price;
             }
         } catch (Exception e) {
             // Log error and fallback to zero price
-            System.out.println("Error fetching price from Finnhub for symbol: " + symbol + " " + e.getMessage());
+            log.warn("Error fetching price from Finnhub for symbol: {} {}", symbol, e.getMessage());
         }
         return 0.0;
     }
 
+    // The save and the total value update run as one transaction on the portfolio's stripe,
+    // so an order for the same portfolio can't land between them and neither commits alone
     public Asset addAsset(Long portfolioId, Asset asset) {
-        Portfolio portfolio = portfolioRepo.findById(portfolioId).orElseThrow();
-        asset.setPortfolio(portfolio);
-        // Set asset price from Finnhub
+        // Set asset price from Finnhub (before queueing, so the stripe never waits on the network)
         Double livePrice = fetchLivePrice(asset.getSymbol());
-        asset.setPrice(livePrice);
-
-        Asset savedAsset = assetRepo.save(asset);
+        asset.setPrice(Money.of(livePrice));
 
-        // Update portfolio total value after adding asset
-        portfolioService.calculateAndUpdatePortfolioValue(portfolioId);
+        return portfolioWrites.execute(portfolioId, () -> transactionTemplate.execute(status -> {
+            Portfolio portfolio = portfolioRepo.findById(portfolioId).orElseThrow();
+            asset.setPortfolio(portfolio);
+            Asset savedAsset = assetRepo.save(asset);
 
-        return savedAsset;
+            // Update portfolio total value after adding asset
+            portfolioService.calculateAndUpdatePortfolioValue(portfolioId);
+            eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+            return savedAsset;
+        }));
     }
 
-    public List<Asset> getAssets(Long portfolioId) {
-        return assetRepo.findByPortfolioId(portfolioId);
+    @Transactional(readOnly = true)
+    public List<AssetDTO> getAssets(Long portfolioId) {
+        return assetRepo.findDtosByPortfolioId(portfolioId);
     }
 }
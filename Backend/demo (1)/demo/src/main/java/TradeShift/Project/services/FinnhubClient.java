@@ -0,0 +1,40 @@
+package TradeShift.Project.services;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+// Thin wrapper around the Finnhub quote endpoint. Callers should go through QuoteCache.
+@Component
+public class FinnhubClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final String apiKey;
+    private final ObservationRegistry observationRegistry;
+
+    public FinnhubClient(RestTemplate restTemplate,
+                         @Value("${finnhub.api.url:https://finnhub.io/api/v1}") String baseUrl,
+                         @Value("${finnhub.api.key}") String apiKey,
+                         ObservationRegistry observationRegistry) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.observationRegistry = observationRegistry;
+    }
+
+    // Current price ("c") for the symbol, or null if Finnhub has no quote for it
+    // Timed as "finnhub.requests"; failed calls carry the exception in the error tag
+    public Double fetchQuote(String symbol) {
+        Map<?, ?> response = Observation.createNotStarted("finnhub.requests", observationRegistry)
+                .lowCardinalityKeyValue("endpoint", "quote")
+                .observe(() -> restTemplate.getForObject(
+                        baseUrl + "/quote?symbol={symbol}&token={token}", Map.class, symbol, apiKey));
+        Object priceObject = response != null ? response.get("c") : null;
+        return priceObject != null ? Double.valueOf(priceObject.toString()) : null;
+    }
+}
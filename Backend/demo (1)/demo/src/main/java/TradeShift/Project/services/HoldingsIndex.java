@@ -0,0 +1,308 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.util.LongLongHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reverse index symbol -> (portfolio -> quantity units, value ticks counted in total_value).
+// A price tick turns into exact per-portfolio deltas (qty x new price - counted value) for just the
+// portfolios holding the symbol, instead of re-summing every asset of every portfolio.
+// Asset writes mark their holding dirty after commit (HoldingsIndexListener); dirty
+// holdings are re-read from the database in bulk before the next repricing or read.
+// A portfolio-major copy of the values, with a running total per portfolio, serves
+// allocation reads without touching asset rows. All writers hold the index monitor.
+@Component
+public class HoldingsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingsIndex.class);
+
+    private static final String LOAD_ALL_SQL =
+            "SELECT portfolio_id, symbol, SUM(quantity), SUM(ROUND(quantity * price, 4)) FROM assets " +
+            "WHERE portfolio_id IS NOT NULL AND symbol IS NOT NULL GROUP BY portfolio_id, symbol";
+    private static final String LOAD_PORTFOLIOS_SQL =
+            "SELECT portfolio_id, symbol, SUM(quantity), SUM(ROUND(quantity * price, 4)) FROM assets " +
+            "WHERE portfolio_id IN (:ids) AND symbol IS NOT NULL GROUP BY portfolio_id, symbol";
+    private static final int REFRESH_CHUNK = 500;
+
+    private record HoldingKey(long portfolioId, String symbol) {
+    }
+
+    // Guarded by its own monitor
+    private static final class SymbolHoldings {
+        final LongLongHashMap quantities = new LongLongHashMap();
+        final LongLongHashMap values = new LongLongHashMap();
+
+        void set(long portfolioId, long quantity, long value) {
+            quantities.put(portfolioId, quantity);
+            values.put(portfolioId, value);
+        }
+
+        void remove(long portfolioId) {
+            quantities.remove(portfolioId);
+            values.remove(portfolioId);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // Guarded by its own monitor: symbol -> value ticks, and their sum
+    private static final class PortfolioHoldings {
+        final Map<String, long[]> values = new HashMap<>();
+        long total;
+
+        void set(String symbol, long value) {
+            long[] slot = values.computeIfAbsent(symbol, s -> new long[1]);
+            total += value - slot[0];
+            slot[0] = value;
+        }
+
+        boolean remove(String symbol) {
+            long[] slot = values.remove(symbol);
+            if (slot != null) {
+                total -= slot[0];
+            }
+            return values.isEmpty();
+        }
+    }
+
+    private final Map<String, SymbolHoldings> bySymbol = new ConcurrentHashMap<>();
+    private final Map<Long, PortfolioHoldings> byPortfolio = new ConcurrentHashMap<>();
+    private final Set<HoldingKey> dirty = ConcurrentHashMap.newKeySet();
+    private final Object txKey = new Object();
+    private volatile boolean ready;
+
+    public HoldingsIndex(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    // Loads every holding from the assets table in one grouped scan
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        ready = false;
+        bySymbol.clear();
+        byPortfolio.clear();
+        dirty.clear();
+        int[] holdings = {0};
+        jdbcTemplate.query(LOAD_ALL_SQL, rs -> {
+            set(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getBigDecimal(4));
+            holdings[0]++;
+        });
+        ready = true;
+        log.info("Holdings index built: {} holdings across {} symbols in {} ms",
+                holdings[0], bySymbol.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Called for every asset insert/update/delete; takes effect once the transaction commits
+    public void holdingChanged(long portfolioId, String symbol) {
+        HoldingKey key = new HoldingKey(portfolioId, symbol);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirty.add(key);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<HoldingKey> pending = (Set<HoldingKey>) TransactionSynchronizationManager.getResource(txKey);
+        if (pending == null) {
+            Set<HoldingKey> changed = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(txKey, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(txKey);
+                    if (status == STATUS_COMMITTED) {
+                        dirty.addAll(changed);
+                    }
+                }
+            });
+            pending = changed;
+        }
+        pending.add(key);
+    }
+
+    // Computes the change in total value per portfolio (in money ticks) and records the new values
+    // as counted. Call refresh() before the new prices are written, so re-read
+    // holdings are counted at the old price; persist the deltas or call invalidate().
+    public synchronized LongLongHashMap reprice(Map<String, Money> prices) {
+        LongLongHashMap deltas = new LongLongHashMap();
+        for (Map.Entry<String, Money> entry : prices.entrySet()) {
+            SymbolHoldings holdings = bySymbol.get(entry.getKey());
+            if (holdings == null || entry.getValue() == null) {
+                continue;
+            }
+            String symbol = entry.getKey();
+            long priceTicks = entry.getValue().ticks();
+            synchronized (holdings) {
+                holdings.quantities.forEach((portfolioId, quantity) -> {
+                    long value = Money.valueTicks(quantity, priceTicks);
+                    long delta = value - holdings.values.get(portfolioId, 0);
+                    if (delta != 0) {
+                        deltas.addTo(portfolioId, delta);
+                        holdings.values.put(portfolioId, value);
+                        setPortfolioValue(portfolioId, symbol, value);
+                    }
+                });
+            }
+        }
+        return deltas;
+    }
+
+    // Forces the holdings of these symbols to be re-read, e.g. after a failed repricing
+    public void invalidate(Iterable<String> symbols) {
+        for (String symbol : symbols) {
+            SymbolHoldings holdings = bySymbol.get(symbol);
+            if (holdings == null) {
+                continue;
+            }
+            synchronized (holdings) {
+                holdings.quantities.forEach((portfolioId, quantity) -> dirty.add(new HoldingKey(portfolioId, symbol)));
+            }
+        }
+    }
+
+    // Forces every holding of the portfolio to be re-read, e.g. after another node changed it;
+    // a portfolio not indexed yet gets a placeholder key so its rows are loaded
+    public void invalidatePortfolio(long portfolioId) {
+        PortfolioHoldings holdings = byPortfolio.get(portfolioId);
+        if (holdings == null) {
+            dirty.add(new HoldingKey(portfolioId, null));
+            return;
+        }
+        synchronized (holdings) {
+            for (String symbol : holdings.values.keySet()) {
+                dirty.add(new HoldingKey(portfolioId, symbol));
+            }
+        }
+    }
+
+    // Symbol -> percentage of the portfolio's value; cost depends on the number of distinct
+    // symbols held, not on how many asset rows back them
+    public Map<String, Double> getAllocation(long portfolioId) {
+        if (!dirty.isEmpty()) {
+            refresh();
+        }
+        Map<String, Double> allocation = new HashMap<>();
+        PortfolioHoldings holdings = byPortfolio.get(portfolioId);
+        if (holdings == null) {
+            return allocation;
+        }
+        synchronized (holdings) {
+            for (Map.Entry<String, long[]> entry : holdings.values.entrySet()) {
+                allocation.put(entry.getKey(), holdings.total > 0 ? entry.getValue()[0] * 100.0 / holdings.total : 0.0);
+            }
+        }
+        return allocation;
+    }
+
+    public Map<String, Long> getStats() {
+        long holdings = 0;
+        for (SymbolHoldings symbolHoldings : bySymbol.values()) {
+            synchronized (symbolHoldings) {
+                holdings += symbolHoldings.quantities.size();
+            }
+        }
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("symbols", (long) bySymbol.size());
+        stats.put("holdings", holdings);
+        stats.put("portfolios", (long) byPortfolio.size());
+        stats.put("dirty", (long) dirty.size());
+        return stats;
+    }
+
+    // Re-reads every portfolio with a dirty holding, in chunks of ids
+    public synchronized void refresh() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Set<HoldingKey> keys = new HashSet<>();
+        Set<Long> portfolioIds = new HashSet<>();
+        for (Iterator<HoldingKey> it = dirty.iterator(); it.hasNext(); ) {
+            HoldingKey key = it.next();
+            it.remove();
+            keys.add(key);
+            portfolioIds.add(key.portfolioId());
+        }
+
+        Set<HoldingKey> found = new HashSet<>();
+        List<Long> ids = new ArrayList<>(portfolioIds);
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK, ids.size()));
+            namedJdbcTemplate.query(LOAD_PORTFOLIOS_SQL, new MapSqlParameterSource("ids", chunk), rs -> {
+                long portfolioId = rs.getLong(1);
+                String symbol = rs.getString(2);
+                set(portfolioId, symbol, rs.getBigDecimal(3), rs.getBigDecimal(4));
+                found.add(new HoldingKey(portfolioId, symbol));
+            });
+        }
+        // Dirty holdings with no rows left were sold out or deleted
+        for (HoldingKey key : keys) {
+            if (key.symbol() != null && !found.contains(key)) {
+                SymbolHoldings holdings = bySymbol.get(key.symbol());
+                if (holdings != null) {
+                    synchronized (holdings) {
+                        holdings.remove(key.portfolioId());
+                    }
+                }
+                removePortfolioValue(key.portfolioId(), key.symbol());
+            }
+        }
+    }
+
+    private void set(long portfolioId, String symbol, BigDecimal quantity, BigDecimal value) {
+        SymbolHoldings holdings = bySymbol.computeIfAbsent(symbol, s -> new SymbolHoldings());
+        long valueTicks = Money.of(value).ticks();
+        synchronized (holdings) {
+            holdings.set(portfolioId, Quantity.of(quantity).units(), valueTicks);
+        }
+        setPortfolioValue(portfolioId, symbol, valueTicks);
+    }
+
+    private void setPortfolioValue(long portfolioId, String symbol, long valueTicks) {
+        PortfolioHoldings holdings = byPortfolio.computeIfAbsent(portfolioId, id -> new PortfolioHoldings());
+        synchronized (holdings) {
+            holdings.set(symbol, valueTicks);
+        }
+    }
+
+    private void removePortfolioValue(long portfolioId, String symbol) {
+        PortfolioHoldings holdings = byPortfolio.get(portfolioId);
+        if (holdings == null) {
+            return;
+        }
+        synchronized (holdings) {
+            if (holdings.remove(symbol)) {
+                byPortfolio.remove(portfolioId);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.entity.Asset;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Keeps the holdings index in step with asset writes made through JPA. Created by Hibernate
+// through Spring's bean container, so the index is injected lazily to avoid a cycle with the
+// EntityManagerFactory.
+@Component
+public class HoldingsIndexListener {
+
+    private final HoldingsIndex holdingsIndex;
+
+    public HoldingsIndexListener(@Lazy HoldingsIndex holdingsIndex) {
+        this.holdingsIndex = holdingsIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void assetChanged(Asset asset) {
+        if (asset.getPortfolio() != null && asset.getPortfolio().getId() != null && asset.getSymbol() != null) {
+            holdingsIndex.holdingChanged(asset.getPortfolio().getId(), asset.getSymbol());
+        }
+    }
+}
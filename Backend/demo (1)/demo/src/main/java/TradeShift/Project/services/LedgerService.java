@@ -0,0 +1,244 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.LedgerRebuildReport;
+import TradeShift.Project.entity.OrderEvent;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.PortfolioLedger;
+import TradeShift.Project.entity.PositionLedger;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.repository.PortfolioLedgerRepository;
+import TradeShift.Project.repository.PositionLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Per-portfolio cash and position ledger. Orders update it incrementally through the order
+// event outbox, so P&L is a single-row read; rebuild() replays the order history to detect
+// and repair drift. Amounts are Money ticks and Quantity units throughout, so a replay of
+// the same history must reproduce the stored ledger exactly.
+@Service
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    // Immediate orders count at their own quantity and price; engine orders count per trade
+    private static final String REPLAY_SQL =
+            "SELECT symbol, type, quantity, price, order_time, id FROM orders " +
+            "WHERE portfolio_id = ? AND (status IS NULL OR status NOT IN ('OPEN', 'PARTIALLY_FILLED', 'FILLED')) " +
+            "UNION ALL " +
+            "SELECT t.symbol, o.type, t.quantity, t.price, t.executed_at, o.id FROM trades t " +
+            "JOIN orders o ON o.id = t.buy_order_id WHERE o.portfolio_id = ? " +
+            "UNION ALL " +
+            "SELECT t.symbol, o.type, t.quantity, t.price, t.executed_at, o.id FROM trades t " +
+            "JOIN orders o ON o.id = t.sell_order_id WHERE o.portfolio_id = ? " +
+            "ORDER BY 5, 6";
+    private static final String LOCK_PORTFOLIO_SQL = "SELECT id FROM portfolios WHERE id = ? FOR UPDATE";
+    private static final String LAST_EVENT_SQL =
+            "SELECT COALESCE(MAX(id), 0) FROM order_events WHERE portfolio_id = ?";
+
+    @Autowired
+    private PortfolioLedgerRepository ledgerRepository;
+
+    @Autowired
+    private PositionLedgerRepository positionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Folds outbox events into the ledgers, taking each portfolio's ledger lock once (in id
+    // order). Events at or below a ledger's last applied id are redeliveries and are skipped.
+    @Transactional
+    public void applyEvents(List<OrderEvent> events) {
+        TreeMap<Long, List<OrderEvent>> byPortfolio = new TreeMap<>();
+        for (OrderEvent event : events) {
+            byPortfolio.computeIfAbsent(event.getPortfolioId(), id -> new ArrayList<>()).add(event);
+        }
+        byPortfolio.forEach(this::applyEvents);
+    }
+
+    private void applyEvents(Long portfolioId, List<OrderEvent> events) {
+        PortfolioLedger ledger = ledgerRepository.findForUpdate(portfolioId).orElse(null);
+        if (ledger == null) {
+            // First events we see for this portfolio: replaying history also covers them
+            rebuild(portfolioId);
+            return;
+        }
+
+        Map<String, PositionLedger> touched = new HashMap<>();
+        long cash = ledger.getCashBalance().ticks();
+        long realizedTotal = ledger.getRealizedPnl().ticks();
+        long lastEventId = ledger.getLastEventId();
+        int applied = 0;
+        for (OrderEvent event : events) {
+            if (event.getId() <= lastEventId) {
+                continue;
+            }
+            long notional = Money.valueTicks(event.getQuantity().units(), event.getPrice().ticks());
+            PositionLedger position = touched.computeIfAbsent(event.getSymbol(), symbol ->
+                    positionRepository.findByPortfolioIdAndSymbol(portfolioId, symbol)
+                            .orElseGet(() -> new PositionLedger(portfolioId, symbol)));
+            realizedTotal += position.apply(event.getType(), event.getQuantity(), event.getPrice()).ticks();
+            cash += event.getType() == OrderType.SELL ? notional : -notional;
+            lastEventId = event.getId();
+            applied++;
+        }
+        if (applied == 0) {
+            return;
+        }
+        positionRepository.saveAll(touched.values());
+
+        ledger.setCashBalance(Money.ofTicks(cash));
+        ledger.setRealizedPnl(Money.ofTicks(realizedTotal));
+        ledger.setOrderCount(ledger.getOrderCount() + applied);
+        ledger.setLastEventId(lastEventId);
+        ledger.setUpdatedAt(LocalDateTime.now());
+        ledgerRepository.save(ledger);
+    }
+
+    @Transactional
+    public void openLedger(Long portfolioId) {
+        if (!ledgerRepository.existsById(portfolioId)) {
+            ledgerRepository.save(new PortfolioLedger(portfolioId));
+        }
+    }
+
+    @Transactional
+    public PortfolioLedger getLedger(Long portfolioId) {
+        return ledgerRepository.findById(portfolioId).orElseGet(() -> {
+            rebuild(portfolioId);
+            return ledgerRepository.findById(portfolioId).orElseThrow();
+        });
+    }
+
+    public Money getProfitLoss(Long portfolioId) {
+        return getLedger(portfolioId).getCashBalance();
+    }
+
+    // Replays every order of the portfolio and overwrites the ledger if it drifted.
+    // Returns true when something had to be repaired.
+    @Transactional
+    public boolean rebuild(Long portfolioId) {
+        return replay(portfolioId, true);
+    }
+
+    // Backdated orders (imports, /batch with orderTime) reach applyEvents in arrival order,
+    // but the ledger is defined by the replay's time order, and average-cost P&L depends on
+    // it. Callers that insert them replay the history once they're done; that is expected,
+    // so it isn't reported as drift.
+    @Transactional
+    public void replayBackdated(Long portfolioId) {
+        replay(portfolioId, false);
+    }
+
+    private boolean replay(Long portfolioId, boolean reportDrift) {
+        // Holding the portfolio lock keeps new orders (and their events) out until we're done,
+        // so the replay covers exactly the events up to lastEventId
+        jdbcTemplate.queryForList(LOCK_PORTFOLIO_SQL, Long.class, portfolioId);
+        long lastEventId = jdbcTemplate.queryForObject(LAST_EVENT_SQL, Long.class, portfolioId);
+        PortfolioLedger stored = ledgerRepository.findForUpdate(portfolioId).orElse(null);
+        PortfolioLedger replayed = new PortfolioLedger(portfolioId);
+        Map<String, PositionLedger> positions = new HashMap<>();
+
+        jdbcTemplate.query(REPLAY_SQL,
+                rs -> {
+                    String symbol = rs.getString(1);
+                    OrderType type = OrderType.valueOf(rs.getString(2));
+                    Quantity quantity = Quantity.of(rs.getBigDecimal(3));
+                    Money price = Money.of(rs.getBigDecimal(4));
+                    Money notional = Money.valueOf(quantity, price);
+
+                    Money realized = positions.computeIfAbsent(symbol, s -> new PositionLedger(portfolioId, s))
+                            .apply(type, quantity, price);
+                    replayed.setCashBalance(type == OrderType.SELL
+                            ? replayed.getCashBalance().plus(notional)
+                            : replayed.getCashBalance().minus(notional));
+                    replayed.setRealizedPnl(replayed.getRealizedPnl().plus(realized));
+                    replayed.setOrderCount(replayed.getOrderCount() + 1);
+                },
+                portfolioId, portfolioId, portfolioId);
+
+        // A ledger that is only missing events still in the outbox is behind, not drifted
+        boolean behind = stored != null && stored.getLastEventId() < lastEventId;
+        if (stored != null && !behind && matches(stored, replayed) && positionsMatch(portfolioId, positions)) {
+            return false;
+        }
+        if (stored != null && !behind && reportDrift) {
+            log.warn("Ledger drift for portfolio {}: stored cash={} orders={}, replayed cash={} orders={}",
+                    portfolioId, stored.getCashBalance(), stored.getOrderCount(),
+                    replayed.getCashBalance(), replayed.getOrderCount());
+        }
+
+        PortfolioLedger target = stored != null ? stored : replayed;
+        target.setCashBalance(replayed.getCashBalance());
+        target.setRealizedPnl(replayed.getRealizedPnl());
+        target.setOrderCount(replayed.getOrderCount());
+        // Dispatched events may have been purged, so never move the mark backwards
+        target.setLastEventId(Math.max(lastEventId, stored != null ? stored.getLastEventId() : 0L));
+        target.setUpdatedAt(LocalDateTime.now());
+        ledgerRepository.save(target);
+
+        positionRepository.deleteByPortfolioId(portfolioId);
+        positionRepository.saveAll(positions.values());
+        return stored != null && !behind && reportDrift;
+    }
+
+    // Verifies every portfolio in its own transaction so one bad ledger doesn't roll back the rest
+    @Scheduled(cron = "${ledger.verify.cron:0 30 2 * * *}")
+    public LedgerRebuildReport verifyAll() {
+        long start = System.currentTimeMillis();
+        List<Long> portfolioIds = jdbcTemplate.queryForList("SELECT id FROM portfolios", Long.class);
+        int repaired = 0;
+        for (Long portfolioId : portfolioIds) {
+            Boolean drifted = transactionTemplate.execute(status -> rebuild(portfolioId));
+            if (Boolean.TRUE.equals(drifted)) {
+                repaired++;
+            }
+        }
+        LedgerRebuildReport report = new LedgerRebuildReport(portfolioIds.size(), repaired,
+                System.currentTimeMillis() - start);
+        log.info("Ledger verification: {} portfolios checked, {} repaired in {} ms",
+                report.getPortfoliosChecked(), report.getPortfoliosRepaired(), report.getDurationMs());
+        return report;
+    }
+
+    // Exact comparisons: both sides are the same fixed-point arithmetic over the same fills
+    private boolean matches(PortfolioLedger stored, PortfolioLedger replayed) {
+        return Objects.equals(stored.getOrderCount(), replayed.getOrderCount())
+                && Objects.equals(stored.getCashBalance(), replayed.getCashBalance())
+                && Objects.equals(stored.getRealizedPnl(), replayed.getRealizedPnl());
+    }
+
+    private boolean positionsMatch(Long portfolioId, Map<String, PositionLedger> replayed) {
+        List<PositionLedger> stored = positionRepository.findByPortfolioId(portfolioId);
+        if (stored.size() != replayed.size()) {
+            return false;
+        }
+        for (PositionLedger position : stored) {
+            PositionLedger expected = replayed.get(position.getSymbol());
+            if (expected == null
+                    || !Objects.equals(position.getQuantity(), expected.getQuantity())
+                    || !Objects.equals(position.getCostBasis(), expected.getCostBasis())
+                    || !Objects.equals(position.getRealizedPnl(), expected.getRealizedPnl())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.dto.OrderHistoryFilter;
+import TradeShift.Project.dto.OrderPage;
+import TradeShift.Project.repository.OrderHistoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class OrderHistoryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private OrderHistoryRepository orderHistoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    // One page of history, newest first. The cursor is opaque to clients: pass back the
+    // nextCursor of the previous page to continue.
+    @Transactional(readOnly = true)
+    public OrderPage getOrderPage(Long portfolioId, OrderHistoryFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterTime = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = decodeCursor(cursor);
+            afterTime = LocalDateTime.parse(key[0]);
+            afterId = Long.valueOf(key[1]);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<OrderDTO> rows = orderHistoryRepository.findPage(portfolioId, filter, afterTime, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderDTO> page = rows.subList(0, pageSize);
+        OrderDTO last = page.get(pageSize - 1);
+        return new OrderPage(List.copyOf(page), encodeCursor(last.getOrderTime(), last.getId()));
+    }
+
+    // Writes the filtered history as NDJSON (one order per line) straight from the result
+    // set, so memory use does not grow with the size of the history
+    @Transactional(readOnly = true)
+    public long exportOrders(Long portfolioId, OrderHistoryFilter filter, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(OrderDTO.class);
+        long written = 0;
+        try (Stream<OrderDTO> orders = orderHistoryRepository.stream(portfolioId, filter, exportFetchSize)) {
+            Iterator<OrderDTO> it = orders.iterator();
+            while (it.hasNext()) {
+                out.write(writer.writeValueAsBytes(it.next()));
+                out.write('\n');
+                written++;
+            }
+        }
+        out.flush();
+        return written;
+    }
+
+    private static String encodeCursor(LocalDateTime orderTime, Long id) {
+        String key = orderTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderImportReport;
+import TradeShift.Project.dto.OrderRequestDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Replays a broker's trade history from a CSV or NDJSON upload. The body is read one line
+// at a time, so memory stays flat however large the file is. Valid rows are committed in
+// chunks through OrderService.placeOrders: one portfolio lock, JDBC batch inserts and one
+// holdings/ledger/total update per chunk. Invalid rows are skipped and reported. A chunk
+// that can't be applied (e.g. sells more than is held) is rolled back and stops the import;
+// every earlier chunk stays committed. Rows with an order time are backdated, so the ledger
+// is replayed from the history once the import ends. Each chunk runs on the portfolio's
+// write stripe, so chunks are kept small: the other portfolios on that stripe get their
+// turn between them. A chunk turned away by a full stripe queue waits and is retried.
+@Service
+public class OrderImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Logger log = LoggerFactory.getLogger(OrderImportService.class);
+
+    private static final long RETRY_INITIAL_MS = 50;
+    private static final long RETRY_MAX_MS = 2000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioWrites portfolioWrites;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${orders.import.max-errors:100}")
+    private int maxErrors;
+
+    // Progress of the import running for each portfolio; one at a time per portfolio
+    private final Map<Long, OrderImportReport> running = new ConcurrentHashMap<>();
+
+    public OrderImportReport importOrders(Long portfolioId, InputStream in, Format format) throws IOException {
+        ImportJob job = new ImportJob(portfolioId);
+        if (running.putIfAbsent(portfolioId, job.report(false)) != null) {
+            throw new RuntimeException("An import is already running for portfolio " + portfolioId);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            RowParser parser = format == Format.CSV ? csvParser(reader.readLine()) : ndjsonParser();
+            long lineNumber = format == Format.CSV ? 1 : 0;
+            List<OrderRequestDTO> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while (job.failure == null && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.rowsRead++;
+                try {
+                    OrderRequestDTO row = parser.parse(line);
+                    OrderService.validate(row.getSymbol(), OrderService.parseType(row.getType()),
+                            row.getQuantity(), row.getPrice());
+                    chunk.add(row);
+                } catch (JsonProcessingException e) {
+                    job.reject(lineNumber, e.getOriginalMessage());
+                } catch (RuntimeException | IOException e) {
+                    job.reject(lineNumber, e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    commit(job, chunk, lineNumber);
+                }
+            }
+            if (job.failure == null && !chunk.isEmpty()) {
+                commit(job, chunk, lineNumber);
+            }
+        } finally {
+            try {
+                // Once for the whole import; committed chunks count even if it stopped early
+                if (job.backdated) {
+                    ledgerService.replayBackdated(portfolioId);
+                }
+            } finally {
+                running.remove(portfolioId);
+            }
+        }
+
+        OrderImportReport report = job.report(true);
+        log.info("Order import for portfolio {}: {} rows, {} orders imported, {} rejected in {} ms ({} orders/s){}",
+                portfolioId, report.getRowsRead(), report.getOrdersImported(), report.getRowsRejected(),
+                report.getDurationMs(), String.format("%.0f", report.getOrdersPerSecond()),
+                report.getFailure() != null ? ", stopped: " + report.getFailure() : "");
+        return report;
+    }
+
+    // Null when no import is running for the portfolio
+    public OrderImportReport getProgress(Long portfolioId) {
+        return running.get(portfolioId);
+    }
+
+    private void commit(ImportJob job, List<OrderRequestDTO> chunk, long lastLine) {
+        try {
+            placeOnStripe(job, chunk);
+            job.backdated |= chunk.stream().anyMatch(row -> row.getOrderTime() != null);
+            job.imported += chunk.size();
+            job.chunks++;
+        } catch (RuntimeException e) {
+            job.failure = "chunk ending at line " + lastLine + " was rolled back: " + e.getMessage();
+        }
+        chunk.clear();
+        running.put(job.portfolioId, job.report(false));
+        log.debug("Order import for portfolio {}: {} orders in {} chunks", job.portfolioId, job.imported, job.chunks);
+    }
+
+    // A full stripe queue is back-pressure from live writes, not a reason to stop the import
+    private void placeOnStripe(ImportJob job, List<OrderRequestDTO> chunk) {
+        long backoffMs = RETRY_INITIAL_MS;
+        while (true) {
+            try {
+                portfolioWrites.execute(job.portfolioId, () -> orderService.placeOrders(job.portfolioId, chunk, false));
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug("Order import for portfolio {}: write stripe full, retrying in {} ms", job.portfolioId, backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted while waiting for the write stripe");
+                }
+                backoffMs = Math.min(backoffMs * 2, RETRY_MAX_MS);
+            }
+        }
+    }
+
+    private interface RowParser {
+        OrderRequestDTO parse(String line) throws IOException;
+    }
+
+    private RowParser ndjsonParser() {
+        ObjectReader reader = objectMapper.readerFor(OrderRequestDTO.class);
+        return reader::readValue;
+    }
+
+    // Header names the columns: symbol, type, quantity, price and optionally orderTime (ISO)
+    private static RowParser csvParser(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV import is empty; expected a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = fields(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        for (String required : List.of("symbol", "type", "quantity", "price")) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("CSV header is missing the " + required + " column");
+            }
+        }
+        int symbol = columns.get("symbol");
+        int type = columns.get("type");
+        int quantity = columns.get("quantity");
+        int price = columns.get("price");
+        int orderTime = columns.getOrDefault("ordertime", -1);
+        return line -> {
+            List<String> fields = fields(line);
+            if (fields.size() < names.size()) {
+                throw new RuntimeException("expected " + names.size() + " columns, found " + fields.size());
+            }
+            String time = orderTime >= 0 ? fields.get(orderTime) : "";
+            return new OrderRequestDTO(fields.get(symbol), fields.get(type).toUpperCase(Locale.ROOT),
+                    number(fields.get(quantity)), number(fields.get(price)),
+                    time.isEmpty() ? null : LocalDateTime.parse(time));
+        };
+    }
+
+    // Splits one CSV record (RFC 4180): fields may be quoted, a quoted field may contain
+    // commas and "" for a quote. Values are trimmed. A record spanning lines is rejected.
+    static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            while (i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new RuntimeException("unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < line.length() && line.charAt(i) != ',') {
+                    if (line.charAt(i++) != ' ') {
+                        throw new RuntimeException("unexpected text after a quoted field");
+                    }
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString().trim());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++; // the comma
+        }
+    }
+
+    private static Double number(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("not a number: " + value);
+        }
+    }
+
+    // Counters are only touched by the uploading thread; readers get report() snapshots
+    private class ImportJob {
+        final Long portfolioId;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long start = System.nanoTime();
+        final List<String> errors = new ArrayList<>();
+        long rowsRead;
+        long imported;
+        long rejected;
+        int chunks;
+        boolean backdated;
+        String failure;
+
+        ImportJob(Long portfolioId) {
+            this.portfolioId = portfolioId;
+        }
+
+        void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        OrderImportReport report(boolean finished) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            double throughput = durationMs > 0 ? imported * 1000.0 / durationMs : imported;
+            return new OrderImportReport(startedAt, rowsRead, imported, rejected, chunks, durationMs,
+                    throughput, finished, failure, List.copyOf(errors));
+        }
+    }
+}
@@ -1,15 +1,38 @@
 package TradeShift.Project.services;
 
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.dto.OrderRequestDTO;
+import TradeShift.Project.entity.Asset;
 import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderEvent;
 import TradeShift.Project.entity.Portfolio;
 import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Trade;
+import TradeShift.Project.events.PortfolioChangedEvent;
+import TradeShift.Project.matching.Fill;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.outbox.OrderEventOutbox;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.OrderBatchWriter;
 import TradeShift.Project.repository.OrderRepository;
 import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.TradeRepository;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 public class OrderService {
@@ -20,10 +43,276 @@ public class OrderService {
     @Autowired
     private PortfolioRepository portfolioRepository;
 
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private RecentOrders recentOrders;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Records the order and fills it against the portfolio's holdings in one transaction.
+    // The portfolio row stays locked until commit, so concurrent fills can't lose updates.
+    // Ledger and notifications follow from the outbox event written alongside the order.
+    @Transactional
     public Order placeOrder(Long portfolioId, String symbol, OrderType type, Double quantity, Double price) {
-        Portfolio portfolio = portfolioRepository.findById(portfolioId)
+        validate(symbol, type, quantity, price);
+        Quantity shares = Quantity.of(quantity);
+        Money limit = Money.of(price);
+        Portfolio portfolio = lockPortfolio(portfolioId);
+
+        List<Asset> holdings = new ArrayList<>(assetRepository.findByPortfolioIdAndSymbol(portfolioId, symbol));
+        applyFill(portfolio, holdings, symbol, type, shares, limit);
+
+        Order saved = orderRepository.save(newOrder(portfolio, symbol, type, shares, limit));
+        orderEventOutbox.append(List.of(OrderEvent.placed(saved)));
+        recentOrders.recorded(List.of(saved));
+        refreshTotalValue(portfolio);
+        return saved;
+    }
+
+    // All-or-nothing batch: one lock, one transaction, JDBC batch inserts for the orders
+    @Transactional
+    public List<Order> placeOrders(Long portfolioId, List<OrderRequestDTO> requests) {
+        return placeOrders(portfolioId, requests, true);
+    }
+
+    // replayLedger false leaves the ledger replay after backdated orders to the caller, for
+    // imports that commit many chunks and replay once at the end
+    @Transactional
+    public List<Order> placeOrders(Long portfolioId, List<OrderRequestDTO> requests, boolean replayLedger) {
+        Portfolio portfolio = lockPortfolio(portfolioId);
+
+        Map<String, List<Asset>> holdings = new HashMap<>();
+        for (Asset asset : assetRepository.findByPortfolioId(portfolioId)) {
+            holdings.computeIfAbsent(asset.getSymbol(), symbol -> new ArrayList<>()).add(asset);
+        }
+
+        List<Order> orders = new ArrayList<>(requests.size());
+        boolean backdated = false;
+        for (OrderRequestDTO request : requests) {
+            OrderType type = parseType(request.getType());
+            validate(request.getSymbol(), type, request.getQuantity(), request.getPrice());
+            Quantity shares = Quantity.of(request.getQuantity());
+            Money limit = Money.of(request.getPrice());
+            applyFill(portfolio, holdings.computeIfAbsent(request.getSymbol(), symbol -> new ArrayList<>()),
+                    request.getSymbol(), type, shares, limit);
+            Order order = newOrder(portfolio, request.getSymbol(), type, shares, limit);
+            if (request.getOrderTime() != null) {
+                order.setOrderTime(request.getOrderTime());
+                backdated = true;
+            }
+            orders.add(order);
+        }
+
+        orderBatchWriter.insertAll(orders);
+        List<OrderEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(OrderEvent.placed(order));
+        }
+        orderEventOutbox.append(events);
+        if (backdated) {
+            recentOrders.backdated(portfolioId);
+            if (replayLedger) {
+                ledgerService.replayBackdated(portfolioId);
+            }
+        } else {
+            recentOrders.recorded(orders);
+        }
+        refreshTotalValue(portfolio);
+        return orders;
+    }
+
+    // Records a limit order as OPEN for the matching engine. A SELL takes its quantity out of
+    // the holdings right away, so the same shares can't be sold again while it rests; a
+    // cancellation gives back whatever is still unfilled.
+    @Transactional
+    public Order placeLimitOrder(Long portfolioId, String symbol, OrderType type, Double quantity, Double price) {
+        validate(symbol, type, quantity, price);
+        Quantity shares = Quantity.of(quantity);
+        Money limit = Money.of(price);
+        Portfolio portfolio = lockPortfolio(portfolioId);
+        if (type == OrderType.SELL) {
+            List<Asset> holdings = new ArrayList<>(assetRepository.findByPortfolioIdAndSymbol(portfolioId, symbol));
+            applyFill(portfolio, holdings, symbol, type, shares, limit);
+            refreshTotalValue(portfolio);
+        } else {
+            // Holdings are untouched until a fill, but the portfolio's orders changed
+            eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+        }
+
+        Order order = newOrder(portfolio, symbol, type, shares, limit);
+        order.setStatus(Order.STATUS_OPEN);
+        order.setFilledQuantity(Quantity.ZERO);
+        Order saved = orderRepository.save(order);
+        recentOrders.recorded(List.of(saved));
+        return saved;
+    }
+
+    // An OPEN or PARTIALLY_FILLED order of the portfolio, for the engine to cancel
+    @Transactional
+    public Order getRestingOrder(Long portfolioId, Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .filter(found -> found.getPortfolio() != null && portfolioId.equals(found.getPortfolio().getId()))
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (!Order.STATUS_OPEN.equals(order.getStatus()) && !Order.STATUS_PARTIALLY_FILLED.equals(order.getStatus())) {
+            throw new RuntimeException("Order is not open: " + order.getStatus());
+        }
+        return order;
+    }
+
+    // Persists a batch of matching-engine fills: the trades, each order's progress, the
+    // buyer's holdings and an outbox event per side for the ledgers, all in one transaction.
+    // Cancelled entries close their order and return a SELL's unfilled shares to the holdings.
+    @Transactional
+    public void recordFills(List<Fill> fills) {
+        Set<Long> orderIds = new HashSet<>();
+        for (Fill fill : fills) {
+            orderIds.add(fill.makerOrderId());
+            orderIds.add(fill.takerOrderId());
+        }
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            orders.put(order.getId(), order);
+        }
+
+        // Lock every touched portfolio in id order so we can't deadlock with other writers
+        TreeMap<Long, Portfolio> portfolios = new TreeMap<>();
+        for (Order order : orders.values()) {
+            portfolios.put(order.getPortfolio().getId(), order.getPortfolio());
+        }
+        for (Map.Entry<Long, Portfolio> entry : portfolios.entrySet()) {
+            entry.setValue(lockPortfolio(entry.getKey()));
+        }
+
+        Map<String, List<Asset>> holdings = new HashMap<>();
+        List<OrderEvent> events = new ArrayList<>(fills.size() * 2);
+        for (Fill fill : fills) {
+            if (fill.cancelled()) {
+                Order order = orders.get(fill.takerOrderId());
+                Portfolio owner = portfolios.get(order.getPortfolio().getId());
+                Quantity unfilled = order.getQuantity().minus(
+                        order.getFilledQuantity() != null ? order.getFilledQuantity() : Quantity.ZERO);
+                order.setStatus(Order.STATUS_CANCELLED);
+                if (order.getType() == OrderType.SELL && unfilled.signum() > 0) {
+                    List<Asset> ownerHoldings = holdings.computeIfAbsent(owner.getId() + ":" + fill.symbol(),
+                            key -> new ArrayList<>(assetRepository.findByPortfolioIdAndSymbol(owner.getId(), fill.symbol())));
+                    applyFill(owner, ownerHoldings, fill.symbol(), OrderType.BUY, unfilled, order.getPrice());
+                }
+                continue;
+            }
+            Order buy = orders.get(fill.buyOrderId());
+            Order sell = orders.get(fill.sellOrderId());
+            // Engine units and ticks are the Quantity and Money scales, so nothing is rounded
+            Quantity shares = Quantity.ofUnits(fill.quantityUnits());
+            Money price = Money.ofTicks(fill.priceTicks());
+            Trade trade = tradeRepository.save(new Trade(fill.symbol(), price, shares, buy.getId(), sell.getId()));
+            advance(buy, shares);
+            advance(sell, shares);
+
+            Portfolio buyer = portfolios.get(buy.getPortfolio().getId());
+            Portfolio seller = portfolios.get(sell.getPortfolio().getId());
+            List<Asset> buyerHoldings = holdings.computeIfAbsent(buyer.getId() + ":" + fill.symbol(),
+                    key -> new ArrayList<>(assetRepository.findByPortfolioIdAndSymbol(buyer.getId(), fill.symbol())));
+            applyFill(buyer, buyerHoldings, fill.symbol(), OrderType.BUY, shares, price);
+
+            events.add(OrderEvent.executed(trade, buyer.getId(), OrderType.BUY, shares, price));
+            events.add(OrderEvent.executed(trade, seller.getId(), OrderType.SELL, shares, price));
+        }
+
+        orderEventOutbox.append(events);
+        recentOrders.updated(new ArrayList<>(orders.values()));
+        portfolios.values().forEach(this::refreshTotalValue);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersByPortfolio(Long portfolioId) {
+        return orderRepository.findDtosByPortfolioId(portfolioId);
+    }
+
+    // Latest orders across all portfolios, or for one portfolio when an id is given; served
+    // from memory, so no transaction (or connection) is opened here
+    public List<OrderDTO> getRecentOrders(Long portfolioId, int limit) {
+        return recentOrders.get(portfolioId, limit);
+    }
+
+    private Portfolio lockPortfolio(Long portfolioId) {
+        return portfolioRepository.findForUpdate(portfolioId)
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
+    }
+
+    // BUY adds to the first matching asset row (or creates one); SELL drains rows in order
+    private void applyFill(Portfolio portfolio, List<Asset> rows, String symbol,
+                           OrderType type, Quantity quantity, Money price) {
+        if (type == OrderType.BUY) {
+            if (rows.isEmpty()) {
+                Asset asset = new Asset();
+                asset.setSymbol(symbol);
+                asset.setQuantity(quantity);
+                asset.setPrice(price);
+                asset.setPortfolio(portfolio);
+                rows.add(assetRepository.save(asset));
+            } else {
+                Asset asset = rows.get(0);
+                asset.setQuantity(asset.getQuantity().plus(quantity));
+            }
+            return;
+        }
+
+        long held = 0;
+        for (Asset asset : rows) {
+            held += asset.getQuantity() != null ? asset.getQuantity().units() : 0;
+        }
+        if (held < quantity.units()) {
+            throw new RuntimeException("Insufficient quantity of " + symbol + ": holding "
+                    + Quantity.ofUnits(held) + ", selling " + quantity);
+        }
+
+        Quantity remaining = quantity;
+        Iterator<Asset> iterator = rows.iterator();
+        while (remaining.signum() > 0 && iterator.hasNext()) {
+            Asset asset = iterator.next();
+            Quantity current = asset.getQuantity() != null ? asset.getQuantity() : Quantity.ZERO;
+            Quantity taken = current.min(remaining);
+            asset.setQuantity(current.minus(taken));
+            remaining = remaining.minus(taken);
+            if (asset.getQuantity().signum() <= 0) {
+                if (Hibernate.isInitialized(portfolio.getAssets()) && portfolio.getAssets() != null) {
+                    portfolio.getAssets().remove(asset);
+                }
+                assetRepository.delete(asset);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void advance(Order order, Quantity quantity) {
+        Quantity filled = (order.getFilledQuantity() != null ? order.getFilledQuantity() : Quantity.ZERO).plus(quantity);
+        order.setFilledQuantity(filled);
+        order.setStatus(filled.compareTo(order.getQuantity()) >= 0
+                ? Order.STATUS_FILLED : Order.STATUS_PARTIALLY_FILLED);
+    }
 
+    // Every path that changes holdings ends here; live streams pick the change up after commit
+    private void refreshTotalValue(Portfolio portfolio) {
+        portfolio.setTotalValue(Money.of(assetRepository.sumValueByPortfolioId(portfolio.getId())));
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolio.getId()));
+    }
+
+    private static Order newOrder(Portfolio portfolio, String symbol, OrderType type, Quantity quantity, Money price) {
         Order order = new Order();
         order.setPortfolio(portfolio);
         order.setSymbol(symbol);
@@ -31,12 +320,30 @@ public class OrderService {
         order.setQuantity(quantity);
         order.setPrice(price);
         order.setStatus("Completed");
+        return order;
+    }
 
-        // Logic for updating assets can be added here, now just order save.
-        return orderRepository.save(order);
+    static OrderType parseType(String type) {
+        try {
+            return OrderType.valueOf(type);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Invalid order type: " + type);
+        }
     }
 
-    public List<Order> getOrdersByPortfolio(Long portfolioId) {
-        return orderRepository.findByPortfolioId(portfolioId);
+    static void validate(String symbol, OrderType type, Double quantity, Double price) {
+        if (symbol == null || symbol.isBlank()) {
+            throw new RuntimeException("Symbol is required");
+        }
+        if (type == null) {
+            throw new RuntimeException("Order type is required");
+        }
+        // Values are stored rounded; anything that rounds to zero counts as zero
+        if (quantity == null || quantity <= 0 || Quantity.of(quantity).signum() <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        if (price == null || price <= 0 || Money.of(price).signum() <= 0) {
+            throw new RuntimeException("Price must be positive");
+        }
     }
 }
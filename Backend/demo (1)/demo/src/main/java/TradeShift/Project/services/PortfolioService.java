@@ -1,43 +1,72 @@
 package TradeShift.Project.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import TradeShift.Project.dto.AssetDTO;
+import TradeShift.Project.dto.PortfolioDTO;
 import TradeShift.Project.entity.*;
 import TradeShift.Project.repository.*;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class PortfolioService {
 
+    // Summed and written in one statement, so a concurrent write can't be overwritten by a
+    // total read before it; same per-row rounding as QuoteRefreshService's recompute
+    private static final String UPDATE_TOTAL_VALUE_SQL =
+            "UPDATE portfolios SET total_value = (SELECT COALESCE(SUM(ROUND(quantity * price, 4)), 0) " +
+            "FROM assets WHERE portfolio_id = ?) WHERE id = ?";
+
     @Autowired
     private PortfolioRepository portfolioRepo;
 
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private RecentOrders recentOrders;
+
     public Portfolio createPortfolio(String username, Portfolio portfolio) {
         User user = userRepo.findByUsername(username).orElseThrow();
         portfolio.setUser(user);
-        return portfolioRepo.save(portfolio);
+        Portfolio saved = portfolioRepo.save(portfolio);
+        ledgerService.openLedger(saved.getId());
+        recentOrders.portfolioCreated(saved.getId());
+        return saved;
     }
 
-    public List<Portfolio> getUserPortfolios(String username) {
-        User user = userRepo.findByUsername(username).orElseThrow();
-        return portfolioRepo.findByUserId(user.getId());
+    @Transactional(readOnly = true)
+    public List<PortfolioDTO> getUserPortfolios(String username) {
+        List<PortfolioDTO> result = new ArrayList<>();
+        for (Portfolio portfolio : portfolioRepo.findWithAssetsByUsername(username)) {
+            List<AssetDTO> assets = new ArrayList<>();
+            if (portfolio.getAssets() != null) {
+                for (Asset asset : portfolio.getAssets()) {
+                    assets.add(new AssetDTO(asset.getId(), asset.getSymbol(), asset.getQuantity(), asset.getPrice()));
+                }
+            }
+            result.add(new PortfolioDTO(portfolio.getId(), portfolio.getName(), portfolio.getTotalValue(), assets));
+        }
+        return result;
+    }
+
+    public List<Long> getUserPortfolioIds(String username) {
+        return portfolioRepo.findIdsByUsername(username);
     }
 
     // New method to calculate total portfolio value and update it
-    public Portfolio calculateAndUpdatePortfolioValue(Long portfolioId) {
-        Portfolio portfolio = portfolioRepo.findById(portfolioId).orElseThrow();
-        double totalValue = 0.0;
-        if (portfolio.getAssets() != null) {
-            for (Asset asset : portfolio.getAssets()) {
-                double assetValue = (asset.getQuantity() != null ? asset.getQuantity() : 0) *
-                        (asset.getPrice() != null ? asset.getPrice() : 0);
-                totalValue += assetValue;
-            }
+    public void calculateAndUpdatePortfolioValue(Long portfolioId) {
+        if (jdbcTemplate.update(UPDATE_TOTAL_VALUE_SQL, portfolioId, portfolioId) == 0) {
+            throw new RuntimeException("Portfolio not found");
         }
-        portfolio.setTotalValue(totalValue);
-        return portfolioRepo.save(portfolio);
     }
 }
@@ -0,0 +1,130 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.metrics.QueryCountInspector;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Serializes writes per portfolio: portfolio ids are spread over a fixed set of stripes,
+// each a single thread that runs its writes (transaction included) one after another.
+// Writes to one portfolio queue here in memory instead of holding a connection while
+// they wait on the portfolio row lock, so that lock is never contended within a node;
+// different portfolios land on different stripes and run in parallel. The row lock is
+// still taken, for other nodes and for matching-engine fills, which span portfolios.
+// A write mostly waits on the database, so the stripe count is fixed rather than tied to
+// the core count: with few stripes, unrelated portfolios would queue behind each other.
+@Component
+public class PortfolioWrites {
+
+    // Stripe of the current thread, -1 off the stripes
+    private static final ThreadLocal<Integer> STRIPE = ThreadLocal.withInitial(() -> -1);
+
+    private final QueryCountInspector queryCountInspector;
+    private final ThreadPoolExecutor[] stripes;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong nested = new AtomicLong();
+
+    public PortfolioWrites(QueryCountInspector queryCountInspector,
+                           @Value("${portfolio.writes.stripes:64}") int stripeCount,
+                           @Value("${portfolio.writes.queue-capacity:1000}") int queueCapacity) {
+        this.queryCountInspector = queryCountInspector;
+        int count = Math.max(1, stripeCount);
+        this.stripes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(() -> {
+                            STRIPE.set(index);
+                            runnable.run();
+                        }, "portfolio-writes-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    // Runs the write on the portfolio's stripe and waits for it. Throws
+    // RejectedExecutionException when that stripe's queue is full.
+    public <T> T execute(Long portfolioId, Supplier<T> write) {
+        if (STRIPE.get() >= 0) {
+            // Already inside a write; queueing behind ourselves (or another busy stripe)
+            // could deadlock, so run here and leave the ordering to the row lock
+            nested.incrementAndGet();
+            return write.get();
+        }
+        Future<T> future;
+        try {
+            // The write's statements still count towards the request that made it
+            Supplier<T> task = queryCountInspector.carryOver(write);
+            future = stripes[stripeOf(portfolioId)].submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+        // Once queued the write will happen, so wait for its outcome even if interrupted
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    int stripeOf(Long portfolioId) {
+        // Ids are sequential, so a plain modulo spreads them evenly
+        return (int) Math.floorMod(portfolioId, (long) stripes.length);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long queued = 0;
+        long active = 0;
+        long completed = 0;
+        long maxQueued = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            int size = stripe.getQueue().size();
+            queued += size;
+            maxQueued = Math.max(maxQueued, size);
+            active += stripe.getActiveCount();
+            completed += stripe.getCompletedTaskCount();
+        }
+        stats.put("stripes", (long) stripes.length);
+        stats.put("active", active);
+        stats.put("queued", queued);
+        stats.put("maxQueuedOnOneStripe", maxQueued);
+        stats.put("completed", completed);
+        stats.put("nested", nested.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+}
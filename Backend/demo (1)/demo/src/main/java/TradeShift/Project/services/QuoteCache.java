@@ -0,0 +1,127 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Shared quote cache keyed by symbol. Entries live for a fixed TTL, the map is bounded,
+// and concurrent misses for the same symbol wait on a single upstream call.
+@Component
+public class QuoteCache {
+
+    private final long ttlMillis;
+
+    private final TtlCache<String, Double> quotes;
+    private final ConcurrentHashMap<String, CompletableFuture<Double>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+
+    public QuoteCache(@Value("${quotes.cache.ttl-ms:15000}") long ttlMillis,
+                      @Value("${quotes.cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.quotes = new TtlCache<>(maxSize);
+    }
+
+    // Returns the cached price, or loads it once for all concurrent callers of the same symbol.
+    // If the load fails and an expired price is still around, that price is served instead.
+    public Double get(String symbol, Function<String, Double> loader) {
+        String key = key(symbol);
+        TtlCache.Entry<Double> cached = quotes.getEntry(key);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            hits.incrementAndGet();
+            return cached.value();
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+        } else {
+            stale.incrementAndGet();
+        }
+
+        CompletableFuture<Double> mine = new CompletableFuture<>();
+        CompletableFuture<Double> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing, cached);
+        }
+
+        try {
+            // Another caller may have finished loading between our lookup and claiming the slot
+            Double latest = quotes.get(key);
+            if (latest != null) {
+                mine.complete(latest);
+                return latest;
+            }
+
+            loads.incrementAndGet();
+            Double price = loader.apply(symbol);
+            if (price != null) {
+                put(key, price);
+            }
+            mine.complete(price);
+            return price;
+        } catch (RuntimeException e) {
+            loadFailures.incrementAndGet();
+            mine.completeExceptionally(e);
+            if (cached != null) {
+                return cached.value();
+            }
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public void put(String symbol, double price) {
+        quotes.put(key(symbol), price, System.currentTimeMillis() + ttlMillis);
+    }
+
+    public void invalidate(String symbol) {
+        quotes.invalidate(key(symbol));
+    }
+
+    public int size() {
+        return quotes.size();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) quotes.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("stale", stale.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("loads", loads.get());
+        stats.put("loadFailures", loadFailures.get());
+        stats.put("evictions", quotes.evictions());
+        return stats;
+    }
+
+    private Double await(CompletableFuture<Double> pending, TtlCache.Entry<Double> fallback) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (fallback != null) {
+                return fallback.value();
+            }
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private static String key(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
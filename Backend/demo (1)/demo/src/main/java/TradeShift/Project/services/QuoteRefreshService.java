@@ -0,0 +1,322 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.QuoteRefreshReport;
+import TradeShift.Project.events.PricesChangedEvent;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.util.LongLongHashMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Periodically reprices every held symbol: quotes are fetched in parallel under a concurrency
+// cap and a requests-per-second budget, prices are written back with batched JDBC updates,
+// and the totals of the portfolios holding a changed symbol are adjusted by the deltas the
+// holdings index computes (or recomputed in bulk while the index is still loading). With
+// several nodes the totals are always recomputed from the rows: a node's index can lag a
+// peer's repricing, so a delta computed from it would count that peer's change again.
+@Service
+public class QuoteRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteRefreshService.class);
+
+    private static final String UPDATE_PRICE_SQL =
+            "UPDATE assets SET price = ? WHERE symbol = ? AND (price IS NULL OR price <> ?)";
+    private static final String AFFECTED_PORTFOLIOS_SQL =
+            "SELECT DISTINCT portfolio_id FROM assets WHERE symbol IN (:symbols) AND portfolio_id IS NOT NULL";
+    private static final String RECOMPUTE_TOTALS_SQL =
+            "UPDATE portfolios p SET total_value = (SELECT COALESCE(SUM(ROUND(a.quantity * a.price, 4)), 0) " +
+            "FROM assets a WHERE a.portfolio_id = p.id) WHERE p.id IN (:ids)";
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE portfolios SET total_value = COALESCE(total_value, 0) + ? WHERE id = ?";
+
+    private final AssetRepository assetRepository;
+    private final FinnhubClient finnhubClient;
+    private final QuoteCache quoteCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldingsIndex holdingsIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final boolean clustered;
+    private final int batchSize;
+    private final long nanosPerRequest;
+    private final Semaphore fetchPermits;
+    private final ExecutorService fetchExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong nextRequestSlot = new AtomicLong();
+    private volatile QuoteRefreshReport lastReport;
+
+    public QuoteRefreshService(AssetRepository assetRepository,
+                               FinnhubClient finnhubClient,
+                               QuoteCache quoteCache,
+                               JdbcTemplate jdbcTemplate,
+                               NamedParameterJdbcTemplate namedJdbcTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               HoldingsIndex holdingsIndex,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${quotes.refresh.enabled:true}") boolean enabled,
+                               @Value("${quotes.refresh.concurrency:8}") int concurrency,
+                               @Value("${quotes.refresh.max-requests-per-second:25}") int maxRequestsPerSecond,
+                               @Value("${quotes.refresh.batch-size:500}") int batchSize,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               @Value("${cluster.channel:}") String clusterChannel) {
+        this.assetRepository = assetRepository;
+        this.finnhubClient = finnhubClient;
+        this.quoteCache = quoteCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.holdingsIndex = holdingsIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.clustered = !clusterChannel.isBlank();
+        this.batchSize = batchSize;
+        this.nanosPerRequest = maxRequestsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxRequestsPerSecond : 0;
+        // The semaphore is the concurrency cap; virtual threads just make waiting on it cheap
+        this.fetchPermits = new Semaphore(concurrency);
+        this.fetchExecutor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(concurrency);
+    }
+
+    @Scheduled(fixedDelayString = "${quotes.refresh.interval-ms:60000}",
+               initialDelayString = "${quotes.refresh.initial-delay-ms:30000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refreshAll();
+        }
+    }
+
+    // Runs one repricing cycle; returns null if a cycle is already in progress
+    public QuoteRefreshReport refreshAll() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return runCycle();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public QuoteRefreshReport getLastReport() {
+        return lastReport;
+    }
+
+    private QuoteRefreshReport runCycle() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        List<String> symbols = assetRepository.findDistinctSymbols();
+        AtomicInteger failures = new AtomicInteger();
+
+        List<CompletableFuture<Object[]>> pending = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            pending.add(CompletableFuture.supplyAsync(() -> fetch(symbol, failures), fetchExecutor));
+        }
+
+        List<Object[]> updates = new ArrayList<>(symbols.size());
+        for (CompletableFuture<Object[]> future : pending) {
+            Object[] update = future.join();
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+
+        int[] portfoliosRepriced = {0};
+        List<String> changedSymbols = applyUpdates(updates, portfoliosRepriced);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        double throughput = durationMs > 0 ? symbols.size() * 1000.0 / durationMs : symbols.size();
+        QuoteRefreshReport report = new QuoteRefreshReport(startedAt, symbols.size(), updates.size(),
+                failures.get(), changedSymbols.size(), portfoliosRepriced[0], durationMs, throughput);
+        lastReport = report;
+
+        log.info("Quote refresh: {} symbols, {} fetched, {} failed, {} portfolios repriced in {} ms ({} symbols/s)",
+                report.getSymbols(), report.getQuotesFetched(), report.getFailures(),
+                report.getPortfoliosRepriced(), durationMs, String.format("%.1f", throughput));
+        return report;
+    }
+
+    // Returns {price, symbol, price} ready for UPDATE_PRICE_SQL, or null on failure
+    private Object[] fetch(String symbol, AtomicInteger failures) {
+        boolean acquired = false;
+        try {
+            fetchPermits.acquire();
+            acquired = true;
+            acquireRequestSlot();
+            Double price = finnhubClient.fetchQuote(symbol);
+            if (price == null || price <= 0) {
+                failures.incrementAndGet();
+                return null;
+            }
+            quoteCache.put(symbol, price);
+            return priceUpdate(symbol, price);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.incrementAndGet();
+            return null;
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.debug("Quote refresh failed for {}: {}", symbol, e.getMessage());
+            return null;
+        } finally {
+            if (acquired) {
+                fetchPermits.release();
+            }
+        }
+    }
+
+    // Spaces upstream calls evenly so a cycle never exceeds the requests-per-second budget
+    private void acquireRequestSlot() {
+        if (nanosPerRequest == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot = nextRequestSlot.getAndAccumulate(now,
+                (next, current) -> Math.max(next, current) + nanosPerRequest);
+        long wait = Math.max(slot, now) - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    // Writes new prices and reprices the affected portfolios; returns the number of portfolios repriced
+    public int applyPrices(Map<String, Double> prices) {
+        List<Object[]> updates = new ArrayList<>(prices.size());
+        prices.forEach((symbol, price) -> updates.add(priceUpdate(symbol, price)));
+        int[] portfoliosRepriced = {0};
+        applyUpdates(updates, portfoliosRepriced);
+        return portfoliosRepriced[0];
+    }
+
+    private List<String> applyUpdates(List<Object[]> updates, int[] portfoliosRepriced) {
+        List<String> changedSymbols = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                boolean incremental = !clustered && holdingsIndex.isReady();
+                if (incremental) {
+                    holdingsIndex.refresh();
+                }
+                changedSymbols.addAll(writePrices(updates));
+                portfoliosRepriced[0] = incremental
+                        ? applyPortfolioDeltas(pricesOf(updates, changedSymbols))
+                        : recomputePortfolioTotals(changedSymbols);
+            });
+        } catch (RuntimeException e) {
+            // The index already counted the new prices; make it re-read what actually committed
+            holdingsIndex.invalidate(changedSymbols);
+            throw e;
+        }
+        if (clustered) {
+            // Not repriced above; re-read the committed prices before the next allocation read
+            holdingsIndex.invalidate(changedSymbols);
+        }
+        if (!changedSymbols.isEmpty()) {
+            Map<String, Double> prices = new HashMap<>();
+            pricesOf(updates, changedSymbols).forEach((symbol, price) -> prices.put(symbol, price.doubleValue()));
+            eventPublisher.publishEvent(new PricesChangedEvent(prices));
+        }
+        return changedSymbols;
+    }
+
+    // Prices are bound as DECIMALs already rounded to money scale, so the index and the rows agree
+    private static Object[] priceUpdate(String symbol, double price) {
+        BigDecimal rounded = Money.of(price).toBigDecimal();
+        return new Object[]{rounded, symbol, rounded};
+    }
+
+    private List<String> writePrices(List<Object[]> updates) {
+        List<String> changed = new ArrayList<>();
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            List<Object[]> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, batch);
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO (-2) means the driver rewrote the batch; treat it as changed
+                if (counts[i] != 0) {
+                    changed.add((String) batch.get(i)[1]);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private Map<String, Money> pricesOf(List<Object[]> updates, List<String> changedSymbols) {
+        Set<String> changed = new HashSet<>(changedSymbols);
+        Map<String, Money> prices = new HashMap<>();
+        for (Object[] update : updates) {
+            if (changed.contains((String) update[1])) {
+                prices.put((String) update[1], Money.of((BigDecimal) update[0]));
+            }
+        }
+        return prices;
+    }
+
+    // Adds qty x price change to just the portfolios holding a repriced symbol
+    private int applyPortfolioDeltas(Map<String, Money> prices) {
+        LongLongHashMap deltas = holdingsIndex.reprice(prices);
+        List<Object[]> batch = new ArrayList<>(Math.min(deltas.size(), batchSize));
+        deltas.forEach((portfolioId, delta) -> {
+            batch.add(new Object[]{Money.ofTicks(delta).toBigDecimal(), portfolioId});
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batch);
+        }
+        return deltas.size();
+    }
+
+    private int recomputePortfolioTotals(List<String> changedSymbols) {
+        Set<Long> portfolioIds = new HashSet<>();
+        for (int from = 0; from < changedSymbols.size(); from += batchSize) {
+            List<String> chunk = changedSymbols.subList(from, Math.min(from + batchSize, changedSymbols.size()));
+            portfolioIds.addAll(namedJdbcTemplate.queryForList(AFFECTED_PORTFOLIOS_SQL,
+                    new MapSqlParameterSource("symbols", chunk), Long.class));
+        }
+
+        List<Long> ids = new ArrayList<>(portfolioIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            namedJdbcTemplate.update(RECOMPUTE_TOTALS_SQL, new MapSqlParameterSource("ids", chunk));
+        }
+        return ids.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,275 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.util.RecentRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Latest orders in memory, across all portfolios and per portfolio, so the dashboard's
+// "recent" reads don't query orders. Writes land after commit. A ring is loaded from the
+// (order_time, id) indexes the first time it's read (the global one at startup) and is
+// authoritative from then on. Until it's loaded, or for more than half a ring's rows (the
+// rest is headroom for writes racing the load), reads go to the database. Orders written
+// with a backdated time (imports) drop the affected rings, which reload on the next read.
+@Component
+public class RecentOrders {
+
+    // Same order as the repository queries
+    private static final Comparator<OrderDTO> NEWEST_FIRST = Comparator
+            .comparing(OrderDTO::getOrderTime, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(OrderDTO::getId, Comparator.reverseOrder());
+
+    private record Change(Long portfolioId, OrderDTO order) {
+    }
+
+    private static final class Recent {
+        final RecentRing<OrderDTO> ring;
+        volatile boolean loaded;
+
+        Recent(int capacity) {
+            this.ring = new RecentRing<>(capacity);
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final int capacity;
+    private final int portfolioCapacity;
+    private final int maxPortfolios;
+
+    private final AtomicReference<Recent> global = new AtomicReference<>();
+    private final Map<Long, Recent> byPortfolio = new ConcurrentHashMap<>();
+    private final Object txKey = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RecentOrders(OrderRepository orderRepository,
+                        @Value("${orders.recent.capacity:64}") int capacity,
+                        @Value("${orders.recent.portfolio-capacity:16}") int portfolioCapacity,
+                        @Value("${orders.recent.max-portfolios:50000}") int maxPortfolios) {
+        this.orderRepository = orderRepository;
+        this.capacity = capacity;
+        this.portfolioCapacity = portfolioCapacity;
+        this.maxPortfolios = maxPortfolios;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        load(null);
+    }
+
+    // Newest first, all portfolios when portfolioId is null
+    public List<OrderDTO> get(Long portfolioId, int limit) {
+        Recent recent = portfolioId == null ? global.get() : byPortfolio.get(portfolioId);
+        if (recent == null) {
+            recent = load(portfolioId);
+        }
+        if (recent == null || !recent.loaded || limit > recent.ring.capacity() / 2) {
+            misses.incrementAndGet();
+            return query(portfolioId, limit);
+        }
+        hits.incrementAndGet();
+
+        List<OrderDTO> orders = recent.ring.snapshot();
+        orders.sort(NEWEST_FIRST);
+        List<OrderDTO> result = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        for (OrderDTO order : orders) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (seen.add(order.getId())) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    // A new portfolio has no orders, so its empty ring is already complete
+    public void portfolioCreated(Long portfolioId) {
+        Recent recent = new Recent(portfolioCapacity);
+        recent.loaded = true;
+        if (byPortfolio.putIfAbsent(portfolioId, recent) == null) {
+            trim();
+        }
+    }
+
+    // New orders, as of commit
+    public void recorded(List<Order> orders) {
+        List<Change> added = toChanges(orders);
+        afterCommit(changes -> changes.added.addAll(added));
+    }
+
+    // Status or fill progress of orders that may still be in the rings, as of commit
+    public void updated(List<Order> orders) {
+        List<Change> updated = toChanges(orders);
+        afterCommit(changes -> changes.updated.addAll(updated));
+    }
+
+    // Orders written with their own (past) times: the rings may no longer hold the newest
+    // ones, so both are reloaded from the database on next read
+    public void backdated(Long portfolioId) {
+        afterCommit(changes -> changes.backdated.add(portfolioId));
+    }
+
+    // The portfolio's orders were written elsewhere (another node) and have committed: its
+    // ring and the global one are dropped and reload on next read
+    public void invalidate(Long portfolioId) {
+        global.set(null);
+        byPortfolio.remove(portfolioId);
+    }
+
+    // Drops every ring, e.g. after orders were written around OrderService
+    public void reset() {
+        global.set(null);
+        byPortfolio.clear();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("portfolios", (long) byPortfolio.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    private static final class Changes {
+        final List<Change> added = new ArrayList<>();
+        final List<Change> updated = new ArrayList<>();
+        final Set<Long> backdated = new HashSet<>();
+    }
+
+    private void afterCommit(Consumer<Changes> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes();
+            change.accept(changes);
+            apply(changes);
+            return;
+        }
+        Changes pending = (Changes) TransactionSynchronizationManager.getResource(txKey);
+        if (pending == null) {
+            Changes changes = new Changes();
+            TransactionSynchronizationManager.bindResource(txKey, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(txKey);
+                    if (status == STATUS_COMMITTED) {
+                        apply(changes);
+                    }
+                }
+            });
+            pending = changes;
+        }
+        change.accept(pending);
+    }
+
+    // Missing rings are left alone: they load everything committed so far when first read
+    private void apply(Changes changes) {
+        if (!changes.backdated.isEmpty()) {
+            global.set(null);
+            changes.backdated.forEach(byPortfolio::remove);
+        }
+        Recent all = global.get();
+        for (Change change : changes.added) {
+            if (all != null) {
+                all.ring.add(change.order());
+            }
+            Recent recent = change.portfolioId() != null ? byPortfolio.get(change.portfolioId()) : null;
+            if (recent != null) {
+                recent.ring.add(change.order());
+            }
+        }
+        for (Change change : changes.updated) {
+            Long id = change.order().getId();
+            if (all != null) {
+                all.ring.replace(held -> held.getId().equals(id), change.order());
+            }
+            Recent recent = change.portfolioId() != null ? byPortfolio.get(change.portfolioId()) : null;
+            if (recent != null) {
+                recent.ring.replace(held -> held.getId().equals(id), change.order());
+            }
+        }
+    }
+
+    // The ring is installed before the query, so an order committed meanwhile is either in
+    // the result or appended to the ring (possibly both; reads drop the duplicate). Only half
+    // a ring is loaded, which is all reads serve, so the rows added after such an order
+    // can't wrap it out.
+    private Recent load(Long portfolioId) {
+        Recent fresh = new Recent(portfolioId == null ? capacity : portfolioCapacity);
+        Recent recent = portfolioId == null
+                ? (global.compareAndSet(null, fresh) ? fresh : global.get())
+                : byPortfolio.putIfAbsent(portfolioId, fresh);
+        if (portfolioId != null && recent == null) {
+            recent = fresh;
+            trim();
+        }
+        if (recent != fresh) {
+            return recent;
+        }
+        try {
+            List<OrderDTO> latest = query(portfolioId, fresh.ring.capacity() / 2);
+            for (int i = latest.size() - 1; i >= 0; i--) {
+                fresh.ring.add(latest.get(i));
+            }
+            fresh.loaded = true;
+            return fresh;
+        } catch (RuntimeException e) {
+            if (portfolioId == null) {
+                global.compareAndSet(fresh, null);
+            } else {
+                byPortfolio.remove(portfolioId, fresh);
+            }
+            throw e;
+        }
+    }
+
+    // Index-backed fallback; runs on the primary so a lagging replica can't seed a ring
+    private List<OrderDTO> query(Long portfolioId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return portfolioId == null
+                ? orderRepository.findRecentDtos(page)
+                : orderRepository.findRecentDtosByPortfolioId(portfolioId, page);
+    }
+
+    // Bounded: past the limit an arbitrary portfolio's ring is dropped and reloaded if read again
+    private void trim() {
+        Iterator<Long> iterator = byPortfolio.keySet().iterator();
+        while (byPortfolio.size() > maxPortfolios && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static List<Change> toChanges(List<Order> orders) {
+        List<Change> changes = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Long portfolioId = order.getPortfolio() != null ? order.getPortfolio().getId() : null;
+            changes.add(new Change(portfolioId, new OrderDTO(order.getId(), order.getSymbol(),
+                    order.getType(), order.getQuantity(), order.getPrice(), order.getOrderTime(),
+                    order.getStatus(), order.getFilledQuantity())));
+        }
+        return changes;
+    }
+}
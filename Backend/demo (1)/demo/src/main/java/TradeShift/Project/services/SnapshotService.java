@@ -0,0 +1,255 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.entity.PortfolioSnapshot;
+import TradeShift.Project.entity.SnapshotResolution;
+import TradeShift.Project.repository.PortfolioSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+// Valuation history. Every interval the current total of every portfolio is copied into
+// portfolio_snapshots in id-range chunks of set-based INSERT ... SELECT, so a capture costs
+// a handful of statements however many portfolios there are. Minute points older than a
+// day are thinned to the last point of each hour, and hour points older than a month to
+// the last point of each day. Performance is then two indexed single-row lookups.
+@Service
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final String CAPTURE_SQL =
+            "INSERT INTO portfolio_snapshots (portfolio_id, resolution, taken_at, total_value) " +
+            "SELECT id, 'MINUTE', ?, COALESCE(total_value, 0) FROM portfolios WHERE id >= ? AND id < ?";
+    private static final String DOWNSAMPLE_SCAN_SQL =
+            "SELECT id, portfolio_id, taken_at FROM portfolio_snapshots " +
+            "WHERE resolution = ? AND taken_at < ? ORDER BY portfolio_id, taken_at, id";
+    private static final String PROMOTE_SQL =
+            "UPDATE portfolio_snapshots SET resolution = :resolution WHERE id IN (:ids)";
+    private static final String DELETE_SQL =
+            "DELETE FROM portfolio_snapshots WHERE id IN (:ids)";
+
+    // Supported /performance periods and how far back each one looks
+    private static final Map<String, UnaryOperator<LocalDateTime>> PERIODS = Map.of(
+            "1D", t -> t.minusDays(1),
+            "1W", t -> t.minusWeeks(1),
+            "1M", t -> t.minusMonths(1),
+            "1Y", t -> t.minusYears(1));
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int batchSize;
+    private final long minuteRetentionHours;
+    private final long hourRetentionDays;
+
+    private final AtomicBoolean capturing = new AtomicBoolean();
+    private final AtomicBoolean downsampling = new AtomicBoolean();
+
+    public SnapshotService(PortfolioSnapshotRepository snapshotRepository,
+                           JdbcTemplate jdbcTemplate,
+                           NamedParameterJdbcTemplate namedJdbcTemplate,
+                           @Value("${snapshots.enabled:true}") boolean enabled,
+                           @Value("${snapshots.chunk-size:5000}") int chunkSize,
+                           @Value("${snapshots.batch-size:500}") int batchSize,
+                           @Value("${snapshots.minute-retention-hours:24}") long minuteRetentionHours,
+                           @Value("${snapshots.hour-retention-days:30}") long hourRetentionDays) {
+        this.snapshotRepository = snapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.minuteRetentionHours = minuteRetentionHours;
+        this.hourRetentionDays = hourRetentionDays;
+    }
+
+    @Scheduled(fixedRateString = "${snapshots.interval-ms:60000}",
+               initialDelayString = "${snapshots.initial-delay-ms:60000}")
+    public void scheduledCapture() {
+        if (enabled) {
+            capture(LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(cron = "${snapshots.downsample-cron:0 5 * * * *}")
+    public void scheduledDownsample() {
+        if (enabled) {
+            downsample(LocalDateTime.now());
+        }
+    }
+
+    // Records the current value of every portfolio at the given time; returns rows written,
+    // or -1 if the previous capture is still running
+    public int capture(LocalDateTime at) {
+        if (!capturing.compareAndSet(false, true)) {
+            log.warn("Snapshot capture skipped: previous capture still running");
+            return -1;
+        }
+        try {
+            long start = System.nanoTime();
+            Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM portfolios", Long.class);
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM portfolios", Long.class);
+            if (minId == null || maxId == null) {
+                return 0;
+            }
+            Timestamp takenAt = Timestamp.valueOf(at.truncatedTo(ChronoUnit.SECONDS));
+            int written = 0;
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                written += jdbcTemplate.update(CAPTURE_SQL, takenAt, from, from + chunkSize);
+            }
+            log.debug("Captured {} portfolio snapshots in {} ms", written, (System.nanoTime() - start) / 1_000_000);
+            return written;
+        } finally {
+            capturing.set(false);
+        }
+    }
+
+    // Thins old points: minute -> hour past the minute retention, hour -> day past the hour
+    // retention. Returns the number of rows removed.
+    public int downsample(LocalDateTime now) {
+        if (!downsampling.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int removed = compact(SnapshotResolution.MINUTE, SnapshotResolution.HOUR,
+                    now.minusHours(minuteRetentionHours).truncatedTo(ChronoUnit.HOURS), ChronoUnit.HOURS);
+            removed += compact(SnapshotResolution.HOUR, SnapshotResolution.DAY,
+                    now.minusDays(hourRetentionDays).truncatedTo(ChronoUnit.DAYS), ChronoUnit.DAYS);
+            if (removed > 0) {
+                log.info("Downsampled portfolio snapshots: {} rows removed", removed);
+            }
+            return removed;
+        } finally {
+            downsampling.set(false);
+        }
+    }
+
+    // Percentage change of the portfolio's value over the period (1D, 1W, 1M or 1Y)
+    @Transactional(readOnly = true)
+    public double getPerformance(Long portfolioId, String period) {
+        UnaryOperator<LocalDateTime> lookback =
+                PERIODS.get(period == null ? "" : period.trim().toUpperCase(Locale.ROOT));
+        if (lookback == null) {
+            throw new RuntimeException("Unsupported period: " + period + " (use 1D, 1W, 1M or 1Y)");
+        }
+
+        Optional<PortfolioSnapshot> latest = snapshotRepository.findFirstByPortfolioIdOrderByTakenAtDesc(portfolioId);
+        if (latest.isEmpty()) {
+            return 0.0;
+        }
+        LocalDateTime since = lookback.apply(latest.get().getTakenAt());
+        // Portfolios younger than the period are measured from their first point
+        Optional<PortfolioSnapshot> first = snapshotRepository
+                .findFirstByPortfolioIdAndTakenAtLessThanEqualOrderByTakenAtDesc(portfolioId, since)
+                .or(() -> snapshotRepository.findFirstByPortfolioIdAndTakenAtGreaterThanEqualOrderByTakenAtAsc(portfolioId, since));
+
+        double startingValue = first.map(PortfolioSnapshot::getTotalValue).orElse(0.0);
+        if (startingValue <= 0) {
+            return 0.0;
+        }
+        return ((latest.get().getTotalValue() - startingValue) / startingValue) * 100.0;
+    }
+
+    // Streams the points of one resolution older than the cutoff in (portfolio, time) order;
+    // the last point of each bucket is promoted to the coarser resolution, the rest deleted
+    private int compact(SnapshotResolution from, SnapshotResolution to, LocalDateTime cutoff, ChronoUnit bucket) {
+        Compaction compaction = new Compaction(to, bucket);
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(DOWNSAMPLE_SCAN_SQL);
+            statement.setFetchSize(batchSize);
+            statement.setString(1, from.name());
+            statement.setTimestamp(2, Timestamp.valueOf(cutoff));
+            return statement;
+        }, compaction);
+        return compaction.finish();
+    }
+
+    private void updateResolution(List<Long> ids, SnapshotResolution resolution) {
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.update(PROMOTE_SQL, new MapSqlParameterSource()
+                    .addValue("resolution", resolution.name())
+                    .addValue("ids", ids));
+            ids.clear();
+        }
+    }
+
+    private int deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+        ids.clear();
+        return deleted;
+    }
+
+    private class Compaction implements RowCallbackHandler {
+        private final SnapshotResolution target;
+        private final ChronoUnit bucket;
+        private final List<Long> promote = new ArrayList<>();
+        private final List<Long> delete = new ArrayList<>();
+
+        private Long portfolioId;
+        private LocalDateTime bucketStart;
+        private long lastId;
+        private int removed;
+
+        Compaction(SnapshotResolution target, ChronoUnit bucket) {
+            this.target = target;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            long rowPortfolioId = rs.getLong(2);
+            LocalDateTime rowBucket = rs.getTimestamp(3).toLocalDateTime().truncatedTo(bucket);
+            if (portfolioId != null) {
+                boolean sameBucket = portfolioId == rowPortfolioId && bucketStart.equals(rowBucket);
+                (sameBucket ? delete : promote).add(lastId);
+            }
+            portfolioId = rowPortfolioId;
+            bucketStart = rowBucket;
+            lastId = id;
+
+            if (promote.size() >= batchSize) {
+                updateResolution(promote, target);
+            }
+            if (delete.size() >= batchSize) {
+                removed += deleteAll(delete);
+            }
+        }
+
+        int finish() {
+            if (portfolioId != null) {
+                promote.add(lastId);
+            }
+            updateResolution(promote, target);
+            removed += deleteAll(delete);
+            return removed;
+        }
+    }
+}
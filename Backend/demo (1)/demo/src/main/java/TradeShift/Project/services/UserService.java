@@ -1,18 +1,29 @@
 package TradeShift.Project.services;
 
 import TradeShift.Project.entity.User;
+import TradeShift.Project.events.UserChangedEvent;
 import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.security.AuthenticationCache;
+import TradeShift.Project.security.PasswordHashing;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @Service
 public class UserService {
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashing passwordHashing;
+
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public User registerUser(User user) {
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
@@ -23,8 +34,33 @@ public class UserService {
             user.setRole(TradeShift.Project.entity.Role.ROLE_USER);
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        user.setPassword(passwordHashing.encode(user.getPassword()));
+        User saved = userRepository.save(user);
+        authenticationCache.invalidateUser(saved.getUsername());
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getUsername()));
+        return saved;
+    }
+
+    // The user if the password matches, otherwise null. A hash made with another algorithm or
+    // cost than configured is replaced while the raw password is at hand. Throws
+    // RejectedExecutionException when password hashing is saturated.
+    public User authenticate(String username, String rawPassword) {
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null || rawPassword == null || !passwordHashing.matches(rawPassword, user.getPassword())) {
+            return null;
+        }
+        if (passwordHashing.needsRehash(user.getPassword())) {
+            try {
+                String rehashed = passwordHashing.encode(rawPassword);
+                if (userRepository.replacePasswordHash(user.getId(), user.getPassword(), rehashed) == 1) {
+                    user.setPassword(rehashed);
+                    passwordHashing.recordRehash();
+                }
+            } catch (RejectedExecutionException e) {
+                // The old hash keeps working; the next login tries again
+            }
+        }
+        return user;
     }
 
     public User findByUsername(String username) {
@@ -32,6 +68,10 @@ public class UserService {
     }
 
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Role or account changes must not be masked by cached authorities
+        authenticationCache.invalidateUser(saved.getUsername());
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getUsername()));
+        return saved;
     }
 }
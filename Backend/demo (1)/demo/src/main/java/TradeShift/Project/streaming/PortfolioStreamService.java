@@ -0,0 +1,322 @@
+package TradeShift.Project.streaming;
+
+import TradeShift.Project.dto.PortfolioValuation;
+import TradeShift.Project.events.PortfolioChangedEvent;
+import TradeShift.Project.events.PricesChangedEvent;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.PositionLedgerRepository;
+import TradeShift.Project.services.LedgerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live portfolio valuations over SSE. State is kept per portfolio (not per connection) and
+// price changes fan out through a symbol -> portfolios index, so a tick for one symbol
+// touches only the portfolios holding it. A ticker publishes at most one version per
+// portfolio per flush interval and hands it to each connection without blocking on it.
+@Service
+public class PortfolioStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioStreamService.class);
+
+    private final AssetRepository assetRepository;
+    private final PositionLedgerRepository positionRepository;
+    private final LedgerService ledgerService;
+    private final ObjectMapper objectMapper;
+
+    private final long emitterTimeoutMs;
+    private final long stuckSendNanos;
+    private final int maxConnections;
+
+    private final Map<Long, PortfolioView> views = new ConcurrentHashMap<>();
+    private final Map<String, Set<PortfolioView>> viewsBySymbol = new ConcurrentHashMap<>();
+    private final Set<PortfolioView> dirtyViews = ConcurrentHashMap.newKeySet();
+    private final Set<Long> staleViews = ConcurrentHashMap.newKeySet();
+    private final Set<StreamConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final AtomicLong versionsPublished = new AtomicLong();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong connectionsDropped = new AtomicLong();
+
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService sender;
+
+    public PortfolioStreamService(AssetRepository assetRepository,
+                                  PositionLedgerRepository positionRepository,
+                                  LedgerService ledgerService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${streaming.flush-interval-ms:250}") long flushIntervalMs,
+                                  @Value("${streaming.heartbeat-interval-ms:30000}") long heartbeatIntervalMs,
+                                  @Value("${streaming.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${streaming.stuck-send-timeout-ms:30000}") long stuckSendTimeoutMs,
+                                  @Value("${streaming.max-connections:20000}") int maxConnections,
+                                  @Value("${streaming.send-threads:4}") int sendThreads,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.assetRepository = assetRepository;
+        this.positionRepository = positionRepository;
+        this.ledgerService = ledgerService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.stuckSendNanos = TimeUnit.MILLISECONDS.toNanos(stuckSendTimeoutMs);
+        this.maxConnections = maxConnections;
+
+        this.sender = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(sendThreads, runnable -> daemon(runnable, "portfolio-stream-send"));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "portfolio-stream-tick"));
+        ticker.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Opens a stream over the given portfolios; the first event per portfolio is a full snapshot
+    public SseEmitter subscribe(List<Long> portfolioIds) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new RuntimeException("Too many open portfolio streams");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        StreamConnection connection = new StreamConnection(emitter, List.copyOf(portfolioIds));
+        emitter.onCompletion(() -> close(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(error -> close(connection));
+        connections.add(connection);
+
+        try {
+            for (Long portfolioId : connection.portfolioIds) {
+                PortfolioView view = views.compute(portfolioId, (id, existing) -> {
+                    PortfolioView current = existing;
+                    if (current == null) {
+                        current = new PortfolioView(id);
+                        load(current);
+                        current.publish(this::toJson);
+                    }
+                    current.connections.add(connection);
+                    return current;
+                });
+                connection.pending.add(view);
+            }
+        } catch (RuntimeException e) {
+            close(connection);
+            throw e;
+        }
+        schedule(connection);
+        return emitter;
+    }
+
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        for (Map.Entry<String, Double> price : event.prices().entrySet()) {
+            Set<PortfolioView> holders = viewsBySymbol.get(price.getKey());
+            if (holders == null || price.getValue() == null) {
+                continue;
+            }
+            for (PortfolioView view : holders) {
+                if (view.applyPrice(price.getKey(), price.getValue())) {
+                    dirtyViews.add(view);
+                }
+            }
+        }
+    }
+
+    // Reloading is left to the ticker, so a burst of orders costs one reload per flush
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (views.containsKey(event.portfolioId())) {
+            staleViews.add(event.portfolioId());
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("connections", (long) connectionCount.get());
+        stats.put("portfolios", (long) views.size());
+        stats.put("symbols", (long) viewsBySymbol.size());
+        stats.put("versionsPublished", versionsPublished.get());
+        stats.put("eventsSent", eventsSent.get());
+        stats.put("connectionsDropped", connectionsDropped.get());
+        return stats;
+    }
+
+    // Runs one publish cycle immediately (the ticker calls this every flush interval)
+    public void flush() {
+        for (Iterator<Long> it = staleViews.iterator(); it.hasNext(); ) {
+            Long portfolioId = it.next();
+            it.remove();
+            PortfolioView view = views.get(portfolioId);
+            if (view != null) {
+                reload(view);
+                dirtyViews.add(view);
+            }
+        }
+        for (Iterator<PortfolioView> it = dirtyViews.iterator(); it.hasNext(); ) {
+            PortfolioView view = it.next();
+            it.remove();
+            if (view.publish(this::toJson)) {
+                versionsPublished.incrementAndGet();
+                for (StreamConnection connection : view.connections) {
+                    connection.pending.add(view);
+                    schedule(connection);
+                }
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Portfolio stream flush failed", e);
+        }
+    }
+
+    // Keeps idle connections alive through proxies and drops readers stuck mid-send
+    private void heartbeat() {
+        long now = System.nanoTime();
+        for (StreamConnection connection : connections) {
+            if (connection.sending.get()) {
+                if (now - connection.sendStartedNanos > stuckSendNanos) {
+                    connectionsDropped.incrementAndGet();
+                    connection.emitter.complete();
+                    close(connection);
+                }
+            } else {
+                connection.heartbeatDue = true;
+                schedule(connection);
+            }
+        }
+    }
+
+    private void schedule(StreamConnection connection) {
+        if (!connection.closed && connection.sending.compareAndSet(false, true)) {
+            connection.sendStartedNanos = System.nanoTime();
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    // Sends the newest version of every pending portfolio: an "update" when the client has
+    // the previous version, otherwise a full "snapshot" (first event, or versions skipped)
+    private void drain(StreamConnection connection) {
+        try {
+            for (Iterator<PortfolioView> it = connection.pending.iterator(); it.hasNext(); ) {
+                PortfolioView view = it.next();
+                it.remove();
+                PortfolioView.Frame frame = view.frame();
+                if (frame == null) {
+                    continue;
+                }
+                Long last = connection.lastSentVersion.get(view.portfolioId);
+                if (last != null && last >= frame.version()) {
+                    continue;
+                }
+                boolean incremental = last != null && last == frame.version() - 1;
+                connection.emitter.send(SseEmitter.event()
+                        .name(incremental ? "update" : "snapshot")
+                        .id(view.portfolioId + ":" + frame.version())
+                        .data(incremental ? frame.updateJson() : frame.snapshotJson()));
+                connection.lastSentVersion.put(view.portfolioId, frame.version());
+                eventsSent.incrementAndGet();
+            }
+            if (connection.heartbeatDue) {
+                connection.heartbeatDue = false;
+                connection.emitter.send(SseEmitter.event().comment("ping"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(connection);
+            return;
+        } finally {
+            connection.sending.set(false);
+        }
+        if (!connection.pending.isEmpty()) {
+            schedule(connection);
+        }
+    }
+
+    private void close(StreamConnection connection) {
+        connection.closed = true;
+        if (!connections.remove(connection)) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        for (Long portfolioId : connection.portfolioIds) {
+            views.computeIfPresent(portfolioId, (id, view) -> {
+                view.connections.remove(connection);
+                if (!view.connections.isEmpty()) {
+                    return view;
+                }
+                unindex(view, view.symbols());
+                dirtyViews.remove(view);
+                return null;
+            });
+        }
+    }
+
+    private void load(PortfolioView view) {
+        view.load(assetRepository.findDtosByPortfolioId(view.portfolioId),
+                positionRepository.findByPortfolioId(view.portfolioId),
+                ledgerService.getProfitLoss(view.portfolioId).doubleValue());
+        for (String symbol : view.symbols()) {
+            viewsBySymbol.computeIfAbsent(symbol, s -> ConcurrentHashMap.newKeySet()).add(view);
+        }
+    }
+
+    private void reload(PortfolioView view) {
+        Set<String> before = view.symbols();
+        load(view);
+        before.removeAll(view.symbols());
+        unindex(view, before);
+    }
+
+    private void unindex(PortfolioView view, Set<String> symbols) {
+        for (String symbol : symbols) {
+            viewsBySymbol.computeIfPresent(symbol, (s, holders) -> {
+                holders.remove(view);
+                return holders.isEmpty() ? null : holders;
+            });
+        }
+    }
+
+    private String toJson(PortfolioValuation valuation) {
+        try {
+            return objectMapper.writeValueAsString(valuation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        sender.shutdownNow();
+        for (StreamConnection connection : connections) {
+            connection.emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package TradeShift.Project.streaming;
+
+import TradeShift.Project.dto.AssetDTO;
+import TradeShift.Project.dto.PortfolioValuation;
+import TradeShift.Project.dto.PositionValue;
+import TradeShift.Project.entity.PositionLedger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// In-memory valuation of one portfolio that has at least one live subscriber. Prices are
+// applied incrementally; holdings and cash are reloaded from the database after orders.
+// Changes accumulate until publish(), which produces one new version for all subscribers.
+final class PortfolioView {
+
+    // Serialized payloads of one version, shared by every connection on this portfolio
+    record Frame(long version, String snapshotJson, String updateJson) {
+    }
+
+    final Long portfolioId;
+    final Set<StreamConnection> connections = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Position> positions = new HashMap<>();
+    private final Set<String> changedSymbols = new HashSet<>();
+    private double cashBalance;
+    private boolean dirty;
+    private long version;
+    private volatile Frame frame;
+
+    PortfolioView(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    // Replaces holdings with fresh rows; every symbol counts as changed
+    synchronized void load(List<AssetDTO> assets, List<PositionLedger> ledgerPositions, double cashBalance) {
+        Map<String, Double> costBasis = new HashMap<>();
+        for (PositionLedger position : ledgerPositions) {
+            costBasis.put(position.getSymbol(),
+                    position.getCostBasis() != null ? position.getCostBasis().doubleValue() : 0.0);
+        }
+        changedSymbols.addAll(positions.keySet());
+        positions.clear();
+        for (AssetDTO asset : assets) {
+            if (asset.getSymbol() == null) {
+                continue;
+            }
+            Position position = positions.computeIfAbsent(asset.getSymbol(), symbol -> new Position());
+            position.quantity += asset.getQuantity() != null ? asset.getQuantity().doubleValue() : 0.0;
+            if (asset.getPrice() != null) {
+                position.price = asset.getPrice().doubleValue();
+            }
+            position.costBasis = costBasis.getOrDefault(asset.getSymbol(), 0.0);
+        }
+        changedSymbols.addAll(positions.keySet());
+        this.cashBalance = cashBalance;
+        dirty = true;
+    }
+
+    synchronized Set<String> symbols() {
+        return new HashSet<>(positions.keySet());
+    }
+
+    // Returns true if this made the view dirty (i.e. the price actually moved)
+    synchronized boolean applyPrice(String symbol, double price) {
+        Position position = positions.get(symbol);
+        if (position == null || position.price == price) {
+            return false;
+        }
+        position.price = price;
+        changedSymbols.add(symbol);
+        boolean wasClean = !dirty;
+        dirty = true;
+        return wasClean;
+    }
+
+    // Builds the next version if anything changed; returns false when there was nothing to send
+    synchronized boolean publish(Function<PortfolioValuation, String> serializer) {
+        if (!dirty) {
+            return false;
+        }
+        version++;
+        double total = 0.0;
+        double unrealized = 0.0;
+        for (Position position : positions.values()) {
+            total += position.value();
+            unrealized += position.value() - position.costBasis;
+        }
+
+        Map<String, Double> allocation = new LinkedHashMap<>();
+        List<PositionValue> all = new ArrayList<>(positions.size());
+        List<PositionValue> changed = new ArrayList<>(changedSymbols.size());
+        for (Map.Entry<String, Position> entry : new TreeMap<>(positions).entrySet()) {
+            Position position = entry.getValue();
+            PositionValue value = new PositionValue(entry.getKey(), position.quantity, position.price, position.value());
+            all.add(value);
+            if (changedSymbols.contains(entry.getKey())) {
+                changed.add(value);
+            }
+            allocation.put(entry.getKey(), total > 0 ? position.value() / total * 100.0 : 0.0);
+        }
+        // Symbols that disappeared are sent with zero quantity so clients can drop them
+        for (String symbol : changedSymbols) {
+            if (!positions.containsKey(symbol)) {
+                changed.add(new PositionValue(symbol, 0.0, null, 0.0));
+            }
+        }
+
+        String snapshot = serializer.apply(
+                new PortfolioValuation(portfolioId, version, total, cashBalance, unrealized, all, allocation));
+        String update = serializer.apply(
+                new PortfolioValuation(portfolioId, version, total, cashBalance, unrealized, changed, allocation));
+        frame = new Frame(version, snapshot, update);
+        changedSymbols.clear();
+        dirty = false;
+        return true;
+    }
+
+    Frame frame() {
+        return frame;
+    }
+
+    private static final class Position {
+        double quantity;
+        double price;
+        double costBasis;
+
+        double value() {
+            return quantity * price;
+        }
+    }
+}
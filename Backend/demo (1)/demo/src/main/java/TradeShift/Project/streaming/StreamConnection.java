@@ -0,0 +1,31 @@
+package TradeShift.Project.streaming;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One SSE client. At most one send is in flight per connection; while it is, further
+// changes only mark views as pending, so a slow reader gets the latest state once it
+// catches up instead of an ever-growing queue. Memory is bounded by its portfolio count.
+final class StreamConnection {
+
+    final SseEmitter emitter;
+    final List<Long> portfolioIds;
+
+    final Set<PortfolioView> pending = ConcurrentHashMap.newKeySet();
+    final Map<Long, Long> lastSentVersion = new ConcurrentHashMap<>();
+    final AtomicBoolean sending = new AtomicBoolean();
+
+    volatile boolean heartbeatDue;
+    volatile long sendStartedNanos;
+    volatile boolean closed;
+
+    StreamConnection(SseEmitter emitter, List<Long> portfolioIds) {
+        this.emitter = emitter;
+        this.portfolioIds = portfolioIds;
+    }
+}
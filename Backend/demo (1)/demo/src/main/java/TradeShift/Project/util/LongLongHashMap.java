@@ -0,0 +1,149 @@
+package TradeShift.Project.util;
+
+import java.util.Arrays;
+
+// Open-addressing map from long to long with no boxing: two parallel arrays, linear
+// probing and backward-shift deletion. About 16 bytes per entry at the default load
+// factor versus ~80 for a HashMap<Long, Long>. Not thread-safe.
+public class LongLongHashMap {
+
+    public interface Consumer {
+        void accept(long key, long value);
+    }
+
+    private static final long EMPTY = Long.MIN_VALUE; // reserved, can't be used as a key
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongLongHashMap() {
+        this(8);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[indexOf(key)] != EMPTY;
+    }
+
+    public long get(long key, long defaultValue) {
+        int slot = indexOf(key);
+        return keys[slot] == EMPTY ? defaultValue : values[slot];
+    }
+
+    public void put(long key, long value) {
+        checkKey(key);
+        int slot = indexOf(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size > resizeAt) {
+                values[slot] = value;
+                rehash(keys.length << 1);
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    // Adds delta to the key's value (starting from 0) and returns the new value
+    public long addTo(long key, long delta) {
+        checkKey(key);
+        int slot = indexOf(key);
+        if (keys[slot] == EMPTY) {
+            put(key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public boolean remove(long key) {
+        int slot = indexOf(key);
+        if (keys[slot] == EMPTY) {
+            return false;
+        }
+        // Shift following entries of the probe chain back so lookups never hit a hole
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = indexOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE is reserved");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package TradeShift.Project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+// Fixed-size ring of the latest items, safe for any number of writers and readers without
+// locks: a writer claims the next slot with one getAndIncrement and overwrites whatever
+// was there. A read racing a write may see the old or the new item in that slot, so callers
+// size the ring well above what they read and treat it as "at least the last N".
+public class RecentRing<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLong next = new AtomicLong();
+    private final int mask;
+
+    // Capacity is rounded up to a power of two
+    public RecentRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public void add(T item) {
+        slots.set((int) (next.getAndIncrement() & mask), item);
+    }
+
+    // Swaps the first held item matching the predicate; false if none matched (or it was
+    // overwritten meanwhile, in which case it has left the ring anyway)
+    public boolean replace(Predicate<T> match, T item) {
+        for (int i = 0; i < slots.length(); i++) {
+            T current = slots.get(i);
+            if (current != null && match.test(current)) {
+                return slots.compareAndSet(i, current, item);
+            }
+        }
+        return false;
+    }
+
+    // Held items, most recently added first
+    public List<T> snapshot() {
+        long end = next.get();
+        int count = (int) Math.min(end, slots.length());
+        List<T> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            T item = slots.get((int) ((end - i) & mask));
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,42 @@
+package TradeShift.Project.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket held in a single AtomicLong as the time the bucket will be full again
+// (the "theoretical arrival time" of GCRA): each permit pushes it one refill interval
+// further, and a permit is granted while it stays within burst intervals of now. No
+// refill thread or lock; an acquire is one CAS (retried only when another thread won).
+// Times are System.nanoTime() values, compared by difference.
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+
+    // Starts full
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    // 0 if a permit was taken, otherwise the nanos until one will be available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + intervalNanos;
+            long wait = next - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Refilled completely, so indistinguishable from a new bucket and safe to drop
+    public boolean isIdle(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,102 @@
+package TradeShift.Project.util;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+// Concurrent map whose entries expire at a fixed time and whose size is bounded. Once the
+// bound is exceeded, expired entries are dropped first, then the ones expiring soonest,
+// until the map is 10% under the bound.
+public class TtlCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TtlCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // Fresh value or null; expired entries are removed on the way
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    // Entry regardless of expiry, for callers that may still want a stale value
+    public Entry<V> getEntry(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().isExpired(now);
+            if (expired) {
+                evictions.incrementAndGet();
+            }
+            return expired;
+        });
+
+        int target = maxSize - Math.max(1, maxSize / 10);
+        int excess = entries.size() - target;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(key -> {
+                    if (entries.remove(key) != null) {
+                        evictions.incrementAndGet();
+                    }
+                });
+    }
+
+    public record Entry<V>(V value, long expiresAt) {
+        public boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
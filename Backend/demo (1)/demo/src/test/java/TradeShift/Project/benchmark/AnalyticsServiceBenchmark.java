@@ -0,0 +1,85 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.services.AnalyticsService;
+import TradeShift.Project.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// AnalyticsService reads for one portfolio as the order history grows (see SeededApplication).
+// None of them should scale with the history:
+//   profitLoss  - running ledger row
+//   allocation  - holdings index totals
+//   performance - latest and lookback valuation snapshots
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.AnalyticsServiceBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsService analyticsService;
+    private List<Long> portfolioIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = SeededApplication.start("analytics", orders);
+        analyticsService = context.getBean(AnalyticsService.class);
+        portfolioIds = SeededApplication.portfolioIds(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Money profitLoss() {
+        return analyticsService.calculateProfitLoss(nextPortfolio());
+    }
+
+    @Benchmark
+    public Map<String, Double> allocation() {
+        return analyticsService.calculateAssetAllocation(nextPortfolio());
+    }
+
+    @Benchmark
+    public double performance() {
+        return analyticsService.calculatePerformance(nextPortfolio(), "1D");
+    }
+
+    private Long nextPortfolio() {
+        next = next + 1 == portfolioIds.size() ? 0 : next + 1;
+        return portfolioIds.get(next);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AnalyticsServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.services.HoldingsIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Allocation read for one portfolio as its asset row count grows (50 tickers, many rows each):
+//   rowScan - old AnalyticsService loop: two passes over the rows into a boxed map. The rows
+//             are already in memory here, so the SELECT it also paid is not even counted.
+//   indexed - HoldingsIndex.getAllocation over the pre-aggregated per-symbol totals
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.AssetAllocationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssetAllocationBenchmark {
+
+    private static final int SYMBOLS = 50;
+    private static final long PORTFOLIO_ID = 1;
+
+    private record Row(String symbol, Double quantity, Double price) {
+    }
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private JdbcTemplate jdbcTemplate;
+    private HoldingsIndex holdingsIndex;
+    private List<Row> assets;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:allocation_" + rows + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE assets (id BIGINT AUTO_INCREMENT PRIMARY KEY, portfolio_id BIGINT, " +
+                "symbol VARCHAR(16), quantity DECIMAL(19,6), price DECIMAL(19,4))");
+
+        SplittableRandom random = new SplittableRandom(11);
+        assets = new ArrayList<>(rows);
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String symbol = "SYM" + (i % SYMBOLS);
+            double quantity = random.nextInt(1, 1_000);
+            double price = random.nextInt(100, 500_000) / 100.0;
+            assets.add(new Row(symbol, quantity, price));
+            batch.add(new Object[]{PORTFOLIO_ID, symbol, quantity, price});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO assets (portfolio_id, symbol, quantity, price) VALUES (?, ?, ?, ?)", batch);
+
+        holdingsIndex = new HoldingsIndex(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate));
+        holdingsIndex.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    public Map<String, Double> rowScan() {
+        Map<String, Double> allocation = new HashMap<>();
+        double totalValue = 0.0;
+        for (Row asset : assets) {
+            totalValue += asset.price() * asset.quantity();
+        }
+        for (Row asset : assets) {
+            String symbol = asset.symbol();
+            double value = asset.price() * asset.quantity();
+            allocation.put(symbol, allocation.getOrDefault(symbol, 0.0) + value);
+        }
+        if (totalValue > 0) {
+            for (String symbol : allocation.keySet()) {
+                allocation.put(symbol, (allocation.get(symbol) / totalValue) * 100.0);
+            }
+        }
+        return allocation;
+    }
+
+    @Benchmark
+    public Map<String, Double> indexed() {
+        return holdingsIndex.getAllocation(PORTFOLIO_ID);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AssetAllocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package TradeShift.Project.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares two BenchmarkSuite JSON result files benchmark by benchmark (parameters included)
+// and prints the change in score. Exits with 1 if anything got slower than the threshold.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.BenchmarkComparison
+//           -Dexec.args="baseline.json current.json [thresholdPercent]"
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        boolean regressed = false;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            String unit = metric.get("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14.3f %-8s (new)%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double previous = before.get("primaryMetric").get("score").asDouble();
+            double change = previous == 0 ? 0 : (score - previous) * 100.0 / previous;
+            // Average-time scores regress upwards, throughput scores downwards
+            boolean slower = "thrpt".equals(entry.getValue().get("mode").asText()) ? change < -threshold : change > threshold;
+            regressed |= slower;
+            System.out.printf("%-90s %14.3f %-8s %+7.1f%%%s%n", entry.getKey(), score, unit, change, slower ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> load(File file) throws Exception {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,25 @@
+package TradeShift.Project.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+// Runs every benchmark in this package (or those matching the include regex) and writes the
+// results as JMH JSON, so two releases can be compared with BenchmarkComparison.
+// Run with: mvn -Pbenchmarks test-compile exec:exec
+//           [-Dbenchmark.include=Analytics] [-Dbenchmark.results=target/jmh/results.json]
+public class BenchmarkSuite {
+
+    public static void main(String[] args) throws Exception {
+        String results = args.length > 0 ? args[0] : "target/jmh/results.json";
+        String include = args.length > 1 ? args[1] : ".*";
+        new File(results).getAbsoluteFile().getParentFile().mkdirs();
+        new Runner(new OptionsBuilder()
+                .include(BenchmarkSuite.class.getPackageName() + "\\..*(" + include + ").*")
+                .resultFormat(ResultFormatType.JSON)
+                .result(results)
+                .build()).run();
+    }
+}
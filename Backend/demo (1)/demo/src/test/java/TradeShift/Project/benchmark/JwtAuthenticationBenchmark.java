@@ -0,0 +1,96 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.security.AuthenticationCache;
+import TradeShift.Project.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of turning a bearer token into a UserDetails, as done by
+// JwtAuthenticationFilter. The user lookup is an in-memory stub here, so the MySQL round
+// trip the old path paid on every request is not even counted.
+//   legacy      - old filter: three parses, each with a freshly built parser, plus a user load
+//   singleParse - shared parser, one parse, user load (cache disabled via zero TTL)
+//   cached      - AuthenticationCache hit
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.JwtAuthenticationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    // Same key as JwtUtil, needed to rebuild the old per-call parser
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(
+            "YourSuperSecretKeyForJWTsMustBeAtLeast256BitsLong!".getBytes(StandardCharsets.UTF_8));
+
+    private final UserDetailsService users = username -> User.withUsername(username)
+            .password("{noop}secret")
+            .authorities("ROLE_USER")
+            .build();
+
+    private JwtUtil jwtUtil;
+    private AuthenticationCache uncached;
+    private AuthenticationCache cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        uncached = new AuthenticationCache(jwtUtil, users, 0, 1000);
+        cached = new AuthenticationCache(jwtUtil, users, 60_000, 1000);
+        token = jwtUtil.generateToken("bench-user", "ROLE_USER");
+        cached.authenticate(token);
+    }
+
+    @Benchmark
+    public UserDetails legacy() {
+        String username = legacyClaims(token).getSubject();
+        UserDetails user = users.loadUserByUsername(username);
+        boolean valid = legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid ? user : null;
+    }
+
+    @Benchmark
+    public UserDetails singleParse() {
+        return uncached.authenticate(token);
+    }
+
+    @Benchmark
+    public UserDetails cached() {
+        return cached.authenticate(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser().verifyWith(KEY).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Raw JwtUtil costs, independent of any data size (the filter path with its cache is in
+// JwtAuthenticationBenchmark):
+//   generate - sign a new token (login)
+//   parse    - verify signature and expiry, return the claims
+//   validate - parse plus subject check
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.JwtUtilBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken("bench-user", "ROLE_USER");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("bench-user", "ROLE_USER");
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwtUtil.parseValidClaims(token);
+    }
+
+    @Benchmark
+    public Boolean validate() {
+        return jwtUtil.validateToken(token, "bench-user");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.matching.OrderBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Order book hot path: random limit orders around a mid price, so roughly half of them
+// cross and the rest build depth. Throughput gives orders/sec, SampleTime gives p99.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.MatchingEngineBenchmark
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchingEngineBenchmark {
+
+    private static final int ORDERS = 1 << 16;
+    private static final long MID_PRICE = 1_000_000;
+
+    @Param({"50", "500"})
+    private int priceLevels;
+
+    private final long[] prices = new long[ORDERS];
+    private final long[] quantities = new long[ORDERS];
+    private final boolean[] buys = new boolean[ORDERS];
+
+    private OrderBook book;
+    private OrderBook.FillSink sink;
+    private long nextOrderId;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void generateOrders(Blackhole blackhole) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < ORDERS; i++) {
+            buys[i] = random.nextBoolean();
+            prices[i] = MID_PRICE + random.nextInt(-priceLevels / 2, priceLevels / 2 + 1);
+            quantities[i] = 1 + random.nextInt(100);
+        }
+        sink = (maker, taker, takerBuys, price, quantity) -> blackhole.consume(quantity);
+        book = new OrderBook("BENCH", ORDERS);
+        // Pre-fill so measurement starts from a book with depth on both sides
+        for (int i = 0; i < ORDERS; i++) {
+            submitNext();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long ordersPerSecond() {
+        return submitNext();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long matchLatency() {
+        return submitNext();
+    }
+
+    private long submitNext() {
+        int i = cursor;
+        cursor = (cursor + 1) & (ORDERS - 1);
+        // One portfolio per order, so no order is cancelled as a self-trade
+        long orderId = nextOrderId++;
+        return book.submit(orderId, orderId, buys[i], prices[i], quantities[i], sink);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MatchingEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
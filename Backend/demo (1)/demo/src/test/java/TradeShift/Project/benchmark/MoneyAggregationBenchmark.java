@@ -0,0 +1,102 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Portfolio valuation loop (sum of quantity x price over the holdings), as done by
+// AnalyticsService and the total-value refresh:
+//   boxedDouble    - old path: Double fields on each row, double multiply-add
+//   moneyObjects   - Quantity/Money fields, valued and summed through the value types
+//   primitiveTicks - the same fixed-point math on long units/ticks with no objects
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.MoneyAggregationBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+    private record DoubleRow(Double quantity, Double price) {
+    }
+
+    private record MoneyRow(Quantity quantity, Money price) {
+    }
+
+    @Param({"100", "10000"})
+    private int holdings;
+
+    private List<DoubleRow> doubleRows;
+    private List<MoneyRow> moneyRows;
+    private long[] units;
+    private long[] ticks;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        doubleRows = new ArrayList<>(holdings);
+        moneyRows = new ArrayList<>(holdings);
+        units = new long[holdings];
+        ticks = new long[holdings];
+        for (int i = 0; i < holdings; i++) {
+            Quantity quantity = Quantity.ofUnits(random.nextLong(1, 1_000L * Quantity.UNITS_PER_SHARE));
+            Money price = Money.ofTicks(random.nextLong(1, 5_000L * Money.TICKS_PER_UNIT));
+            doubleRows.add(new DoubleRow(quantity.doubleValue(), price.doubleValue()));
+            moneyRows.add(new MoneyRow(quantity, price));
+            units[i] = quantity.units();
+            ticks[i] = price.ticks();
+        }
+    }
+
+    @Benchmark
+    public double boxedDouble() {
+        double total = 0.0;
+        for (DoubleRow row : doubleRows) {
+            total += row.quantity() * row.price();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyObjects() {
+        Money total = Money.ZERO;
+        for (MoneyRow row : moneyRows) {
+            total = total.plus(Money.valueOf(row.quantity(), row.price()));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long primitiveTicks() {
+        long total = 0;
+        for (int i = 0; i < units.length; i++) {
+            total += Money.valueTicks(units[i], ticks[i]);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MoneyAggregationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.dto.OrderRequestDTO;
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.services.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// OrderService placement on top of an existing history (see SeededApplication); each call
+// commits its own transaction: holdings, total value and the outbox events (the ledger
+// follows on the dispatcher, which is off here, so only the request path is measured):
+//   single - placeOrder, one market BUY
+//   batch  - placeOrders, BATCH_SIZE BUYs in one transaction (reported per call)
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.OrderPlacementBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private List<Long> portfolioIds;
+    private List<OrderRequestDTO> batch;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = SeededApplication.start("placement", orders);
+        orderService = context.getBean(OrderService.class);
+        portfolioIds = SeededApplication.portfolioIds(context);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new OrderRequestDTO("SYM" + (i % SeededApplication.SYMBOLS), "BUY", 1.0, 25.0));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order single() {
+        return orderService.placeOrder(nextPortfolio(), "SYM1", OrderType.BUY, 1.0, 25.0);
+    }
+
+    @Benchmark
+    public List<Order> batch() {
+        return orderService.placeOrders(nextPortfolio(), batch);
+    }
+
+    private Long nextPortfolio() {
+        next = next + 1 == portfolioIds.size() ? 0 : next + 1;
+        return portfolioIds.get(next);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(OrderPlacementBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
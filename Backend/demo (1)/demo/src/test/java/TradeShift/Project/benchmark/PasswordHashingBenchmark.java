@@ -0,0 +1,61 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.security.TunablePasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Logins per second per core for each security.password setting: one thread verifying a
+// stored hash, which is the CPU a successful login costs (a rehash costs one more hash,
+// once per user after a setting change). Multiply by security.password.threads for the
+// most logins per second a node will take before shedding them with 503.
+//   setting - algorithm:cost, bcrypt strength or pbkdf2 iterations
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.PasswordHashingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"bcrypt:8", "bcrypt:10", "bcrypt:12", "pbkdf2:100000", "pbkdf2:310000", "pbkdf2:600000"})
+    private String setting;
+
+    private TunablePasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = setting.split(":");
+        int cost = Integer.parseInt(parts[1]);
+        encoder = new TunablePasswordEncoder(parts[0], TunablePasswordEncoder.BCRYPT.equals(parts[0]) ? cost : 10, cost);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.services.PortfolioService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PortfolioService.calculateAndUpdatePortfolioValue (one UPDATE summing in SQL) as the order
+// history grows; the asset rows per portfolio stay at SeededApplication.SYMBOLS.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.PortfolioValueBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortfolioValueBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private PortfolioService portfolioService;
+    private List<Long> portfolioIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = SeededApplication.start("portfolio_value", orders);
+        portfolioService = context.getBean(PortfolioService.class);
+        portfolioIds = SeededApplication.portfolioIds(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void calculateAndUpdatePortfolioValue() {
+        next = next + 1 == portfolioIds.size() ? 0 : next + 1;
+        portfolioService.calculateAndUpdatePortfolioValue(portfolioIds.get(next));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(PortfolioValueBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
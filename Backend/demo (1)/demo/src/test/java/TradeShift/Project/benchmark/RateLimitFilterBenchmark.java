@@ -0,0 +1,107 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.security.RateLimitFilter;
+import TradeShift.Project.security.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-request cost of RateLimitFilter in front of a chain that does nothing, on 4 threads
+// so bucket CAS contention is included:
+//   unfiltered      - the filter disabled (request classification skipped too)
+//   granted         - one client well within its budget (the common case)
+//   rejected        - one client over budget: the 429 body is written
+//   distinctClients - requests rotate over 100k clients, so the bucket map holds 100k keys
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=TradeShift.Project.benchmark.RateLimitFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final int CLIENTS = 100_000;
+    private static final FilterChain NOTHING = (request, response) -> {
+    };
+
+    private RateLimitFilter disabled;
+    private RateLimitFilter generous;
+    private RateLimitFilter exhausted;
+    private final AtomicInteger nextClient = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // A permit per nanosecond with a millisecond of burst never runs dry
+        double perMinute = 60e9;
+        RateLimiter unlimited = new RateLimiter(perMinute, 1_000_000, perMinute, 1_000_000, perMinute, 1_000_000, CLIENTS * 2L);
+        disabled = new RateLimitFilter(unlimited, objectMapper, registry, false);
+        generous = new RateLimitFilter(unlimited, objectMapper, registry, true);
+        // One permit, refilled after two months
+        double never = 1.0 / 86_400;
+        RateLimiter empty = new RateLimiter(never, 1, never, 1, never, 1, CLIENTS * 2L);
+        exhausted = new RateLimitFilter(empty, objectMapper, registry, true);
+        exhausted.doFilter(request("10.0.0.1"), new MockHttpServletResponse(), NOTHING);
+    }
+
+    @Benchmark
+    public int unfiltered() throws Exception {
+        return run(disabled, "10.0.0.1");
+    }
+
+    @Benchmark
+    public int granted() throws Exception {
+        return run(generous, "10.0.0.1");
+    }
+
+    @Benchmark
+    public int rejected() throws Exception {
+        return run(exhausted, "10.0.0.1");
+    }
+
+    @Benchmark
+    public int distinctClients() throws Exception {
+        int client = nextClient.getAndIncrement() % CLIENTS;
+        return run(generous, "10." + (client >> 16) + "." + ((client >> 8) & 0xff) + "." + (client & 0xff));
+    }
+
+    private static int run(RateLimitFilter filter, String address) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(address), response, NOTHING);
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/portfolio");
+        request.setRemoteAddr(address);
+        return request;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package TradeShift.Project.benchmark;
+
+import TradeShift.Project.DemoApplication;
+import TradeShift.Project.services.HoldingsIndex;
+import TradeShift.Project.services.LedgerService;
+import TradeShift.Project.services.RecentOrders;
+import TradeShift.Project.services.SnapshotService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Boots the application (web server on a random port) on its own in-memory H2 database and fills it with a
+// fixed number of orders spread over PORTFOLIOS portfolios. History is written with JDBC
+// batches; ledgers, holdings, the holdings index and two valuation snapshots are then derived
+// from it the way the application would, so service reads see consistent state.
+final class SeededApplication {
+
+    static final int PORTFOLIOS = 100;
+    static final int SYMBOLS = 20;
+
+    private static final int BATCH = 5_000;
+
+    private SeededApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String name, int orders) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + name + "_" + orders
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        seed(context, orders);
+        return context;
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int orders) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (username, password, role) VALUES ('bench', 'x', 'ROLE_USER')");
+        Long userId = jdbc.queryForObject("SELECT id FROM users WHERE username = 'bench'", Long.class);
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            jdbc.update("INSERT INTO portfolios (name, total_value, user_id) VALUES (?, 0, ?)", "bench-" + p, userId);
+        }
+        List<Long> portfolioIds = jdbc.queryForList("SELECT id FROM portfolios ORDER BY id", Long.class);
+
+        // Buys only, so every position stays long and the asset rows are simple sums
+        SplittableRandom random = new SplittableRandom(7);
+        long[][] quantities = new long[PORTFOLIOS][SYMBOLS];
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < orders; i++) {
+            int portfolio = i % PORTFOLIOS;
+            int symbol = random.nextInt(SYMBOLS);
+            int quantity = random.nextInt(1, 100);
+            quantities[portfolio][symbol] += quantity;
+            batch.add(new Object[]{"SYM" + symbol, "BUY", quantity, price(symbol),
+                    Timestamp.valueOf(start.plusSeconds(i)), portfolioIds.get(portfolio), "SUCCESS"});
+            if (batch.size() == BATCH || i == orders - 1) {
+                jdbc.batchUpdate("INSERT INTO orders (symbol, type, quantity, price, order_time, portfolio_id, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            for (int s = 0; s < SYMBOLS; s++) {
+                if (quantities[p][s] > 0) {
+                    batch.add(new Object[]{"SYM" + s, quantities[p][s], price(s), portfolioIds.get(p)});
+                }
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO assets (symbol, quantity, price, portfolio_id) VALUES (?, ?, ?, ?)", batch);
+        jdbc.update("UPDATE portfolios p SET total_value = " +
+                "(SELECT COALESCE(SUM(ROUND(a.quantity * a.price, 4)), 0) FROM assets a WHERE a.portfolio_id = p.id)");
+
+        context.getBean(LedgerService.class).verifyAll();
+        context.getBean(HoldingsIndex.class).rebuild();
+        context.getBean(RecentOrders.class).reset();
+        SnapshotService snapshots = context.getBean(SnapshotService.class);
+        snapshots.capture(LocalDateTime.now().minusDays(2));
+        snapshots.capture(LocalDateTime.now());
+    }
+
+    static List<Long> portfolioIds(ConfigurableApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForList("SELECT id FROM portfolios ORDER BY id", Long.class);
+    }
+
+    private static BigDecimal price(int symbol) {
+        return BigDecimal.valueOf(10_00 + symbol * 7_25L, 2);
+    }
+}
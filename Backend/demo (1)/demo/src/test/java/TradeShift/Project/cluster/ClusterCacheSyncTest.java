@@ -0,0 +1,169 @@
+package TradeShift.Project.cluster;
+
+import TradeShift.Project.DemoApplication;
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.Role;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.security.AuthenticationCache;
+import TradeShift.Project.security.JwtUtil;
+import TradeShift.Project.services.HoldingsIndex;
+import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioService;
+import TradeShift.Project.services.QuoteCache;
+import TradeShift.Project.services.QuoteRefreshService;
+import TradeShift.Project.services.RecentOrders;
+import TradeShift.Project.services.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two nodes (application contexts) in one JVM on one database, joined by the in-JVM
+// channel: what one node writes must show up in the other node's caches.
+class ClusterCacheSyncTest {
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startNodes() {
+        String name = "cluster_" + System.nanoTime();
+        first = startNode(name, "create-drop");
+        // Joins the first node's schema instead of recreating it
+        second = startNode(name, "none");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String name, String ddl) {
+        return new SpringApplicationBuilder(DemoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=" + ddl,
+                "--cluster.channel=jvm",
+                "--cluster.jvm.group=" + name,
+                "--logging.level.root=WARN");
+    }
+
+    @Test
+    void ordersPlacedOnOneNodeShowUpInTheOtherNodesCaches() {
+        Long portfolioId = createPortfolio();
+        String symbol = "CLU" + System.nanoTime() % 100000;
+
+        // The second node has already cached the (empty) portfolio
+        assertTrue(second.getBean(RecentOrders.class).get(portfolioId, 5).isEmpty());
+        assertTrue(second.getBean(HoldingsIndex.class).getAllocation(portfolioId).isEmpty());
+
+        Long orderId = first.getBean(OrderService.class)
+                .placeOrder(portfolioId, symbol, OrderType.BUY, 10.0, 100.0).getId();
+
+        List<OrderDTO> recent = second.getBean(RecentOrders.class).get(portfolioId, 5);
+        assertEquals(List.of(orderId), recent.stream().map(OrderDTO::getId).toList());
+        assertEquals(orderId, second.getBean(OrderService.class).getRecentOrders(null, 5).get(0).getId());
+        assertEquals(Map.of(symbol, 100.0), second.getBean(HoldingsIndex.class).getAllocation(portfolioId));
+    }
+
+    @Test
+    void pricesAppliedOnOneNodeAreNotCountedTwiceByTheOther() {
+        Long portfolioId = createPortfolio();
+        String symbol = "CLP" + System.nanoTime() % 100000;
+        first.getBean(OrderService.class).placeOrder(portfolioId, symbol, OrderType.BUY, 10.0, 100.0);
+        // Both indexes now count the holding at 100
+        second.getBean(HoldingsIndex.class).getAllocation(portfolioId);
+
+        first.getBean(QuoteRefreshService.class).applyPrices(Map.of(symbol, 110.0));
+        assertEquals(110.0, second.getBean(QuoteCache.class).get(symbol, s -> {
+            throw new IllegalStateException("should have been cached");
+        }), 1e-9);
+
+        // The second node's delta must start from 110, not from the 100 it had counted
+        second.getBean(QuoteRefreshService.class).applyPrices(Map.of(symbol, 120.0));
+        assertEquals(1200.0, second.getBean(PortfolioRepository.class).findById(portfolioId).orElseThrow()
+                .getTotalValue().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void concurrentRepricingOnBothNodesLeavesTheTotalMatchingTheRows() throws Exception {
+        Long portfolioId = createPortfolio();
+        String symbol = "CLC" + System.nanoTime() % 100000;
+        first.getBean(OrderService.class).placeOrder(portfolioId, symbol, OrderType.BUY, 10.0, 100.0);
+        second.getBean(HoldingsIndex.class).getAllocation(portfolioId);
+
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ConfigurableApplicationContext node : List.of(first, second)) {
+                QuoteRefreshService refresh = node.getBean(QuoteRefreshService.class);
+                futures.add(nodes.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        refresh.applyPrices(Map.of(symbol, 100.0 + ThreadLocalRandom.current().nextInt(1, 50)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        double price = first.getBean(JdbcTemplate.class)
+                .queryForObject("SELECT price FROM assets WHERE symbol = ?", Double.class, symbol);
+        assertEquals(10 * price, second.getBean(PortfolioRepository.class).findById(portfolioId).orElseThrow()
+                .getTotalValue().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void roleChangesOnOneNodeReachTheOtherNodesAuthenticationCache() {
+        User user = newUser();
+        String token = second.getBean(JwtUtil.class).generateToken(user.getUsername(), user.getRole().name());
+        AuthenticationCache cache = second.getBean(AuthenticationCache.class);
+        assertEquals("ROLE_USER", cache.authenticate(token).getAuthorities().iterator().next().getAuthority());
+
+        user.setRole(Role.ROLE_ADMIN);
+        first.getBean(UserService.class).updateUser(user);
+
+        assertEquals("ROLE_ADMIN", cache.authenticate(token).getAuthorities().iterator().next().getAuthority());
+    }
+
+    private Long createPortfolio() {
+        User user = newUser();
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("cluster");
+        return first.getBean(PortfolioService.class).createPortfolio(user.getUsername(), portfolio).getId();
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setUsername("cluster-" + System.nanoTime());
+        user.setPassword("secret");
+        user.setRole(Role.ROLE_USER);
+        return first.getBean(UserRepository.class).save(user);
+    }
+}
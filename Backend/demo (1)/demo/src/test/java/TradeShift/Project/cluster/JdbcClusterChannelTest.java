@@ -0,0 +1,103 @@
+package TradeShift.Project.cluster;
+
+import TradeShift.Project.entity.ClusterMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two channels on the test database stand in for two nodes
+@SpringBootTest
+class JdbcClusterChannelTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private JdbcClusterChannel sender;
+    private JdbcClusterChannel receiver;
+    private final List<ClusterMessage> senderReceived = new CopyOnWriteArrayList<>();
+    private final List<ClusterMessage> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startChannels() {
+        sender = new JdbcClusterChannel(jdbcTemplate, "node-a", 20, 100, 60_000, 60);
+        receiver = new JdbcClusterChannel(jdbcTemplate, "node-b", 20, 100, 60_000, 60);
+        sender.subscribe(senderReceived::addAll);
+        receiver.subscribe(received::addAll);
+        sender.start();
+        receiver.start();
+    }
+
+    @AfterEach
+    void stopChannels() throws InterruptedException {
+        sender.shutdown();
+        receiver.shutdown();
+    }
+
+    @Test
+    void messagesReachTheOtherNodeOnlyAndDuplicatesAreSentOnce() {
+        sender.publish(List.of(ClusterMessage.portfolio(7L), ClusterMessage.portfolio(7L),
+                ClusterMessage.price("JCC", 12.5)));
+
+        await(() -> received.size() == 2);
+        assertEquals(ClusterMessage.TYPE_PORTFOLIO, received.get(0).getType());
+        assertEquals("7", received.get(0).getKey());
+        assertEquals("12.5", received.get(1).getValue());
+        assertEquals("node-a", received.get(1).getNodeId());
+        assertTrue(senderReceived.isEmpty());
+    }
+
+    // A row whose id was taken before a later row committed is still delivered when it commits
+    @Test
+    void rowsCommittingOutOfIdOrderAreNotMissed() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO cluster_messages (node_id, type, message_key) VALUES ('node-c', 'USER', 'late')");
+            inserted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        inserted.await();
+
+        sender.publish(List.of(ClusterMessage.user("early")));
+        await(() -> received.size() == 1);
+        assertEquals("early", received.get(0).getKey());
+
+        release.countDown();
+        slow.get();
+        await(() -> received.size() == 2);
+        assertEquals("late", received.get(1).getKey());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package TradeShift.Project.configuration;
+
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two in-memory H2 databases stand in for the primary and the replica; "replication" is a script copy
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.pool-name=primary",
+        "replica.datasource.url=jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "replica.datasource.hikari.pool-name=replica"
+})
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private DataSourceStats dataSourceStats;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void readOnlyServiceMethodsReadTheReplicaWhileWritesGoToThePrimary() {
+        Long portfolioId = newPortfolio("routing-" + System.nanoTime());
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.BUY, 1.0, 10.0);
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.BUY, 2.0, 11.0);
+        replicate();
+
+        // Not replicated yet: only the primary knows about it
+        orderService.placeOrder(portfolioId, "MSFT", OrderType.BUY, 1.0, 20.0);
+        Long unreplicated = newPortfolio("routing-late-" + System.nanoTime());
+
+        assertEquals(2, orderService.getOrdersByPortfolio(portfolioId).size());
+        assertEquals(3, new JdbcTemplate(primary).queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE portfolio_id = ?", Integer.class, portfolioId));
+
+        // Spring Data's own read-only transactions (findById ahead of a save) stay on the primary
+        assertTrue(portfolioRepository.findById(unreplicated).isPresent());
+
+        Map<String, Long> stats = dataSourceStats.getStats();
+        assertTrue(stats.get("routed.replica") > 0);
+        assertTrue(stats.get("routed.primary") > 0);
+        assertTrue(stats.containsKey("primary.active"));
+        assertTrue(stats.containsKey("replica.active"));
+    }
+
+    private Long newPortfolio(String username) {
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("routing");
+        return portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    private void replicate() {
+        String script = tempDir.resolve("primary.sql").toString();
+        new JdbcTemplate(primary).execute("SCRIPT DROP TO '" + script + "'");
+        new JdbcTemplate(replica).execute("RUNSCRIPT FROM '" + script + "'");
+    }
+}
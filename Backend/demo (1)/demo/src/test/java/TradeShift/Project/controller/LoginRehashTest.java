@@ -0,0 +1,80 @@
+package TradeShift.Project.controller;
+
+import TradeShift.Project.entity.Role;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Tests hash with bcrypt cost 4 (see test application.properties)
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoginRehashTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void hashFromAnOlderSettingIsReplacedOnSuccessfulLogin() throws Exception {
+        // As stored before hashes were prefixed, at another cost
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+        User user = saveUser(legacy);
+
+        mockMvc.perform(login(user.getUsername(), "wrong")).andExpect(status().isUnauthorized());
+        assertEquals(legacy, storedHash(user));
+
+        mockMvc.perform(login(user.getUsername(), "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists());
+        String rehashed = storedHash(user);
+        assertTrue(rehashed.startsWith("{bcrypt}$2a$04$"), rehashed);
+
+        // The new hash works and is left alone from now on
+        mockMvc.perform(login(user.getUsername(), "secret")).andExpect(status().isOk());
+        assertEquals(rehashed, storedHash(user));
+    }
+
+    @Test
+    void registeredUsersCanLogIn() throws Exception {
+        String username = "registered-" + System.nanoTime();
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(login(username, "secret")).andExpect(status().isOk());
+    }
+
+    private User saveUser(String passwordHash) {
+        User user = new User();
+        user.setUsername("rehash-" + System.nanoTime());
+        user.setPassword(passwordHash);
+        user.setRole(Role.ROLE_USER);
+        return userRepository.save(user);
+    }
+
+    private String storedHash(User user) {
+        return userRepository.findById(user.getId()).orElseThrow().getPassword();
+    }
+
+    private static MockHttpServletRequestBuilder login(String username, String password) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+    }
+}
@@ -0,0 +1,116 @@
+package TradeShift.Project.controller;
+
+import TradeShift.Project.entity.Asset;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.Role;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.security.JwtUtil;
+import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Read endpoints must run a fixed number of statements however many portfolios, assets
+// or orders there are (no N+1 from lazy associations during serialization)
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadEndpointStatementCountTest {
+
+    private static final int PORTFOLIOS = 4;
+    private static final int ASSETS_PER_PORTFOLIO = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+    private final List<Long> portfolioIds = new ArrayList<>();
+
+    @BeforeEach
+    void createPortfolios() throws Exception {
+        String username = "reads-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole(Role.ROLE_USER);
+        userRepository.save(user);
+
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setName("reads-" + p);
+            Portfolio saved = portfolioService.createPortfolio(username, portfolio);
+            portfolioIds.add(saved.getId());
+            for (int a = 0; a < ASSETS_PER_PORTFOLIO; a++) {
+                orderService.placeOrder(saved.getId(), "SYM" + a, OrderType.BUY, 1.0 + a, 10.0);
+            }
+        }
+        bearer = "Bearer " + jwtUtil.generateToken(username, "ROLE_USER");
+
+        // Warm the auth cache so the user lookup isn't counted against the endpoint
+        mockMvc.perform(get("/api/portfolio").header("Authorization", bearer)).andExpect(status().isOk());
+    }
+
+    @Test
+    void portfolioListIsOneStatement() throws Exception {
+        assertEquals(1, statementsFor("/api/portfolio", "$.length()", PORTFOLIOS));
+    }
+
+    @Test
+    void assetListIsOneStatement() throws Exception {
+        assertEquals(1, statementsFor("/api/portfolio/" + portfolioIds.get(0) + "/assets",
+                "$.length()", ASSETS_PER_PORTFOLIO));
+    }
+
+    @Test
+    void orderReadsAreOneStatementEach() throws Exception {
+        Long portfolioId = portfolioIds.get(0);
+        assertEquals(1, statementsFor("/api/portfolio/" + portfolioId + "/orders", "$.length()", ASSETS_PER_PORTFOLIO));
+        // Recent orders come from memory
+        assertEquals(0, statementsFor("/api/portfolio/" + portfolioId + "/orders/recent", "$.length()", ASSETS_PER_PORTFOLIO));
+        assertEquals(0, statementsFor("/api/portfolio/" + portfolioId + "/orders/recent/all", "$.length()", 5));
+    }
+
+    private long statementsFor(String url, String sizePath, int expectedSize) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(sizePath).value(expectedSize));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,105 @@
+package TradeShift.Project.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free latency histogram for one operation. Buckets are log-linear (16 per power of two of
+// microseconds, so percentiles are within ~6%), which keeps recording cheap however long the run.
+final class LatencyRecorder {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = 40 * SUB_BUCKETS;
+
+    // Upper bounds (ms) of the bands printed as the histogram
+    static final double[] BANDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, Double.MAX_VALUE};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray bands = new AtomicLongArray(BANDS_MS.length);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    void record(long nanos, boolean ok) {
+        if (!ok) {
+            errors.incrementAndGet();
+        }
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        buckets.incrementAndGet(bucket(Math.max(1, nanos / 1_000)));
+        double millis = nanos / 1_000_000.0;
+        int band = 0;
+        while (millis > BANDS_MS[band]) {
+            band++;
+        }
+        bands.incrementAndGet(band);
+    }
+
+    private static int bucket(long micros) {
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent < 4) {
+            return (int) micros;
+        }
+        int sub = (int) (micros >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - 3) * SUB_BUCKETS + sub);
+    }
+
+    // Upper edge of the bucket, in microseconds
+    private static long bucketLimit(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + 3;
+        long sub = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - 4)) - 1;
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    double meanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / (double) n / 1_000_000.0;
+    }
+
+    double maxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    double percentileMillis(double p) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketLimit(i) / 1_000.0, maxMillis());
+            }
+        }
+        return maxMillis();
+    }
+
+    long[] bandCounts() {
+        long[] counts = new long[BANDS_MS.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bands.get(i);
+        }
+        return counts;
+    }
+
+    static String bandLabel(int band) {
+        return band == BANDS_MS.length - 1
+                ? String.format(Locale.ROOT, ">%.0fms", BANDS_MS[band - 1])
+                : String.format(Locale.ROOT, "<=%.0fms", BANDS_MS[band]);
+    }
+}
@@ -0,0 +1,103 @@
+package TradeShift.Project.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Throughput and latency per operation for one run: printed as a table plus histogram bands,
+// and written as JSON so runs from different releases can be compared.
+final class LoadReport {
+
+    private final String name;
+    private final int clients;
+    private final long elapsedNanos;
+    private final Map<Operation, LatencyRecorder> recorders;
+
+    LoadReport(String name, int clients, long elapsedNanos, Map<Operation, LatencyRecorder> recorders) {
+        this.name = name;
+        this.clients = clients;
+        this.elapsedNanos = elapsedNanos;
+        this.recorders = recorders;
+    }
+
+    long errors() {
+        return recorders.values().stream().mapToLong(LatencyRecorder::errors).sum();
+    }
+
+    long requests() {
+        return recorders.values().stream().mapToLong(LatencyRecorder::count).sum();
+    }
+
+    double throughput() {
+        return requests() / seconds();
+    }
+
+    private double seconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+
+    String table() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n== %s: %d clients, %.1f s, %.1f req/s, %d errors ==%n",
+                name, clients, seconds(), throughput(), errors()));
+        out.append(String.format(Locale.ROOT, "%-12s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "requests", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors"));
+        recorders.forEach((operation, r) -> out.append(String.format(Locale.ROOT,
+                "%-12s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                operation.label(), r.count(), r.count() / seconds(), r.meanMillis(), r.percentileMillis(0.50),
+                r.percentileMillis(0.90), r.percentileMillis(0.99), r.maxMillis(), r.errors())));
+
+        out.append(String.format(Locale.ROOT, "%n%-12s", "histogram"));
+        for (int band = 0; band < LatencyRecorder.BANDS_MS.length; band++) {
+            out.append(String.format(Locale.ROOT, " %8s", LatencyRecorder.bandLabel(band)));
+        }
+        out.append('\n');
+        recorders.forEach((operation, r) -> {
+            out.append(String.format(Locale.ROOT, "%-12s", operation.label()));
+            for (long count : r.bandCounts()) {
+                out.append(String.format(Locale.ROOT, " %8d", count));
+            }
+            out.append('\n');
+        });
+        return out.toString();
+    }
+
+    void writeJson(File file) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", name);
+        json.put("clients", clients);
+        json.put("seconds", seconds());
+        json.put("requests", requests());
+        json.put("throughput", throughput());
+        json.put("errors", errors());
+        List<String> bands = new ArrayList<>();
+        for (int band = 0; band < LatencyRecorder.BANDS_MS.length; band++) {
+            bands.add(LatencyRecorder.bandLabel(band));
+        }
+        json.put("histogramBands", bands);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorders.forEach((operation, r) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", r.count());
+            stats.put("throughput", r.count() / seconds());
+            stats.put("errors", r.errors());
+            stats.put("meanMs", r.meanMillis());
+            stats.put("p50Ms", r.percentileMillis(0.50));
+            stats.put("p90Ms", r.percentileMillis(0.90));
+            stats.put("p99Ms", r.percentileMillis(0.99));
+            stats.put("maxMs", r.maxMillis());
+            stats.put("histogram", r.bandCounts());
+            operations.put(operation.label(), stats);
+        });
+        json.put("operations", operations);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+    }
+}
@@ -0,0 +1,104 @@
+package TradeShift.Project.loadtest;
+
+import TradeShift.Project.loadtest.Operation.VirtualUser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Closed-loop load: each client is one virtual user that picks its next operation from the
+// weighted mix, waits for the response, optionally thinks, and repeats until the deadline.
+final class LoadRunner {
+
+    private final LoadTestEnvironment env;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final long thinkMillis;
+
+    LoadRunner(LoadTestEnvironment env, Map<Operation, Integer> mix, long thinkMillis) {
+        this.env = env;
+        this.thinkMillis = thinkMillis;
+        List<Map.Entry<Operation, Integer>> entries = mix.entrySet().stream().filter(e -> e.getValue() > 0).toList();
+        operations = new Operation[entries.size()];
+        cumulativeWeights = new int[entries.size()];
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            operations[i] = entries.get(i).getKey();
+            total += entries.get(i).getValue();
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("The mix has no positive weights");
+        }
+    }
+
+    // One user (own login and portfolio) per client, created before any timing starts
+    List<VirtualUser> createUsers(String prefix, int count) throws Exception {
+        List<VirtualUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = prefix + "-" + i;
+            env.register(username);
+            String token = env.login(username);
+            users.add(new VirtualUser(username, token, env.createPortfolio(token)));
+        }
+        return users;
+    }
+
+    LoadReport run(String name, List<VirtualUser> users, long warmupMillis, long durationMillis) throws Exception {
+        if (warmupMillis > 0) {
+            drive(users, warmupMillis);
+        }
+        long start = System.nanoTime();
+        Map<Operation, LatencyRecorder> recorders = drive(users, durationMillis);
+        return new LoadReport(name, users.size(), System.nanoTime() - start, recorders);
+    }
+
+    private Map<Operation, LatencyRecorder> drive(List<VirtualUser> users, long durationMillis) throws Exception {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        long deadline = System.nanoTime() + durationMillis * 1_000_000;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (VirtualUser user : users) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = next();
+                        long t0 = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = env.send(operation.request(env, user)) == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        recorders.get(operation).record(System.nanoTime() - t0, ok);
+                        if (thinkMillis > 0) {
+                            Thread.sleep(thinkMillis);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return recorders;
+    }
+
+    private Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
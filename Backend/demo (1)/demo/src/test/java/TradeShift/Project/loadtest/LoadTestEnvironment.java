@@ -0,0 +1,139 @@
+package TradeShift.Project.loadtest;
+
+import TradeShift.Project.DemoApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The application on a random port against its own in-memory H2 database, with Finnhub replaced
+// by a local stub that answers every quote after a fixed delay. Nothing outside the JVM is needed.
+final class LoadTestEnvironment implements AutoCloseable {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpServer quoteServer;
+    private final ConfigurableApplicationContext context;
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String base;
+
+    // appArgs are passed as command-line args so they win over src/test/resources/application.properties
+    LoadTestEnvironment(String name, int quoteLatencyMs, String... appArgs) throws IOException {
+        quoteServer = startQuoteServer(quoteLatencyMs);
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load_" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--finnhub.api.url=http://127.0.0.1:" + quoteServer.getAddress().getPort(),
+                // Ledger updates run in the background as they do in production
+                "--outbox.dispatch.enabled=true",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(appArgs));
+        try {
+            context = new SpringApplicationBuilder(DemoApplication.class).run(args.toArray(String[]::new));
+        } catch (RuntimeException e) {
+            quoteServer.stop(0);
+            throw e;
+        }
+        base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    private static HttpServer startQuoteServer(int latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/quote", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"c\":101.25}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    String url(String path) {
+        return base + path;
+    }
+
+    int send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    void register(String username) throws Exception {
+        http.send(post("/api/auth/register", null, credentials(username)), HttpResponse.BodyHandlers.discarding());
+    }
+
+    String login(String username) throws Exception {
+        String body = http.send(post("/api/auth/login", null, credentials(username)),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    long createPortfolio(String token) throws Exception {
+        String body = http.send(post("/api/portfolio", token, "{\"name\":\"load\"}"),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = ID.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Portfolio creation failed: " + body);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"secret\",\"email\":\"" + username + "@test\"}";
+    }
+
+    HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url(path)))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(url(path)))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        quoteServer.stop(0);
+    }
+}
@@ -0,0 +1,59 @@
+package TradeShift.Project.loadtest;
+
+import TradeShift.Project.loadtest.Operation.VirtualUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Capacity check for a release: drives the weighted mix of logins, portfolio and asset reads,
+// asset adds, order placement, order history and analytics at each concurrency level in turn,
+// against in-memory H2 and a stub quote server. Prints throughput and latency histograms per
+// operation and writes target/loadtest/mixed-<clients>.json for each level.
+// Run with: mvn test -Dtest=MixedWorkloadLoadTest -Dloadtest=true
+//           [-Dloadtest.clients=50,200] [-Dloadtest.durationS=30] [-Dloadtest.warmupS=10]
+//           [-Dloadtest.mix=portfolios=50,order=50] [-Dloadtest.thinkMs=0] [-Dloadtest.quoteLatencyMs=50]
+//           [-Dloadtest.virtualThreads=false]
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MixedWorkloadLoadTest {
+
+    private static final String CLIENTS = System.getProperty("loadtest.clients", "50,200");
+    private static final int DURATION_S = Integer.getInteger("loadtest.durationS", 30);
+    private static final int WARMUP_S = Integer.getInteger("loadtest.warmupS", 10);
+    private static final String MIX = System.getProperty("loadtest.mix", Operation.DEFAULT_MIX);
+    private static final int THINK_MS = Integer.getInteger("loadtest.thinkMs", 0);
+    private static final int QUOTE_LATENCY_MS = Integer.getInteger("loadtest.quoteLatencyMs", 50);
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("loadtest.virtualThreads");
+
+    @Test
+    void mixedWorkload() throws Exception {
+        List<Integer> levels = new ArrayList<>();
+        for (String level : CLIENTS.split(",")) {
+            levels.add(Integer.parseInt(level.trim()));
+        }
+        int maxClients = levels.stream().mapToInt(Integer::intValue).max().orElse(1);
+
+        try (LoadTestEnvironment env = new LoadTestEnvironment("mixed", QUOTE_LATENCY_MS,
+                "--spring.threads.virtual.enabled=" + VIRTUAL_THREADS,
+                "--server.tomcat.accept-count=" + (maxClients * 2))) {
+            LoadRunner runner = new LoadRunner(env, Operation.parseMix(MIX), THINK_MS);
+            List<VirtualUser> users = runner.createUsers("mixed", maxClients);
+
+            List<LoadReport> reports = new ArrayList<>();
+            for (int clients : levels) {
+                LoadReport report = runner.run("mixed-" + clients, users.subList(0, clients),
+                        WARMUP_S * 1_000L, DURATION_S * 1_000L);
+                System.out.println(report.table());
+                report.writeJson(new File("target/loadtest/mixed-" + clients + ".json"));
+                reports.add(report);
+            }
+            for (LoadReport report : reports) {
+                assertEquals(0, report.errors());
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package TradeShift.Project.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One request a simulated user can make, mapped onto the public endpoints. Weights for a mix are
+// given as "name=weight,..." using the lower-case names below.
+enum Operation {
+
+    LOGIN("login") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.post("/api/auth/login", null, LoadTestEnvironment.credentials(user.username()));
+        }
+    },
+    PORTFOLIOS("portfolios") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.get("/api/portfolio", user.token());
+        }
+    },
+    ASSETS("assets") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.get("/api/portfolio/" + user.portfolioId() + "/assets", user.token());
+        }
+    },
+    // Prices the asset through the quote cache, so only misses reach the stub quote server
+    ADD_ASSET("add-asset") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.post("/api/portfolio/" + user.portfolioId() + "/assets", user.token(),
+                    "{\"symbol\":\"" + symbol() + "\",\"quantity\":1}");
+        }
+    },
+    ORDER("order") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.post("/api/portfolio/" + user.portfolioId() + "/orders", user.token(),
+                    "{\"symbol\":\"" + symbol() + "\",\"type\":\"BUY\",\"quantity\":1,\"price\":"
+                            + ThreadLocalRandom.current().nextInt(50, 150) + "}");
+        }
+    },
+    ORDER_HISTORY("history") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.get("/api/portfolio/" + user.portfolioId() + "/orders/history?limit=50", user.token());
+        }
+    },
+    PROFIT_LOSS("profit-loss") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.get("/api/analytics/profit-loss?portfolioId=" + user.portfolioId(), user.token());
+        }
+    },
+    ALLOCATION("allocation") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.get("/api/analytics/asset-allocation?portfolioId=" + user.portfolioId(), user.token());
+        }
+    },
+    PERFORMANCE("performance") {
+        @Override
+        HttpRequest request(LoadTestEnvironment env, VirtualUser user) {
+            return env.get("/api/analytics/performance?portfolioId=" + user.portfolioId() + "&period=1D", user.token());
+        }
+    };
+
+    // Read-heavy, roughly what the dashboard generates per user session
+    static final String DEFAULT_MIX = "login=2,portfolios=20,assets=15,add-asset=5,order=15,history=8,"
+            + "profit-loss=10,allocation=15,performance=10";
+
+    private static final int SYMBOLS = 50;
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    abstract HttpRequest request(LoadTestEnvironment env, VirtualUser user);
+
+    private static String symbol() {
+        return "LT" + ThreadLocalRandom.current().nextInt(SYMBOLS);
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name=weight, got: " + entry);
+            }
+            weights.put(byLabel(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Operation byLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label.toLowerCase(Locale.ROOT))) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + label);
+    }
+
+    record VirtualUser(String username, String token, long portfolioId) {
+    }
+}
@@ -0,0 +1,103 @@
+package TradeShift.Project.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compares platform-thread and virtual-thread request handling under the same blocking load:
+// every addAsset waits on a stub quote server, every read goes to the in-memory database.
+// Each client works on its own portfolio, like independent users would.
+// Run with: mvn test -Dtest=VirtualThreadLoadTest -Dloadtest=true
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("loadtest.requests", 20);
+    private static final int QUOTE_LATENCY_MS = Integer.getInteger("loadtest.quoteLatencyMs", 100);
+    private static final int TOMCAT_THREADS = Integer.getInteger("loadtest.tomcatThreads", 50);
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-10s %10s %10s %10s %10s%n", "mode", "req/s", "p50 ms", "p99 ms", "errors");
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertEquals(0, platform.latencies().errors());
+        assertEquals(0, virtual.latencies().errors());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (LoadTestEnvironment env = new LoadTestEnvironment(mode, QUOTE_LATENCY_MS,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.accept-count=" + (CLIENTS * 2),
+                "--quotes.cache.ttl-ms=0")) {
+            env.register(mode);
+            String token = env.login(mode);
+            long[] portfolioIds = new long[CLIENTS];
+            for (int c = 0; c < CLIENTS; c++) {
+                portfolioIds[c] = env.createPortfolio(token);
+            }
+
+            AtomicInteger symbolSeq = new AtomicInteger();
+            LatencyRecorder latencies = new LatencyRecorder();
+
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    long portfolioId = portfolioIds[c];
+                    futures.add(clients.submit(() -> {
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            HttpRequest request = i % 2 == 0
+                                    ? env.post("/api/portfolio/" + portfolioId + "/assets", token,
+                                               "{\"symbol\":\"LT" + symbolSeq.incrementAndGet() + "\",\"quantity\":1}")
+                                    : env.get("/api/portfolio/" + portfolioId + "/assets", token);
+                            long t0 = System.nanoTime();
+                            boolean ok;
+                            try {
+                                ok = env.send(request) == 200;
+                            } catch (Exception e) {
+                                ok = false;
+                            }
+                            latencies.record(System.nanoTime() - t0, ok);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            return new Result(mode, latencies, System.nanoTime() - start);
+        }
+    }
+
+    private record Result(String mode, LatencyRecorder latencies, long elapsedNanos) {
+
+        double throughput() {
+            return latencies.count() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-10s %10.1f %10.1f %10.1f %10d",
+                    mode, throughput(), latencies.percentileMillis(0.50), latencies.percentileMillis(0.99),
+                    latencies.errors());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package TradeShift.Project.matching;
+
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.outbox.OrderEventDispatcher;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.services.AnalyticsService;
+import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioService;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class MatchingEngineTest {
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderEventDispatcher dispatcher;
+
+    @Test
+    void crossingLimitOrdersAreFilledAndPersisted() throws Exception {
+        Long seller = createPortfolio();
+        Long buyer = createPortfolio();
+        orderService.placeOrder(seller, "ENGN", OrderType.BUY, 10.0, 50.0);
+
+        Order ask = orderService.placeLimitOrder(seller, "ENGN", OrderType.SELL, 10.0, 55.0);
+        matchingEngine.submit(ask);
+        Order bid = orderService.placeLimitOrder(buyer, "ENGN", OrderType.BUY, 4.0, 56.0);
+        matchingEngine.submit(bid);
+
+        awaitStatus(bid.getId(), Order.STATUS_FILLED);
+        awaitStatus(ask.getId(), Order.STATUS_PARTIALLY_FILLED);
+
+        assertEquals(4.0, orderRepository.findById(ask.getId()).orElseThrow().getFilledQuantity().doubleValue(), 1e-9);
+        assertEquals(4.0, assetRepository.findByPortfolioIdAndSymbol(buyer, "ENGN").get(0).getQuantity().doubleValue(), 1e-9);
+        // Trades execute at the resting order's price
+        dispatcher.drain();
+        assertEquals(Money.of(-220.0), analyticsService.calculateProfitLoss(buyer));
+        assertEquals(Money.of(-500.0 + 220.0), analyticsService.calculateProfitLoss(seller));
+    }
+
+    @Test
+    void cancellingARestingSellGivesBackItsUnfilledShares() throws Exception {
+        Long seller = createPortfolio();
+        Long buyer = createPortfolio();
+        orderService.placeOrder(seller, "CNCL", OrderType.BUY, 10.0, 50.0);
+
+        Order ask = orderService.placeLimitOrder(seller, "CNCL", OrderType.SELL, 6.0, 55.0);
+        matchingEngine.submit(ask);
+        assertEquals(4.0, held(seller, "CNCL"), 1e-9);
+        Order bid = orderService.placeLimitOrder(buyer, "CNCL", OrderType.BUY, 2.0, 55.0);
+        matchingEngine.submit(bid);
+        awaitStatus(ask.getId(), Order.STATUS_PARTIALLY_FILLED);
+
+        matchingEngine.cancel(orderService.getRestingOrder(seller, ask.getId()));
+        awaitStatus(ask.getId(), Order.STATUS_CANCELLED);
+
+        // 2 sold, the other 4 back in the holdings
+        assertEquals(8.0, held(seller, "CNCL"), 1e-9);
+        assertThrows(RuntimeException.class, () -> orderService.getRestingOrder(seller, ask.getId()));
+    }
+
+    @Test
+    void aCancelThatOvertakesItsSubmitStillCancelsTheOrder() throws Exception {
+        Long seller = createPortfolio();
+        orderService.placeOrder(seller, "EARLY", OrderType.BUY, 3.0, 40.0);
+
+        Order ask = orderService.placeLimitOrder(seller, "EARLY", OrderType.SELL, 3.0, 41.0);
+        matchingEngine.cancel(orderService.getRestingOrder(seller, ask.getId()));
+        matchingEngine.submit(ask);
+        awaitStatus(ask.getId(), Order.STATUS_CANCELLED);
+        assertEquals(3.0, held(seller, "EARLY"), 1e-9);
+
+        // It never rested, so a crossing bid finds nothing to trade with
+        Long buyer = createPortfolio();
+        Order bid = orderService.placeLimitOrder(buyer, "EARLY", OrderType.BUY, 3.0, 41.0);
+        matchingEngine.submit(bid);
+        matchingEngine.cancel(orderService.getRestingOrder(buyer, bid.getId()));
+        awaitStatus(bid.getId(), Order.STATUS_CANCELLED);
+        assertEquals(3.0, held(seller, "EARLY"), 1e-9);
+    }
+
+    @Test
+    void aPortfolioCannotTradeWithItself() throws Exception {
+        Long portfolio = createPortfolio();
+        orderService.placeOrder(portfolio, "SELF", OrderType.BUY, 5.0, 20.0);
+
+        Order ask = orderService.placeLimitOrder(portfolio, "SELF", OrderType.SELL, 5.0, 21.0);
+        matchingEngine.submit(ask);
+        Order bid = orderService.placeLimitOrder(portfolio, "SELF", OrderType.BUY, 5.0, 22.0);
+        matchingEngine.submit(bid);
+
+        awaitStatus(bid.getId(), Order.STATUS_CANCELLED);
+        assertEquals(Order.STATUS_OPEN, orderRepository.findById(ask.getId()).orElseThrow().getStatus());
+        assertEquals(0.0, held(portfolio, "SELF"), 1e-9);
+    }
+
+    @Test
+    void fillsThatFailToPersistAreRetriedNotDropped() throws Exception {
+        OrderService failing = mock(OrderService.class);
+        AtomicInteger calls = new AtomicInteger();
+        List<Fill> recorded = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new RuntimeException("database unavailable");
+            }
+            recorded.addAll(invocation.getArgument(0));
+            return null;
+        }).when(failing).recordFills(anyList());
+        MatchingEngine engine = new MatchingEngine(failing, mock(OrderRepository.class), 1, 1024, 16, 100);
+        engine.start();
+        try {
+            engine.submit(restingOrder(1L, 1L, OrderType.SELL));
+            engine.submit(restingOrder(2L, 2L, OrderType.BUY));
+            for (int i = 0; i < 100 && recorded.isEmpty(); i++) {
+                Thread.sleep(50);
+            }
+        } finally {
+            engine.stop();
+        }
+
+        assertEquals(1, recorded.size());
+        assertEquals(2L, engine.getStats().get("persistFailures"));
+        assertEquals(1L, engine.getStats().get("fillsPersisted"));
+    }
+
+    private static Order restingOrder(Long id, Long portfolioId, OrderType type) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(portfolioId);
+        Order order = new Order();
+        order.setId(id);
+        order.setPortfolio(portfolio);
+        order.setSymbol("RETRY");
+        order.setType(type);
+        order.setQuantity(Quantity.of(1.0));
+        order.setPrice(Money.of(10.0));
+        return order;
+    }
+
+    private double held(Long portfolioId, String symbol) {
+        return assetRepository.findByPortfolioIdAndSymbol(portfolioId, symbol).stream()
+                .mapToDouble(asset -> asset.getQuantity().doubleValue()).sum();
+    }
+
+    private void awaitStatus(Long orderId, String status) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (status.equals(orderRepository.findById(orderId).orElseThrow().getStatus())) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        assertEquals(status, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    private Long createPortfolio() {
+        String username = "engine-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("engine");
+        return portfolioService.createPortfolio(username, portfolio).getId();
+    }
+}
@@ -0,0 +1,104 @@
+package TradeShift.Project.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderBookTest {
+
+    private final List<long[]> fills = new ArrayList<>();
+    private final List<long[]> cancels = new ArrayList<>();
+    private final OrderBook.FillSink sink = new OrderBook.FillSink() {
+        @Override
+        public void onFill(long maker, long taker, boolean takerBuys, long price, long quantity) {
+            fills.add(new long[]{maker, taker, price, quantity});
+        }
+
+        @Override
+        public void onCancel(long orderId, boolean buy, long quantity) {
+            cancels.add(new long[]{orderId, quantity});
+        }
+    };
+
+    @Test
+    void matchesBestPriceFirstThenOldestOrder() {
+        OrderBook book = new OrderBook("AAPL", 2);
+        book.submit(1, 1, false, 101, 5, sink);
+        book.submit(2, 2, false, 100, 5, sink);
+        book.submit(3, 3, false, 100, 5, sink);
+
+        long filled = book.submit(4, 4, true, 101, 12, sink);
+
+        assertEquals(12, filled);
+        assertEquals(3, fills.size());
+        assertEquals(List.of(2L, 3L, 1L), fills.stream().map(f -> f[0]).toList());
+        assertEquals(100, fills.get(0)[2]);
+        assertEquals(101, fills.get(2)[2]);
+        assertEquals(2, fills.get(2)[3]);
+        assertEquals(1, book.restingOrders());
+        assertEquals(101, book.bestAsk());
+    }
+
+    @Test
+    void nonCrossingOrdersRestOnTheirSide() {
+        OrderBook book = new OrderBook("MSFT", 4);
+        book.submit(1, 1, true, 99, 10, sink);
+        book.submit(2, 2, true, 98, 10, sink);
+        book.submit(3, 3, false, 100, 10, sink);
+
+        assertEquals(0, fills.size());
+        assertEquals(99, book.bestBid());
+        assertEquals(100, book.bestAsk());
+        assertEquals(2, book.levelCount(true));
+
+        book.submit(4, 4, false, 98, 15, sink);
+        assertEquals(2, fills.size());
+        assertEquals(99, fills.get(0)[2]);
+        assertEquals(98, book.bestBid());
+        assertEquals(1, book.levelCount(true));
+    }
+
+    @Test
+    void cancelledOrdersLeaveTheBookWithTheirRemainder() {
+        OrderBook book = new OrderBook("TSLA", 4);
+        book.submit(1, 1, false, 100, 10, sink);
+        book.submit(2, 2, false, 100, 10, sink);
+        book.submit(3, 3, false, 101, 10, sink);
+        book.submit(4, 4, true, 100, 4, sink);
+
+        // Partly filled head of its level, then the only order at a level
+        assertEquals(6, book.cancel(1, false, 100));
+        assertEquals(10, book.cancel(3, false, 101));
+        assertEquals(0, book.cancel(3, false, 101));
+        assertEquals(0, book.cancel(2, true, 100));
+        assertEquals(1, book.restingOrders());
+        assertEquals(1, book.levelCount(false));
+
+        book.submit(5, 5, true, 101, 10, sink);
+        assertEquals(2L, fills.get(fills.size() - 1)[0]);
+        assertEquals(0, book.restingOrders());
+    }
+
+    @Test
+    void ordersNeverTradeWithTheirOwnPortfolio() {
+        OrderBook book = new OrderBook("AMZN", 4);
+        book.submit(1, 9, false, 100, 5, sink);
+        book.submit(2, 7, false, 101, 5, sink);
+
+        // Fills against the other portfolio's ask first, then stops at its own
+        long filled = book.submit(3, 7, true, 101, 8, sink);
+
+        assertEquals(5, filled);
+        assertEquals(1, fills.size());
+        assertEquals(1L, fills.get(0)[0]);
+        assertEquals(1, cancels.size());
+        assertEquals(3L, cancels.get(0)[0]);
+        assertEquals(3L, cancels.get(0)[1]);
+        // Neither order is left resting on the bid side
+        assertEquals(0, book.levelCount(true));
+        assertEquals(101, book.bestAsk());
+    }
+}
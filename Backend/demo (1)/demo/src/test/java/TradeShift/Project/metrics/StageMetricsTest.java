@@ -0,0 +1,95 @@
+package TradeShift.Project.metrics;
+
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.Role;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.security.JwtUtil;
+import TradeShift.Project.services.PortfolioService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each hot-path stage records into its own meter, so a p99 regression can be pinned to one of them
+@SpringBootTest
+@AutoConfigureMockMvc
+class StageMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolio() {
+        String username = "metrics-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole(Role.ROLE_USER);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("metrics");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+        bearer = "Bearer " + jwtUtil.generateToken(username, "ROLE_USER");
+    }
+
+    @Test
+    void ordersAuthAnalyticsAndQueryCountsAreRecorded() throws Exception {
+        long orders = timerCount("orders.place", "kind", "market");
+        long authenticated = timerCount("auth.jwt", "outcome", "authenticated");
+        long allocations = timerCount("analytics.compute", "metric", "allocation");
+
+        mockMvc.perform(post("/api/portfolio/" + portfolioId + "/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"symbol\":\"AAPL\",\"type\":\"BUY\",\"quantity\":2,\"price\":10}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/analytics/asset-allocation").param("portfolioId", portfolioId.toString())
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/portfolio").header("Authorization", bearer))
+                .andExpect(status().isOk());
+
+        assertEquals(orders + 1, timerCount("orders.place", "kind", "market"));
+        assertEquals(authenticated + 2, timerCount("auth.jwt", "outcome", "authenticated"));
+        assertEquals(allocations + 1, timerCount("analytics.compute", "metric", "allocation"));
+
+        DistributionSummary queries = meterRegistry.find("http.server.requests.queries")
+                .tags("method", "POST", "uri", "/api/portfolio/{portfolioId}/orders").summary();
+        assertNotNull(queries);
+        assertTrue(queries.max() > 0);
+    }
+
+    private long timerCount(String name, String tag, String value) {
+        Timer timer = meterRegistry.find(name).tag(tag, value).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package TradeShift.Project.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void millionsOfSmallAmountsSumExactly() {
+        Money total = Money.ZERO;
+        double drifting = 0.0;
+        for (int i = 0; i < 1_000_000; i++) {
+            total = total.plus(Money.of(0.1));
+            drifting += 0.1;
+        }
+        assertEquals(new BigDecimal("100000.0000"), total.toBigDecimal());
+        assertNotEquals(100_000.0, drifting);
+    }
+
+    @Test
+    void valueOfRoundsHalfAwayFromZeroAtMoneyScale() {
+        assertEquals(Money.of(0.0001), Money.valueOf(Quantity.of(0.5), Money.of(0.0001)));
+        assertEquals(Money.ZERO, Money.valueOf(Quantity.of(0.4), Money.of(0.0001)));
+        assertEquals(-1, Money.valueTicks(-500_000, 1));
+        assertEquals(Money.of(1234.5678), Money.valueOf(Quantity.of(1), Money.of(1234.56781)));
+    }
+
+    @Test
+    void largeNotionalsFallBackToBigDecimalInsteadOfOverflowing() {
+        Quantity quantity = Quantity.of(5_000_000);
+        Money price = Money.of(2_000.5);
+        assertEquals(new BigDecimal("10002500000.0000"), Money.valueOf(quantity, price).toBigDecimal());
+    }
+
+    @Test
+    void inputsAreRoundedToTheStoredScale() {
+        assertEquals(new BigDecimal("0.1235"), Money.of(0.12345).toBigDecimal());
+        assertEquals(new BigDecimal("0.333333"), Quantity.of(1.0 / 3).toBigDecimal());
+        assertThrows(IllegalArgumentException.class, () -> Money.of(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void jsonIsAPlainNumberBothWays() throws Exception {
+        assertEquals("12.5", mapper.writeValueAsString(Money.of(12.5)));
+        assertEquals("100", mapper.writeValueAsString(Money.of(100)));
+        assertEquals("0.000001", mapper.writeValueAsString(Quantity.ofUnits(1)));
+        assertEquals(Money.of(19.99), mapper.readValue("19.99", Money.class));
+        assertEquals(Quantity.of(3), mapper.readValue("\"3\"", Quantity.class));
+    }
+}
@@ -0,0 +1,183 @@
+package TradeShift.Project.outbox;
+
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderEvent;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.services.LedgerService;
+import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioService;
+import TradeShift.Project.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class OrderEventDispatcherTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private OrderEventDispatcher dispatcher;
+
+    @Autowired
+    private OrderEventOutbox outbox;
+
+    @Autowired
+    private LedgerEventConsumer ledgerConsumer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void eventIsWrittenWithTheOrderAndAppliedOnce() {
+        Long portfolioId = createPortfolio();
+        Order order = orderService.placeOrder(portfolioId, "OBX", OrderType.BUY, 10.0, 100.0);
+
+        // Only the insert happened in the request; the ledger follows on dispatch
+        assertEquals(OrderEvent.STATUS_PENDING, status(order));
+        assertEquals(Money.of(0.0), ledgerService.getProfitLoss(portfolioId));
+
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(order));
+        assertEquals(Money.of(-1000.0), ledgerService.getProfitLoss(portfolioId));
+
+        // Settling was lost (e.g. a crash after the ledger commit): redelivery is a no-op
+        jdbcTemplate.update("UPDATE order_events SET status = 'PENDING' WHERE event_key = ?", "order:" + order.getId());
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(order));
+        assertEquals(Money.of(-1000.0), ledgerService.getProfitLoss(portfolioId));
+        assertEquals(1L, ledgerService.getLedger(portfolioId).getOrderCount());
+    }
+
+    @Test
+    void failingEventHoldsBackItsPortfolioUntilRetried() throws Exception {
+        Long first = createPortfolio();
+        Long second = createPortfolio();
+        Order failing = orderService.placeOrder(first, "OBX", OrderType.BUY, 1.0, 10.0);
+        Order other = orderService.placeOrder(second, "OBX", OrderType.BUY, 2.0, 10.0);
+        Order later = orderService.placeOrder(first, "OBX", OrderType.BUY, 3.0, 10.0);
+
+        AtomicBoolean broken = new AtomicBoolean(true);
+        OrderEventConsumer flaky = new OrderEventConsumer() {
+            @Override
+            public String name() {
+                return "flaky";
+            }
+
+            @Override
+            public void accept(List<OrderEvent> events) {
+                for (OrderEvent event : events) {
+                    if (broken.get() && event.getEventKey().equals("order:" + failing.getId())) {
+                        throw new RuntimeException("downstream unavailable");
+                    }
+                }
+            }
+        };
+        OrderEventDispatcher dispatcher = new OrderEventDispatcher(outbox, List.of(ledgerConsumer, flaky),
+                false, 1000, 500, 2, 24);
+
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_PENDING, status(failing));
+        assertEquals(OrderEvent.STATUS_PENDING, status(later));
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(other));
+
+        // Second failure parks it; the portfolio's later event keeps waiting behind it
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_FAILED, status(failing));
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_PENDING, status(later));
+
+        broken.set(false);
+        dispatcher.retryFailed();
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(failing));
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(later));
+        // The ledger took every event once, however often the batch was redelivered
+        assertEquals(Money.of(-40.0), ledgerService.getProfitLoss(first));
+        assertEquals(Money.of(-20.0), ledgerService.getProfitLoss(second));
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void parkedLedgerEventIsAppliedAfterRetryDespiteLaterOrders() throws Exception {
+        Long portfolioId = createPortfolio();
+        Order failing = orderService.placeOrder(portfolioId, "OBX", OrderType.BUY, 1.0, 10.0);
+
+        AtomicBoolean broken = new AtomicBoolean(true);
+        OrderEventConsumer flakyLedger = new OrderEventConsumer() {
+            @Override
+            public String name() {
+                return "ledger";
+            }
+
+            @Override
+            public void accept(List<OrderEvent> events) {
+                for (OrderEvent event : events) {
+                    if (broken.get() && event.getEventKey().equals("order:" + failing.getId())) {
+                        throw new RuntimeException("ledger unavailable");
+                    }
+                }
+                ledgerConsumer.accept(events);
+            }
+        };
+        OrderEventDispatcher dispatcher = new OrderEventDispatcher(outbox, List.of(flakyLedger),
+                false, 1000, 500, 1, 24);
+
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_FAILED, status(failing));
+
+        // Placed after the park: must not move the ledger past the parked event
+        Order later = orderService.placeOrder(portfolioId, "OBX", OrderType.SELL, 1.0, 15.0);
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_PENDING, status(later));
+        assertEquals(0L, ledgerService.getLedger(portfolioId).getOrderCount());
+
+        broken.set(false);
+        dispatcher.retryFailed();
+        dispatcher.drain();
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(failing));
+        assertEquals(OrderEvent.STATUS_DISPATCHED, status(later));
+        assertEquals(2L, ledgerService.getLedger(portfolioId).getOrderCount());
+        assertEquals(Money.of(5.0), ledgerService.getProfitLoss(portfolioId));
+        assertEquals(Money.of(5.0), ledgerService.getLedger(portfolioId).getRealizedPnl());
+        // Nothing for the nightly verification to repair
+        assertFalse(ledgerService.rebuild(portfolioId));
+        dispatcher.shutdown();
+    }
+
+    private String status(Order order) {
+        return jdbcTemplate.queryForObject("SELECT status FROM order_events WHERE event_key = ?",
+                String.class, "order:" + order.getId());
+    }
+
+    private Long createPortfolio() {
+        String username = "outbox-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("outbox");
+        return portfolioService.createPortfolio(username, portfolio).getId();
+    }
+}
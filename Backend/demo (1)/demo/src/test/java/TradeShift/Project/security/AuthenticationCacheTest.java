@@ -0,0 +1,91 @@
+package TradeShift.Project.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthenticationCacheTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private final Map<String, String> roles = new ConcurrentHashMap<>(Map.of("alice", "ROLE_USER"));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UserDetailsService users = username -> {
+        loads.incrementAndGet();
+        return User.withUsername(username).password("x").authorities(roles.get(username)).build();
+    };
+    private final AuthenticationCache cache = new AuthenticationCache(jwtUtil, users, 60_000, 100);
+
+    @Test
+    void repeatRequestsHitTheCache() {
+        String token = jwtUtil.generateToken("alice", "ROLE_USER");
+
+        for (int i = 0; i < 5; i++) {
+            UserDetails user = cache.authenticate(token);
+            assertNotNull(user);
+            assertEquals("alice", user.getUsername());
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(4L, cache.getStats().get("tokenHits"));
+    }
+
+    @Test
+    void invalidatingUserPicksUpNewRole() {
+        String token = jwtUtil.generateToken("alice", "ROLE_USER");
+        assertEquals("ROLE_USER", authority(cache.authenticate(token)));
+
+        roles.put("alice", "ROLE_ADMIN");
+        assertEquals("ROLE_USER", authority(cache.authenticate(token)));
+
+        cache.invalidateUser("alice");
+        assertEquals("ROLE_ADMIN", authority(cache.authenticate(token)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void rejectsForgedAndExpiredTokens() {
+        String forged = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("SomeOtherKeyThatIsAlsoAtLeast256BitsLong!!".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertNull(cache.authenticate(forged));
+        assertNull(cache.authenticate("not-a-jwt"));
+
+        String expired = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor("YourSuperSecretKeyForJWTsMustBeAtLeast256BitsLong!".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertNull(cache.authenticate(expired));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void tokenCacheIsBounded() {
+        AuthenticationCache small = new AuthenticationCache(jwtUtil, users, 60_000, 10);
+        for (int i = 0; i < 50; i++) {
+            roles.put("user" + i, "ROLE_USER");
+            assertNotNull(small.authenticate(jwtUtil.generateToken("user" + i, "ROLE_USER")));
+        }
+        assertTrue(small.getStats().get("tokens") <= 10);
+    }
+
+    private static String authority(UserDetails user) {
+        return user.getAuthorities().iterator().next().getAuthority();
+    }
+}
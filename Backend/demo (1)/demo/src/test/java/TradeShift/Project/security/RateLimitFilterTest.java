@@ -0,0 +1,91 @@
+package TradeShift.Project.security;
+
+import TradeShift.Project.entity.Role;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Budgets far below the defaults, refilling once a minute, so the tests hit them quickly
+@SpringBootTest(properties = {
+        "ratelimit.enabled=true",
+        "ratelimit.login.permits-per-minute=1",
+        "ratelimit.login.burst=3",
+        "ratelimit.api.permits-per-minute=1",
+        "ratelimit.api.burst=2"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void loginAttemptsAreLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(login("10.0.0.1")).andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value("error"));
+
+        // Other addresses have their own budget
+        mockMvc.perform(login("10.0.0.2")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void signedInClientsAreLimitedPerUserNotPerAddress() throws Exception {
+        String first = bearer();
+        String second = bearer();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(portfolios(first)).andExpect(status().isOk());
+        }
+        mockMvc.perform(portfolios(first)).andExpect(status().isTooManyRequests());
+
+        // Same address, different user
+        mockMvc.perform(portfolios(second)).andExpect(status().isOk());
+        // Logins are a separate class, so the exhausted /api budget doesn't block them
+        mockMvc.perform(login("127.0.0.1")).andExpect(status().isUnauthorized());
+    }
+
+    private static MockHttpServletRequestBuilder login(String address) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"nobody\",\"password\":\"wrong\"}")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                });
+    }
+
+    private static MockHttpServletRequestBuilder portfolios(String bearer) {
+        return get("/api/portfolio").header("Authorization", bearer);
+    }
+
+    private String bearer() {
+        User user = new User();
+        user.setUsername("limited-" + System.nanoTime());
+        user.setPassword("x");
+        user.setRole(Role.ROLE_USER);
+        userRepository.save(user);
+        return "Bearer " + jwtUtil.generateToken(user.getUsername(), "ROLE_USER");
+    }
+}
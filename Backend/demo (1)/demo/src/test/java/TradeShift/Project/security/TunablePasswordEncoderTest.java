@@ -0,0 +1,102 @@
+package TradeShift.Project.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Low costs throughout; the cost only changes how long a hash takes
+class TunablePasswordEncoderTest {
+
+    @Test
+    void legacyUnprefixedBcryptHashesStillMatchAndAreRewritten() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        TunablePasswordEncoder encoder = new TunablePasswordEncoder(TunablePasswordEncoder.BCRYPT, 4, 1000);
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertFalse(encoder.matches("wrong", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String current = encoder.encode("secret");
+        assertTrue(current.startsWith("{bcrypt}$2a$04$"));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void costChangesAreDetectedInBothDirections() {
+        String cost5 = new TunablePasswordEncoder(TunablePasswordEncoder.BCRYPT, 5, 1000).encode("secret");
+        TunablePasswordEncoder lower = new TunablePasswordEncoder(TunablePasswordEncoder.BCRYPT, 4, 1000);
+        assertTrue(lower.matches("secret", cost5));
+        assertTrue(lower.upgradeEncoding(cost5));
+
+        String cost4 = lower.encode("secret");
+        assertTrue(new TunablePasswordEncoder(TunablePasswordEncoder.BCRYPT, 5, 1000).upgradeEncoding(cost4));
+
+        String pbkdf2 = new TunablePasswordEncoder(TunablePasswordEncoder.PBKDF2, 4, 1000).encode("secret");
+        TunablePasswordEncoder morePbkdf2 = new TunablePasswordEncoder(TunablePasswordEncoder.PBKDF2, 4, 2000);
+        assertTrue(morePbkdf2.matches("secret", pbkdf2));
+        assertTrue(morePbkdf2.upgradeEncoding(pbkdf2));
+        assertFalse(morePbkdf2.upgradeEncoding(morePbkdf2.encode("secret")));
+    }
+
+    @Test
+    void switchingAlgorithmsKeepsOldHashesUsable() {
+        TunablePasswordEncoder bcrypt = new TunablePasswordEncoder(TunablePasswordEncoder.BCRYPT, 4, 1000);
+        TunablePasswordEncoder pbkdf2 = new TunablePasswordEncoder(TunablePasswordEncoder.PBKDF2, 4, 1000);
+
+        String fromBcrypt = bcrypt.encode("secret");
+        assertTrue(pbkdf2.matches("secret", fromBcrypt));
+        assertTrue(pbkdf2.upgradeEncoding(fromBcrypt));
+
+        String fromPbkdf2 = pbkdf2.encode("secret");
+        assertTrue(bcrypt.matches("secret", fromPbkdf2));
+        assertFalse(bcrypt.matches("wrong", fromPbkdf2));
+        assertTrue(bcrypt.upgradeEncoding(fromPbkdf2));
+        assertFalse(bcrypt.matches("secret", "{pbkdf2}not-a-number$abc"));
+    }
+
+    @Test
+    void hashingBeyondThePoolAndQueueIsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        PasswordHashing hashing = new PasswordHashing(slow, 1, 1, 2000);
+        try {
+            // Occupies the only thread until released; its caller gives up after the timeout
+            Thread first = new Thread(() -> assertThrows(RejectedExecutionException.class, () -> hashing.matches("a", "b")));
+            first.start();
+            while (hashing.getStats().get("active") == 0) {
+                Thread.sleep(5);
+            }
+            Thread second = new Thread(() -> assertThrows(RejectedExecutionException.class, () -> hashing.matches("a", "b")));
+            second.start();
+            while (hashing.getStats().get("queued") == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> hashing.matches("a", "b"));
+            first.join();
+            second.join();
+            assertEquals(3L, hashing.getStats().get("rejected"));
+        } finally {
+            release.countDown();
+            hashing.shutdown();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.entity.Asset;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class AssetServiceTest {
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private QuoteCache quoteCache;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long portfolioId;
+    private String symbol;
+
+    @BeforeEach
+    void createPortfolio() {
+        String username = "asset-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("assets");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+        symbol = "AST" + portfolioId;
+        // Served from the cache, so the test never reaches Finnhub
+        quoteCache.put(symbol, 20.0);
+    }
+
+    @Test
+    void addingAnAssetUpdatesTheTotalValue() {
+        assetService.addAsset(portfolioId, asset(5.0));
+        assetService.addAsset(portfolioId, asset(2.5));
+
+        assertEquals(150.0, portfolioRepository.findById(portfolioId).orElseThrow()
+                .getTotalValue().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void theAssetIsNotKeptWhenTheTotalValueUpdateFails() {
+        PortfolioService failing = mock(PortfolioService.class);
+        doThrow(new RuntimeException("total value update failed"))
+                .when(failing).calculateAndUpdatePortfolioValue(any());
+        ReflectionTestUtils.setField(assetService, "portfolioService", failing);
+        try {
+            RuntimeException failure = assertThrows(RuntimeException.class,
+                    () -> assetService.addAsset(portfolioId, asset(5.0)));
+            assertEquals("total value update failed", failure.getMessage());
+        } finally {
+            ReflectionTestUtils.setField(assetService, "portfolioService", portfolioService);
+        }
+
+        assertTrue(assetRepository.findByPortfolioIdAndSymbol(portfolioId, symbol).isEmpty());
+    }
+
+    private Asset asset(double quantity) {
+        Asset asset = new Asset();
+        asset.setSymbol(symbol);
+        asset.setQuantity(Quantity.of(quantity));
+        return asset;
+    }
+}
@@ -0,0 +1,165 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.entity.Asset;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class HoldingsIndexTest {
+
+    @Autowired
+    private HoldingsIndex holdingsIndex;
+
+    @Autowired
+    private QuoteRefreshService quoteRefreshService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Test
+    void priceTickAdjustsOnlyPortfoliosHoldingTheSymbol() {
+        String symbol = "HIX" + System.nanoTime() % 100000;
+        Long first = createPortfolio();
+        Long second = createPortfolio();
+        Long bystander = createPortfolio();
+        addAsset(first, symbol, 10.0, 100.0);
+        addAsset(first, "OTHER", 2.0, 50.0);
+        addAsset(second, symbol, 4.0, 100.0);
+        addAsset(bystander, "OTHER", 1.0, 50.0);
+        // A stale total on a portfolio not holding the symbol must be left alone
+        setTotal(bystander, 999.0);
+
+        assertTrue(holdingsIndex.isReady());
+        int repriced = quoteRefreshService.applyPrices(Map.of(symbol, 110.0));
+
+        assertEquals(2, repriced);
+        assertEquals(10 * 110.0 + 100.0, total(first), 1e-9);
+        assertEquals(4 * 110.0, total(second), 1e-9);
+        assertEquals(999.0, total(bystander), 1e-9);
+        assertEquals(110.0, assetRepository.findByPortfolioId(first).stream()
+                .filter(a -> a.getSymbol().equals(symbol)).findFirst().orElseThrow().getPrice().doubleValue(), 1e-9);
+
+        // Repeating the same price is a no-op
+        assertEquals(0, quoteRefreshService.applyPrices(Map.of(symbol, 110.0)));
+        assertEquals(4 * 110.0, total(second), 1e-9);
+    }
+
+    @Test
+    void assetWritesAreSeenByTheNextTick() {
+        String symbol = "HIW" + System.nanoTime() % 100000;
+        Long portfolioId = createPortfolio();
+        Asset asset = addAsset(portfolioId, symbol, 5.0, 20.0);
+
+        quoteRefreshService.applyPrices(Map.of(symbol, 30.0));
+        assertEquals(150.0, total(portfolioId), 1e-9);
+
+        asset = assetRepository.findById(asset.getId()).orElseThrow();
+        asset.setQuantity(Quantity.of(8.0));
+        assetRepository.save(asset);
+        portfolioService.calculateAndUpdatePortfolioValue(portfolioId);
+
+        quoteRefreshService.applyPrices(Map.of(symbol, 40.0));
+        assertEquals(320.0, total(portfolioId), 1e-9);
+
+        assetRepository.delete(asset);
+        portfolioService.calculateAndUpdatePortfolioValue(portfolioId);
+
+        assertEquals(0, quoteRefreshService.applyPrices(Map.of(symbol, 50.0)));
+        assertEquals(0.0, total(portfolioId), 1e-9);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalState() {
+        String symbol = "HIR" + System.nanoTime() % 100000;
+        Long portfolioId = createPortfolio();
+        addAsset(portfolioId, symbol, 3.0, 10.0);
+        quoteRefreshService.applyPrices(Map.of(symbol, 12.0));
+
+        holdingsIndex.rebuild();
+        quoteRefreshService.applyPrices(Map.of(symbol, 15.0));
+
+        assertEquals(45.0, total(portfolioId), 1e-9);
+        assertEquals(0L, holdingsIndex.getStats().get("dirty"));
+    }
+
+    @Test
+    void allocationIsMaintainedAcrossWritesAndTicks() {
+        String first = "HIA" + System.nanoTime() % 100000;
+        String second = "HIB" + System.nanoTime() % 100000;
+        Long portfolioId = createPortfolio();
+        // Two rows for the same ticker are one position
+        addAsset(portfolioId, first, 1.0, 100.0);
+        addAsset(portfolioId, first, 2.0, 100.0);
+        addAsset(portfolioId, second, 1.0, 100.0);
+
+        Map<String, Double> allocation = analyticsService.calculateAssetAllocation(portfolioId);
+        assertEquals(2, allocation.size());
+        assertEquals(75.0, allocation.get(first), 1e-9);
+        assertEquals(25.0, allocation.get(second), 1e-9);
+
+        quoteRefreshService.applyPrices(Map.of(second, 300.0));
+        allocation = analyticsService.calculateAssetAllocation(portfolioId);
+        assertEquals(50.0, allocation.get(first), 1e-9);
+        assertEquals(50.0, allocation.get(second), 1e-9);
+
+        assetRepository.deleteAll(assetRepository.findByPortfolioIdAndSymbol(portfolioId, second));
+        assertEquals(Map.of(first, 100.0), analyticsService.calculateAssetAllocation(portfolioId));
+    }
+
+    private Long createPortfolio() {
+        String username = "holdings-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("holdings");
+        return portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    private Asset addAsset(Long portfolioId, String symbol, double quantity, double price) {
+        Asset asset = new Asset();
+        asset.setPortfolio(portfolioRepository.findById(portfolioId).orElseThrow());
+        asset.setSymbol(symbol);
+        asset.setQuantity(Quantity.of(quantity));
+        asset.setPrice(Money.of(price));
+        Asset saved = assetRepository.save(asset);
+        portfolioService.calculateAndUpdatePortfolioValue(portfolioId);
+        return saved;
+    }
+
+    private void setTotal(Long portfolioId, double totalValue) {
+        Portfolio portfolio = portfolioRepository.findById(portfolioId).orElseThrow();
+        portfolio.setTotalValue(Money.of(totalValue));
+        portfolioRepository.save(portfolio);
+    }
+
+    private double total(Long portfolioId) {
+        return portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue().doubleValue();
+    }
+}
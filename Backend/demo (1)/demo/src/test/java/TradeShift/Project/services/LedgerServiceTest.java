@@ -0,0 +1,150 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderRequestDTO;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.PositionLedger;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.outbox.OrderEventDispatcher;
+import TradeShift.Project.repository.PositionLedgerRepository;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class LedgerServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private OrderEventDispatcher dispatcher;
+
+    @Autowired
+    private PositionLedgerRepository positionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolio() {
+        String username = "ledger-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("ledger");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    @Test
+    void ordersUpdateCashAndPositionsIncrementally() {
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.BUY, 10.0, 100.0);
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.BUY, 10.0, 120.0);
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.SELL, 5.0, 130.0);
+        dispatcher.drain();
+
+        assertEquals(Money.of(-1550.0), analyticsService.calculateProfitLoss(portfolioId));
+        assertEquals(Money.of(100.0), ledgerService.getLedger(portfolioId).getRealizedPnl());
+
+        PositionLedger position = positionRepository.findByPortfolioIdAndSymbol(portfolioId, "AAPL").orElseThrow();
+        assertEquals(Quantity.of(15.0), position.getQuantity());
+        assertEquals(Money.of(1650.0), position.getCostBasis());
+        assertFalse(ledgerService.rebuild(portfolioId));
+    }
+
+    @Test
+    void rebuildRepairsDrift() {
+        orderService.placeOrder(portfolioId, "MSFT", OrderType.BUY, 2.0, 50.0);
+        dispatcher.drain();
+        jdbcTemplate.update("UPDATE portfolio_ledgers SET cash_balance = 999 WHERE portfolio_id = ?", portfolioId);
+
+        assertTrue(ledgerService.rebuild(portfolioId));
+        assertEquals(Money.of(-100.0), analyticsService.calculateProfitLoss(portfolioId));
+    }
+
+    @Test
+    void aLongMixedHistoryLeavesExactCashAndPnl() {
+        String[] symbols = {"EXA", "EXB", "EXC"};
+        Random random = new Random(42);
+        // Expected values, worked out independently in BigDecimal with the same rounding
+        // rule: the cost taken off by a sell is cost x sold / held, half away from zero
+        Map<String, BigDecimal> held = new HashMap<>();
+        Map<String, BigDecimal> cost = new HashMap<>();
+        BigDecimal cash = BigDecimal.ZERO;
+        BigDecimal realized = BigDecimal.ZERO;
+        List<OrderRequestDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            String symbol = symbols[random.nextInt(symbols.length)];
+            BigDecimal open = held.getOrDefault(symbol, BigDecimal.ZERO);
+            BigDecimal openCost = cost.getOrDefault(symbol, BigDecimal.ZERO);
+            // Cents and hundredths of a share, so every notional is exact at money scale
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(50_000), 2);
+            boolean sell = open.signum() > 0 && random.nextInt(5) < 2;
+            BigDecimal quantity = sell
+                    ? BigDecimal.valueOf(1 + random.nextInt(open.movePointRight(2).intValueExact()), 2)
+                    : BigDecimal.valueOf(1 + random.nextInt(2_000), 2);
+            BigDecimal notional = quantity.multiply(price);
+            if (sell) {
+                BigDecimal closedCost = quantity.compareTo(open) == 0 ? openCost
+                        : openCost.multiply(quantity).divide(open, 4, RoundingMode.HALF_UP);
+                realized = realized.add(notional).subtract(closedCost);
+                cash = cash.add(notional);
+                held.put(symbol, open.subtract(quantity));
+                cost.put(symbol, openCost.subtract(closedCost));
+            } else {
+                cash = cash.subtract(notional);
+                held.put(symbol, open.add(quantity));
+                cost.put(symbol, openCost.add(notional));
+            }
+            orders.add(new OrderRequestDTO(symbol, sell ? "SELL" : "BUY", quantity.doubleValue(), price.doubleValue()));
+        }
+
+        for (int from = 0; from < orders.size(); from += 500) {
+            orderService.placeOrders(portfolioId, orders.subList(from, Math.min(from + 500, orders.size())));
+        }
+        dispatcher.drain();
+
+        assertEquals(Money.of(cash), ledgerService.getProfitLoss(portfolioId));
+        assertEquals(Money.of(realized), ledgerService.getLedger(portfolioId).getRealizedPnl());
+        for (String symbol : symbols) {
+            PositionLedger position = positionRepository.findByPortfolioIdAndSymbol(portfolioId, symbol).orElseThrow();
+            assertEquals(Quantity.of(held.get(symbol)), position.getQuantity());
+            assertEquals(Money.of(cost.get(symbol)), position.getCostBasis());
+        }
+        // Replaying all 4000 orders reproduces the incremental ledger exactly
+        assertFalse(ledgerService.rebuild(portfolioId));
+    }
+}
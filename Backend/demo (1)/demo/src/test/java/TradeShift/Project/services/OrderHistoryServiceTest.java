@@ -0,0 +1,114 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.dto.OrderHistoryFilter;
+import TradeShift.Project.dto.OrderPage;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderHistoryServiceTest {
+
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolioWithHistory() {
+        String username = "history-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("history");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+
+        // Orders placed back to back can share a timestamp, so the id tiebreak matters
+        for (int i = 0; i < 25; i++) {
+            orderService.placeOrder(portfolioId, i % 2 == 0 ? "AAPL" : "MSFT", OrderType.BUY, 1.0, 10.0 + i);
+        }
+    }
+
+    @Test
+    void cursorWalksWholeHistoryNewestFirstWithoutGapsOrRepeats() {
+        List<OrderDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPage page = orderHistoryService.getOrderPage(portfolioId, new OrderHistoryFilter(), cursor, 7);
+            seen.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, pages);
+        assertEquals(25, seen.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < seen.size(); i++) {
+            assertTrue(ids.add(seen.get(i).getId()));
+            if (i > 0) {
+                OrderDTO prev = seen.get(i - 1);
+                OrderDTO cur = seen.get(i);
+                int byTime = prev.getOrderTime().compareTo(cur.getOrderTime());
+                assertTrue(byTime > 0 || (byTime == 0 && prev.getId() > cur.getId()));
+            }
+        }
+    }
+
+    @Test
+    void filtersApplyToPagesAndExport() throws Exception {
+        OrderHistoryFilter filter = new OrderHistoryFilter();
+        filter.setSymbol("AAPL");
+        filter.setType(OrderType.BUY);
+
+        OrderPage page = orderHistoryService.getOrderPage(portfolioId, filter, null, 100);
+        assertEquals(13, page.getOrders().size());
+        assertNull(page.getNextCursor());
+        assertTrue(page.getOrders().stream().allMatch(o -> o.getSymbol().equals("AAPL")));
+
+        filter.setType(OrderType.SELL);
+        assertTrue(orderHistoryService.getOrderPage(portfolioId, filter, null, 100).getOrders().isEmpty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = orderHistoryService.exportOrders(portfolioId, new OrderHistoryFilter(), out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(25, written);
+        assertEquals(25, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"symbol\""));
+    }
+
+    @Test
+    void rejectsGarbageCursor() {
+        assertThrows(RuntimeException.class,
+                () -> orderHistoryService.getOrderPage(portfolioId, new OrderHistoryFilter(), "not-a-cursor", 10));
+    }
+}
@@ -0,0 +1,195 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderImportReport;
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.outbox.OrderEventDispatcher;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class OrderImportServiceTest {
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private OrderEventDispatcher dispatcher;
+
+    @Autowired
+    private PortfolioWrites portfolioWrites;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolio() {
+        ReflectionTestUtils.setField(orderImportService, "chunkSize", 4);
+        String username = "import-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("import");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    @AfterEach
+    void restoreChunkSize() {
+        ReflectionTestUtils.setField(orderImportService, "chunkSize", 500);
+    }
+
+    @Test
+    void csvRowsAreCommittedInChunksAndBadRowsReported() throws Exception {
+        StringBuilder csv = new StringBuilder("symbol,type,quantity,price,order_time\n");
+        for (int day = 1; day <= 10; day++) {
+            csv.append("IMPX,buy,1.5,").append(100 + day).append(",2021-03-").append(String.format("%02d", day))
+                    .append("T10:00:00\n");
+            if (day == 3) {
+                csv.append("IMPX,HOLD,1,100,\n");
+                csv.append("\n");
+                csv.append("\"IMPX\",\"BUY\",-2,100,\n");
+            }
+        }
+
+        OrderImportReport report = orderImportService.importOrders(portfolioId, stream(csv), OrderImportService.Format.CSV);
+
+        assertTrue(report.isFinished());
+        assertNull(report.getFailure());
+        assertEquals(12, report.getRowsRead());
+        assertEquals(10, report.getOrdersImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(3, report.getChunksCommitted());
+        assertEquals(List.of("line 5: Invalid order type: HOLD", "line 7: Quantity must be positive"), report.getErrors());
+
+        assertEquals(Quantity.of(15), assetRepository.findByPortfolioIdAndSymbol(portfolioId, "IMPX").get(0).getQuantity());
+        List<Order> orders = orderRepository.findByPortfolioId(portfolioId);
+        assertEquals(10, orders.size());
+        assertTrue(orders.stream().anyMatch(o -> o.getOrderTime().equals(LocalDateTime.of(2021, 3, 7, 10, 0))));
+        assertNull(orderImportService.getProgress(portfolioId));
+    }
+
+    @Test
+    void ndjsonImportStopsAtAChunkThatCannotBeApplied() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            ndjson.append("{\"symbol\":\"IMPN\",\"type\":\"BUY\",\"quantity\":2,\"price\":10}\n");
+        }
+        ndjson.append("{\"symbol\":\"IMPN\",\"type\":\"SELL\",\"quantity\":20,\"price\":10}\n");
+        ndjson.append("not json\n");
+        ndjson.append("{\"symbol\":\"IMPN\",\"type\":\"BUY\",\"quantity\":1,\"price\":10}\n");
+
+        OrderImportReport report = orderImportService.importOrders(portfolioId, stream(ndjson), OrderImportService.Format.NDJSON);
+
+        assertEquals(4, report.getOrdersImported());
+        assertEquals(1, report.getChunksCommitted());
+        assertEquals(1, report.getRowsRejected());
+        assertTrue(report.getFailure().startsWith("chunk ending at line 7 was rolled back: Insufficient quantity"));
+        assertEquals(Quantity.of(8), assetRepository.findByPortfolioIdAndSymbol(portfolioId, "IMPN").get(0).getQuantity());
+        assertEquals(4, orderRepository.findByPortfolioId(portfolioId).size());
+    }
+
+    @Test
+    void backdatedRowsLeaveTheLedgerInTimeOrder() throws Exception {
+        orderService.placeOrder(portfolioId, "IMPB", OrderType.BUY, 10.0, 100.0);
+        dispatcher.drain();
+        // Older than the existing order and out of order themselves; quoted notes contain commas
+        String csv = "symbol,type,quantity,price,order_time,note\n"
+                + "IMPB,SELL,5,120,2021-03-02T10:00:00,\"sold, \"\"partly\"\"\"\n"
+                + "\"IMPB\",BUY,5,80,2021-03-01T10:00:00,\"first, lot\"\n";
+
+        OrderImportReport report = orderImportService.importOrders(portfolioId, stream(csv), OrderImportService.Format.CSV);
+        assertEquals(2, report.getOrdersImported());
+        dispatcher.drain();
+
+        // By time: buy 5 at 80, sell 5 at 120 (+200), then the buy of 10 at 100
+        assertEquals(Money.of(200.0), ledgerService.getLedger(portfolioId).getRealizedPnl());
+        assertEquals(Money.of(-800.0), ledgerService.getProfitLoss(portfolioId));
+        assertFalse(ledgerService.rebuild(portfolioId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aChunkTurnedAwayByAFullStripeIsRetried() throws Exception {
+        PortfolioWrites busy = mock(PortfolioWrites.class);
+        when(busy.execute(eq(portfolioId), any(Supplier.class)))
+                .thenThrow(new RejectedExecutionException())
+                .thenThrow(new RejectedExecutionException())
+                .thenAnswer(invocation -> portfolioWrites.execute(portfolioId, invocation.getArgument(1)));
+        ReflectionTestUtils.setField(orderImportService, "portfolioWrites", busy);
+        try {
+            String csv = "symbol,type,quantity,price\nIMPR,BUY,2,10\nIMPR,BUY,3,10\n";
+            OrderImportReport report = orderImportService.importOrders(portfolioId, stream(csv), OrderImportService.Format.CSV);
+
+            assertNull(report.getFailure());
+            assertEquals(2, report.getOrdersImported());
+            assertEquals(1, report.getChunksCommitted());
+            verify(busy, times(3)).execute(eq(portfolioId), any(Supplier.class));
+            assertEquals(Quantity.of(5), assetRepository.findByPortfolioIdAndSymbol(portfolioId, "IMPR").get(0).getQuantity());
+        } finally {
+            ReflectionTestUtils.setField(orderImportService, "portfolioWrites", portfolioWrites);
+        }
+    }
+
+    @Test
+    void csvFieldsAreSplitOutsideQuotesOnly() {
+        assertEquals(List.of("a, b", "say \"hi\"", "", "c"),
+                OrderImportService.fields(" \"a, b\" ,\"say \"\"hi\"\"\",,c"));
+        assertEquals("unterminated quoted field",
+                assertThrows(RuntimeException.class,
+                        () -> OrderImportService.fields("IMPX,\"BUY")).getMessage());
+    }
+
+    private static InputStream stream(CharSequence body) {
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,156 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderRequestDTO;
+import TradeShift.Project.entity.Asset;
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.money.Quantity;
+import TradeShift.Project.repository.AssetRepository;
+import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolio() {
+        String username = "orders-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("orders");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    @Test
+    void fillsAdjustHoldingsAndTotalValue() {
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.BUY, 10.0, 100.0);
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.SELL, 4.0, 110.0);
+
+        List<Asset> assets = assetRepository.findByPortfolioIdAndSymbol(portfolioId, "AAPL");
+        assertEquals(1, assets.size());
+        assertEquals(6.0, assets.get(0).getQuantity().doubleValue(), 1e-9);
+        assertEquals(600.0, portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue().doubleValue(), 1e-9);
+
+        orderService.placeOrder(portfolioId, "AAPL", OrderType.SELL, 6.0, 120.0);
+        assertTrue(assetRepository.findByPortfolioIdAndSymbol(portfolioId, "AAPL").isEmpty());
+        assertEquals(0.0, portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void overSellingIsRejectedAndNothingIsRecorded() {
+        orderService.placeOrder(portfolioId, "MSFT", OrderType.BUY, 1.0, 300.0);
+
+        assertThrows(RuntimeException.class,
+                () -> orderService.placeOrder(portfolioId, "MSFT", OrderType.SELL, 2.0, 300.0));
+        assertEquals(1, orderRepository.findByPortfolioId(portfolioId).size());
+    }
+
+    @Test
+    void batchCommitsAllOrdersWithGeneratedIds() {
+        List<OrderRequestDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(new OrderRequestDTO("SYM" + (i % 3), "BUY", 1.0, 10.0));
+        }
+        batch.add(new OrderRequestDTO("SYM0", "SELL", 5.0, 12.0));
+
+        List<Order> orders = orderService.placeOrders(portfolioId, batch);
+
+        orders.forEach(order -> assertNotNull(order.getId()));
+        assertEquals(121, orderRepository.findByPortfolioId(portfolioId).size());
+        assertEquals(35.0, assetRepository.findByPortfolioIdAndSymbol(portfolioId, "SYM0").get(0).getQuantity().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void failingBatchRollsBackEverything() {
+        List<OrderRequestDTO> batch = List.of(
+                new OrderRequestDTO("TSLA", "BUY", 1.0, 200.0),
+                new OrderRequestDTO("TSLA", "SELL", 5.0, 200.0));
+
+        assertThrows(RuntimeException.class, () -> orderService.placeOrders(portfolioId, batch));
+        assertTrue(orderRepository.findByPortfolioId(portfolioId).isEmpty());
+        assertTrue(assetRepository.findByPortfolioId(portfolioId).isEmpty());
+    }
+
+    @Test
+    void concurrentBuysDoNotLoseUpdates() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(pool.submit(() -> orderService.placeOrder(portfolioId, "NVDA", OrderType.BUY, 1.0, 50.0)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(40.0, assetRepository.findByPortfolioIdAndSymbol(portfolioId, "NVDA").get(0).getQuantity().doubleValue(), 1e-9);
+        assertEquals(2000.0, portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void longOrderHistoriesKeepExactQuantitiesAndTotals() {
+        // 0.1 + 0.1 + ... drifts in binary floating point; fixed-point sums must not
+        List<OrderRequestDTO> buys = new ArrayList<>();
+        List<OrderRequestDTO> sells = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            buys.add(new OrderRequestDTO("DIME", "BUY", 0.1, 0.1));
+            if (i < 4_999) {
+                sells.add(new OrderRequestDTO("DIME", "SELL", 0.1, 0.1));
+            }
+        }
+        orderService.placeOrders(portfolioId, buys);
+        assertEquals(Quantity.of(500), assetRepository.findByPortfolioIdAndSymbol(portfolioId, "DIME").get(0).getQuantity());
+        assertEquals(Money.of(50), portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue());
+
+        orderService.placeOrders(portfolioId, sells);
+        assertEquals(Quantity.of(0.1), assetRepository.findByPortfolioIdAndSymbol(portfolioId, "DIME").get(0).getQuantity());
+        assertEquals(Money.of(0.01), portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue());
+
+        // The last tenth sells out the position exactly, with no dust left behind
+        orderService.placeOrder(portfolioId, "DIME", OrderType.SELL, 0.1, 0.1);
+        assertTrue(assetRepository.findByPortfolioIdAndSymbol(portfolioId, "DIME").isEmpty());
+        assertEquals(Money.ZERO, portfolioRepository.findById(portfolioId).orElseThrow().getTotalValue());
+    }
+}
@@ -0,0 +1,123 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.metrics.QueryCountInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortfolioWritesTest {
+
+    private final PortfolioWrites writes = new PortfolioWrites(new QueryCountInspector(), 2, 100);
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        writes.shutdown();
+    }
+
+    @Test
+    void writesToOnePortfolioNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int[] total = {0};
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(callers.submit(() -> writes.execute(7L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                // Unsynchronized read-modify-write; only safe because the stripe serializes
+                int value = total[0];
+                Thread.yield();
+                total[0] = value + 1;
+                running.decrementAndGet();
+                return null;
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(200, total[0]);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void otherPortfoliosAreNotHeldUpByABusyOne() throws Exception {
+        assertNotEquals(writes.stripeOf(1L), writes.stripeOf(2L));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocked = callers.submit(() -> writes.execute(1L, () -> {
+            await(release);
+            return null;
+        }));
+        try {
+            while (writes.getStats().get("active") == 0) {
+                Thread.sleep(5);
+            }
+            Future<String> other = callers.submit(() -> writes.execute(2L, () -> "done"));
+            assertEquals("done", other.get(5, TimeUnit.SECONDS));
+            assertFalse(blocked.isDone());
+        } finally {
+            release.countDown();
+        }
+        blocked.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void nestedWritesRunInlineAndFailuresReachTheCaller() {
+        assertEquals("inner", writes.execute(1L, () -> writes.execute(3L, () -> "inner")));
+        assertEquals(1L, writes.getStats().get("nested"));
+
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> writes.execute(1L, () -> {
+                    throw new RuntimeException("Portfolio not found");
+                }));
+        assertEquals("Portfolio not found", failure.getMessage());
+    }
+
+    @Test
+    void writesBeyondAStripesQueueAreRejected() throws Exception {
+        PortfolioWrites small = new PortfolioWrites(new QueryCountInspector(), 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            callers.submit(() -> small.execute(1L, () -> {
+                await(release);
+                return null;
+            }));
+            while (small.getStats().get("active") == 0) {
+                Thread.sleep(5);
+            }
+            callers.submit(() -> small.execute(1L, () -> null));
+            while (small.getStats().get("queued") == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> small.execute(2L, () -> null));
+            assertEquals(1L, small.getStats().get("rejected"));
+        } finally {
+            release.countDown();
+            small.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
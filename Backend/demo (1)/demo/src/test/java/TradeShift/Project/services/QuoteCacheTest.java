@@ -0,0 +1,119 @@
+package TradeShift.Project.services;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuoteCacheTest {
+
+    private HttpServer server;
+    private FinnhubClient client;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    void startStubServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/quote", exchange -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"c\":187.5}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new FinnhubClient(new RestTemplate(),
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test", ObservationRegistry.NOOP);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentMissesCollapseIntoOneUpstreamCall() throws Exception {
+        QuoteCache cache = new QuoteCache(60_000, 100);
+        release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Double>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(pool.submit(() -> cache.get("AAPL", client::fetchQuote)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (Future<Double> result : results) {
+            assertEquals(187.5, result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(187.5, cache.get("aapl", client::fetchQuote));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1L, cache.getStats().get("loads"));
+        assertTrue(cache.getStats().get("hits") >= 1);
+    }
+
+    @Test
+    void expiredEntryIsCountedAsStaleAndReloaded() throws Exception {
+        QuoteCache cache = new QuoteCache(50, 100);
+        cache.get("MSFT", client::fetchQuote);
+        Thread.sleep(80);
+        cache.get("MSFT", client::fetchQuote);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1L, cache.getStats().get("misses"));
+        assertEquals(1L, cache.getStats().get("stale"));
+    }
+
+    @Test
+    void staleValueIsServedWhenUpstreamFails() throws Exception {
+        QuoteCache cache = new QuoteCache(50, 100);
+        cache.put("TSLA", 250.0);
+        Thread.sleep(80);
+
+        Double price = cache.get("TSLA", symbol -> {
+            throw new IllegalStateException("upstream down");
+        });
+
+        assertEquals(250.0, price);
+        assertEquals(1L, cache.getStats().get("loadFailures"));
+    }
+
+    @Test
+    void sizeStaysBounded() {
+        QuoteCache cache = new QuoteCache(60_000, 50);
+        for (int i = 0; i < 500; i++) {
+            cache.put("SYM" + i, i);
+        }
+        assertTrue(cache.size() <= 50);
+        assertTrue(cache.getStats().get("evictions") >= 450);
+    }
+}
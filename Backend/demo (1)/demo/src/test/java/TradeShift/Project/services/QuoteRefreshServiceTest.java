@@ -0,0 +1,163 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.QuoteRefreshReport;
+import TradeShift.Project.events.PricesChangedEvent;
+import TradeShift.Project.repository.AssetRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// One refresh cycle against a local stub of the quote endpoint; the database side is mocked
+// so the test sees exactly which statements the cycle issues.
+class QuoteRefreshServiceTest {
+
+    private static final int CONCURRENCY = 3;
+    private static final int REQUESTS_PER_SECOND = 40;
+    private static final long LATENCY_MS = 60;
+
+    private HttpServer server;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Long> arrivals = new ConcurrentLinkedQueue<>();
+
+    private final AssetRepository assetRepository = mock(AssetRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final HoldingsIndex holdingsIndex = mock(HoldingsIndex.class);
+    private QuoteRefreshService service;
+
+    @BeforeEach
+    void startStubServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/quote", exchange -> {
+            arrivals.add(System.nanoTime());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String symbol = exchange.getRequestURI().getQuery().replaceAll(".*symbol=([^&]*).*", "$1");
+            int status = 200;
+            String body;
+            if (symbol.equals("DOWN")) {
+                status = 500;
+                body = "{}";
+            } else if (symbol.equals("NOQUOTE")) {
+                body = "{\"c\":0}";
+            } else {
+                body = "{\"c\":" + (100 + symbol.length()) + ".25}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            inFlight.decrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        FinnhubClient client = new FinnhubClient(new RestTemplate(),
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test", ObservationRegistry.NOOP);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new QuoteRefreshService(assetRepository, client, new QuoteCache(60_000, 100), jdbcTemplate,
+                namedJdbcTemplate, eventPublisher, holdingsIndex, new TransactionTemplate(transactionManager),
+                false, CONCURRENCY, REQUESTS_PER_SECOND, 500, false, "");
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void oneCycleIsCappedPacedAndWrittenInOneBatch() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            symbols.add("Q" + "X".repeat(i));
+        }
+        symbols.add("DOWN");
+        symbols.add("NOQUOTE");
+        when(assetRepository.findDistinctSymbols()).thenReturn(symbols);
+        // Every price differs from the stored one except the last row's in the batch
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<List<Object[]>>getArgument(1).size()];
+            Arrays.fill(counts, 1);
+            counts[counts.length - 1] = 0;
+            return counts;
+        });
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(7L, 8L));
+
+        QuoteRefreshReport report = service.refreshAll();
+
+        assertEquals(12, report.getSymbols());
+        assertEquals(10, report.getQuotesFetched());
+        assertEquals(2, report.getFailures());
+        assertEquals(9, report.getSymbolsRepriced());
+        assertEquals(2, report.getPortfoliosRepriced());
+
+        // Never more requests in flight than the cap, and the cap is actually used
+        assertTrue(maxInFlight.get() <= CONCURRENCY, "max in flight " + maxInFlight.get());
+        assertTrue(maxInFlight.get() > 1, "requests were not run in parallel");
+        // Requests are spaced by 1/rps: 12 of them span at least 11 slots
+        List<Long> sorted = arrivals.stream().sorted().toList();
+        long spanMs = TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() - 1) - sorted.get(0));
+        long slotMs = 1000 / REQUESTS_PER_SECOND;
+        assertTrue(spanMs >= (sorted.size() - 1) * slotMs - slotMs / 2, "requests spanned only " + spanMs + " ms");
+
+        // All fetched prices go out in a single batch of the conditional price update
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(sql.capture(), rows.capture());
+        assertTrue(sql.getValue().startsWith("UPDATE assets SET price = ?"));
+        assertEquals(10, rows.getValue().size());
+        for (Object[] row : rows.getValue()) {
+            assertEquals(new BigDecimal((100 + ((String) row[1]).length()) + ".2500"), row[0]);
+        }
+
+        ArgumentCaptor<PricesChangedEvent> event = ArgumentCaptor.forClass(PricesChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(9, event.getValue().prices().size());
+    }
+}
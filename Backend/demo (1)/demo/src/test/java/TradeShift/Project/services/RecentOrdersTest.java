@@ -0,0 +1,153 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.dto.OrderDTO;
+import TradeShift.Project.dto.OrderRequestDTO;
+import TradeShift.Project.entity.Order;
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.repository.OrderRepository;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class RecentOrdersTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private RecentOrders recentOrders;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void anOrderCommittedDuringTheFirstLoadIsKept() {
+        OrderRepository repository = mock(OrderRepository.class);
+        RecentOrders rings = new RecentOrders(repository, 8, 4, 100);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(1L);
+        Order placed = new Order();
+        placed.setId(100L);
+        placed.setPortfolio(portfolio);
+        placed.setSymbol("RACE");
+        placed.setType(OrderType.BUY);
+        placed.setOrderTime(LocalDateTime.now());
+        when(repository.findRecentDtosByPortfolioId(eq(1L), any(Pageable.class))).thenAnswer(invocation -> {
+            // Commits after the ring was installed but before the query's rows are added
+            rings.recorded(List.of(placed));
+            List<OrderDTO> older = new ArrayList<>();
+            int limit = invocation.getArgument(1, Pageable.class).getPageSize();
+            for (long id = 99; older.size() < limit; id--) {
+                older.add(new OrderDTO(id, "RACE", OrderType.BUY, null, null,
+                        LocalDateTime.now().minusDays(100 - id), "Completed", null));
+            }
+            return older;
+        });
+
+        List<OrderDTO> recent = rings.get(1L, 2);
+
+        assertEquals(List.of(100L, 99L), recent.stream().map(OrderDTO::getId).toList());
+    }
+
+    private String username;
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolio() {
+        username = "recent-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("recent");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    @Test
+    void committedOrdersShowUpNewestFirstAndRolledBackOnesDont() {
+        List<Long> placed = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            placed.add(orderService.placeOrder(portfolioId, "RCT", OrderType.BUY, 1.0, 10.0 + i).getId());
+        }
+        assertThrows(RuntimeException.class,
+                () -> orderService.placeOrder(portfolioId, "RCT", OrderType.SELL, 100.0, 10.0));
+
+        assertEquals(placed.subList(2, 7).reversed(), ids(orderService.getRecentOrders(portfolioId, 5)));
+        assertEquals(placed.get(6), orderService.getRecentOrders(null, 5).get(0).getId());
+        // Same answer as the index-backed fallback
+        recentOrders.reset();
+        assertEquals(placed.subList(2, 7).reversed(), ids(orderService.getRecentOrders(portfolioId, 5)));
+    }
+
+    @Test
+    void backdatedImportsReloadFromTheDatabase() {
+        Order live = orderService.placeOrder(portfolioId, "RCT", OrderType.BUY, 1.0, 10.0);
+
+        OrderRequestDTO older = new OrderRequestDTO();
+        older.setSymbol("OLD");
+        older.setType("BUY");
+        older.setQuantity(1.0);
+        older.setPrice(5.0);
+        older.setOrderTime(LocalDateTime.now().minusYears(1));
+        Long imported = orderService.placeOrders(portfolioId, List.of(older)).get(0).getId();
+
+        assertEquals(List.of(live.getId(), imported), ids(orderService.getRecentOrders(portfolioId, 5)));
+    }
+
+    @Test
+    void concurrentPlacementsAreAllVisible() throws Exception {
+        List<Long> portfolios = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setName("recent-" + i);
+            portfolios.add(portfolioService.createPortfolio(username, portfolio).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (Long id : portfolios) {
+                futures.add(executor.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < 5; i++) {
+                        ids.add(orderService.placeOrder(id, "CON", OrderType.BUY, 1.0, 1.0).getId());
+                    }
+                    return ids;
+                }));
+            }
+            for (int i = 0; i < portfolios.size(); i++) {
+                List<Long> expected = new ArrayList<>(futures.get(i).get()).reversed();
+                assertEquals(expected, ids(orderService.getRecentOrders(portfolios.get(i), 5)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Long> ids(List<OrderDTO> orders) {
+        return orders.stream().map(OrderDTO::getId).toList();
+    }
+}
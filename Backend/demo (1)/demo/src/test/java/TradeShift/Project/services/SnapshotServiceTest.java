@@ -0,0 +1,111 @@
+package TradeShift.Project.services;
+
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.PortfolioSnapshot;
+import TradeShift.Project.entity.SnapshotResolution;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.money.Money;
+import TradeShift.Project.repository.PortfolioRepository;
+import TradeShift.Project.repository.PortfolioSnapshotRepository;
+import TradeShift.Project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SnapshotServiceTest {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private PortfolioSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void createPortfolio() {
+        String username = "snapshots-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("snapshots");
+        portfolio.setTotalValue(Money.of(1250.0));
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+    }
+
+    @Test
+    void captureRecordsEveryPortfolio() {
+        LocalDateTime at = LocalDateTime.of(2030, 1, 1, 12, 0);
+        int written = snapshotService.capture(at);
+
+        assertEquals(portfolioRepository.count(), written);
+        List<PortfolioSnapshot> points =
+                snapshotRepository.findByPortfolioIdAndResolutionOrderByTakenAt(portfolioId, SnapshotResolution.MINUTE);
+        assertEquals(1, points.size());
+        assertEquals(1250.0, points.get(0).getTotalValue(), 1e-9);
+        assertEquals(at, points.get(0).getTakenAt());
+    }
+
+    @Test
+    void performanceComparesLatestPointWithPointAtStartOfPeriod() {
+        LocalDateTime now = LocalDateTime.of(2031, 6, 15, 10, 0);
+        save(now.minusYears(2), SnapshotResolution.DAY, 500.0);
+        save(now.minusDays(8), SnapshotResolution.DAY, 800.0);
+        save(now.minusDays(1).minusMinutes(5), SnapshotResolution.HOUR, 1000.0);
+        save(now.minusMinutes(1), SnapshotResolution.MINUTE, 1090.0);
+        save(now, SnapshotResolution.MINUTE, 1100.0);
+
+        assertEquals(10.0, snapshotService.getPerformance(portfolioId, "1D"), 1e-9);
+        assertEquals(37.5, snapshotService.getPerformance(portfolioId, "1w"), 1e-9);
+        assertEquals(120.0, snapshotService.getPerformance(portfolioId, "1Y"), 1e-9);
+        assertThrows(RuntimeException.class, () -> snapshotService.getPerformance(portfolioId, "5Y"));
+    }
+
+    @Test
+    void downsamplingKeepsLastPointOfEachBucket() {
+        LocalDateTime now = LocalDateTime.of(2032, 3, 10, 12, 30);
+        LocalDateTime old = now.minusDays(2).withMinute(0);
+        for (int minute = 0; minute < 60; minute++) {
+            save(old.plusMinutes(minute), SnapshotResolution.MINUTE, 100.0 + minute);
+            save(old.plusHours(1).plusMinutes(minute), SnapshotResolution.MINUTE, 200.0 + minute);
+        }
+        save(now.minusMinutes(10), SnapshotResolution.MINUTE, 999.0);
+
+        snapshotService.downsample(now);
+
+        List<PortfolioSnapshot> hourly =
+                snapshotRepository.findByPortfolioIdAndResolutionOrderByTakenAt(portfolioId, SnapshotResolution.HOUR);
+        assertEquals(2, hourly.size());
+        assertEquals(159.0, hourly.get(0).getTotalValue(), 1e-9);
+        assertEquals(259.0, hourly.get(1).getTotalValue(), 1e-9);
+
+        List<PortfolioSnapshot> recent =
+                snapshotRepository.findByPortfolioIdAndResolutionOrderByTakenAt(portfolioId, SnapshotResolution.MINUTE);
+        assertEquals(1, recent.size());
+        assertTrue(recent.get(0).getTakenAt().isAfter(now.minusHours(1)));
+    }
+
+    private void save(LocalDateTime at, SnapshotResolution resolution, double value) {
+        snapshotRepository.save(new PortfolioSnapshot(portfolioId, resolution, at, value));
+    }
+}
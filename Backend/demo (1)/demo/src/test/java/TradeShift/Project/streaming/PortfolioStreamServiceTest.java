@@ -0,0 +1,133 @@
+package TradeShift.Project.streaming;
+
+import TradeShift.Project.entity.OrderType;
+import TradeShift.Project.entity.Portfolio;
+import TradeShift.Project.entity.Role;
+import TradeShift.Project.entity.User;
+import TradeShift.Project.outbox.OrderEventDispatcher;
+import TradeShift.Project.events.PricesChangedEvent;
+import TradeShift.Project.repository.UserRepository;
+import TradeShift.Project.security.JwtUtil;
+import TradeShift.Project.services.OrderService;
+import TradeShift.Project.services.PortfolioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PortfolioStreamServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PortfolioStreamService streamService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderEventDispatcher dispatcher;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+    private Long portfolioId;
+    private String symbol;
+
+    @BeforeEach
+    void createPortfolio() {
+        String username = "stream-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole(Role.ROLE_USER);
+        userRepository.save(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("stream");
+        portfolioId = portfolioService.createPortfolio(username, portfolio).getId();
+        symbol = "STRM" + portfolioId;
+        orderService.placeOrder(portfolioId, symbol, OrderType.BUY, 10.0, 100.0);
+        bearer = "Bearer " + jwtUtil.generateToken(username, "ROLE_USER");
+    }
+
+    @Test
+    void pushesSnapshotThenDeltasForPricesAndOrders() throws Exception {
+        MvcResult stream = open();
+        awaitContent(stream, body -> body.contains("event:snapshot") && body.contains("\"totalValue\":1000.0"));
+
+        eventPublisher.publishEvent(new PricesChangedEvent(Map.of(symbol, 110.0)));
+        streamService.flush();
+        awaitContent(stream, body -> body.contains("event:update") && body.contains("\"totalValue\":1100.0"));
+
+        orderService.placeOrder(portfolioId, symbol, OrderType.SELL, 5.0, 110.0);
+        // Cash follows once the outbox event reaches the ledger
+        dispatcher.drain();
+        streamService.flush();
+        // Holdings and cash are reloaded from the database (asset rows still carry the fill price)
+        awaitContent(stream, body -> body.contains("\"quantity\":5.0") && body.contains("\"profitLoss\":-450.0"));
+    }
+
+    @Test
+    void connectionsOnOnePortfolioShareOneViewAndPriceBurstsCoalesce() throws Exception {
+        MvcResult first = open();
+        MvcResult second = open();
+        awaitContent(first, body -> body.contains("event:snapshot"));
+        awaitContent(second, body -> body.contains("event:snapshot"));
+
+        long versionsBefore = streamService.getStats().get("versionsPublished");
+        for (int i = 1; i <= 50; i++) {
+            eventPublisher.publishEvent(new PricesChangedEvent(Map.of(symbol, 100.0 + i)));
+        }
+        streamService.flush();
+
+        assertEquals(versionsBefore + 1, streamService.getStats().get("versionsPublished"));
+        awaitContent(first, body -> body.contains("\"totalValue\":1500.0"));
+        awaitContent(second, body -> body.contains("\"totalValue\":1500.0"));
+        assertTrue(!first.getResponse().getContentAsString().contains("\"totalValue\":1010.0"));
+    }
+
+    private MvcResult open() throws Exception {
+        return mockMvc.perform(get("/api/portfolio/stream").header("Authorization", bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void awaitContent(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = "";
+        while (System.currentTimeMillis() < deadline) {
+            body = result.getResponse().getContentAsString();
+            if (condition.test(body)) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Stream never matched; received:\n" + body);
+    }
+}
@@ -0,0 +1,58 @@
+package TradeShift.Project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetAddAndRemove() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(7, 15);
+        assertEquals(15, map.get(7, 0));
+        assertEquals(-1, map.get(8, -1));
+
+        assertEquals(40, map.addTo(7, 25));
+        assertEquals(30, map.addTo(9, 30));
+        assertEquals(2, map.size());
+
+        assertTrue(map.remove(7));
+        assertFalse(map.remove(7));
+        assertFalse(map.containsKey(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // Small key range forces collisions, growth and backward-shift deletes
+            long key = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    map.put(key, i);
+                    expected.put(key, (long) i);
+                }
+                case 1 -> {
+                    map.addTo(key, 1);
+                    expected.merge(key, 1L, Long::sum);
+                }
+                default -> assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(expected, seen);
+    }
+}
@@ -0,0 +1,69 @@
+package TradeShift.Project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentRingTest {
+
+    @Test
+    void keepsTheLatestItemsNewestFirst() {
+        RecentRing<Integer> ring = new RecentRing<>(3);
+        assertEquals(4, ring.capacity());
+        assertEquals(List.of(), ring.snapshot());
+
+        ring.add(1);
+        ring.add(2);
+        assertEquals(List.of(2, 1), ring.snapshot());
+
+        for (int i = 3; i <= 10; i++) {
+            ring.add(i);
+        }
+        assertEquals(List.of(10, 9, 8, 7), ring.snapshot());
+
+        assertTrue(ring.replace(item -> item == 8, 80));
+        assertFalse(ring.replace(item -> item == 1, 100));
+        assertEquals(List.of(10, 9, 80, 7), ring.snapshot());
+    }
+
+    @Test
+    void concurrentWritersFillDistinctSlots() throws Exception {
+        RecentRing<Long> ring = new RecentRing<>(64);
+        int writers = 8;
+        int perWriter = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            Future<?>[] futures = new Future<?>[writers];
+            for (int w = 0; w < writers; w++) {
+                long base = (long) w * perWriter;
+                futures[w] = executor.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        ring.add(base + i);
+                        ring.snapshot();
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every slot was claimed by exactly one write, so no item shows up twice
+        List<Long> items = ring.snapshot();
+        assertEquals(64, items.size());
+        Set<Long> distinct = new HashSet<>(items);
+        assertEquals(64, distinct.size());
+    }
+}
@@ -0,0 +1,74 @@
+package TradeShift.Project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void grantsTheBurstThenOnePermitPerInterval() {
+        long start = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(1.0, 3, start);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(start));
+        }
+        assertEquals(SECOND, bucket.tryAcquire(start));
+        assertEquals(SECOND / 2, bucket.tryAcquire(start + SECOND / 2));
+
+        assertEquals(0, bucket.tryAcquire(start + SECOND));
+        assertTrue(bucket.tryAcquire(start + SECOND) > 0);
+    }
+
+    @Test
+    void isIdleOnceFullyRefilled() {
+        long start = -5 * SECOND;
+        TokenBucket bucket = new TokenBucket(2.0, 4, start);
+        assertTrue(bucket.isIdle(start));
+
+        bucket.tryAcquire(start);
+        bucket.tryAcquire(start);
+        assertFalse(bucket.isIdle(start + SECOND / 2 - 1));
+        assertTrue(bucket.isIdle(start + SECOND));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedTheBurst() throws Exception {
+        long now = System.nanoTime();
+        // Refills once a day, so only the burst is available during the test
+        TokenBucket bucket = new TokenBucket(1.0 / 86_400, 1_000, now);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    int granted = 0;
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryAcquire(now) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            assertEquals(1_000, granted);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
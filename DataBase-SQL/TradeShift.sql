@@ -53,6 +53,21 @@ SELECT * FROM portfolios;
 SELECT * FROM assets;
 SELECT *from orders;
 
+-- Order history: keyset pages on (order_time, id) per portfolio, optionally by symbol
+CREATE INDEX idx_orders_portfolio_time ON orders (portfolio_id, order_time, id);
+CREATE INDEX idx_orders_portfolio_symbol_time ON orders (portfolio_id, symbol, order_time, id);
+
+-- Latest orders across all portfolios (loading the global recent-orders ring)
+CREATE INDEX idx_orders_time ON orders (order_time, id);
+
+-- Fixed-point money: ddl-auto=update won't change column types, so convert existing DOUBLEs once
+ALTER TABLE assets MODIFY quantity DECIMAL(19,6), MODIFY price DECIMAL(19,4);
+ALTER TABLE orders MODIFY quantity DECIMAL(19,6), MODIFY price DECIMAL(19,4), MODIFY filled_quantity DECIMAL(19,6);
+ALTER TABLE portfolios MODIFY total_value DECIMAL(19,4);
+ALTER TABLE trades MODIFY price DECIMAL(19,4), MODIFY quantity DECIMAL(19,6);
+ALTER TABLE portfolio_ledgers MODIFY cash_balance DECIMAL(19,4), MODIFY realized_pnl DECIMAL(19,4);
+ALTER TABLE position_ledgers MODIFY quantity DECIMAL(19,6), MODIFY cost_basis DECIMAL(19,4), MODIFY realized_pnl DECIMAL(19,4);
+
 /*
 -- Step 1: Drop the existing database (this deletes all tables & data)
 DROP DATABASE IF EXISTS tradeshift_db;